@@ -0,0 +1,85 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The database-specific pieces of {@code loadStrategy: BULK}: how a chunk is sent to the database
+ * in one statement instead of as a JDBC batch of single-row inserts.
+ * <ul>
+ *   <li>{@link SqlDialect#H2}: the chunk is written to a temporary CSV file and loaded with
+ *       {@code INSERT INTO .. SELECT * FROM CSVREAD(..)}. The database must be able to read the
+ *       adapter's temp directory, which holds for embedded and local H2.</li>
+ *   <li>{@link SqlDialect#ORACLE}: the batch insert gets an {@code APPEND_VALUES} hint, so the
+ *       bound arrays are written direct-path above the high-water mark, bypassing the buffer cache
+ *       and most undo.</li>
+ *   <li>{@link SqlDialect#OTHER}: no bulk path; the chunk goes through the regular batch insert.</li>
+ * </ul>
+ */
+final class BulkLoader {
+
+    private BulkLoader() {
+    }
+
+    /** {@code insertSql} with an {@code APPEND_VALUES} hint after its {@code INSERT} keyword. */
+    static String directPathSql(String insertSql) {
+        return "INSERT /*+ APPEND_VALUES */" + insertSql.substring("INSERT".length());
+    }
+
+    /** {@code INSERT INTO table (columns) SELECT * FROM CSVREAD(file)}, reading a file from {@link #writeCsv}. */
+    static String csvReadSql(String tableName, List<String> columns, Path file) {
+        StringBuilder csvColumns = new StringBuilder();
+        for (int i = 1; i <= columns.size(); i++) {
+            if (i > 1) csvColumns.append(',');
+            csvColumns.append('C').append(i);
+        }
+        return "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ") SELECT * FROM CSVREAD('"
+                + file.toAbsolutePath().toString().replace("'", "''") + "', '" + csvColumns + "', 'charset=UTF-8')";
+    }
+
+    /**
+     * Writes {@code rows} to a new temporary file without a header line. Values are quoted, and
+     * {@code NULL} is an empty unquoted field, so empty strings and nulls stay distinct. The
+     * caller deletes the file.
+     */
+    static Path writeCsv(List<Object[]> rows) throws IOException {
+        Path file = Files.createTempFile("ingesta-bulk-", ".csv");
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) out.write(',');
+                    if (row[i] != null) writeQuoted(out, text(row[i]));
+                }
+                out.write('\n');
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /** The text H2 parses back into the value's type: {@code java.util.Date}s are written as timestamps. */
+    private static String text(Object value) {
+        if (value instanceof Date d && !(value instanceof Timestamp) && !(value instanceof java.sql.Date)) {
+            return new Timestamp(d.getTime()).toString();
+        }
+        return value.toString();
+    }
+
+    private static void writeQuoted(BufferedWriter out, String text) throws IOException {
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
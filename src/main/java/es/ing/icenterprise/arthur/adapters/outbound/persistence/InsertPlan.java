@@ -0,0 +1,233 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+import es.ing.icenterprise.arthur.core.domain.model.Action;
+import es.ing.icenterprise.arthur.core.domain.model.ColumnRef;
+import es.ing.icenterprise.arthur.core.domain.model.DatabaseMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A write statement compiled once from a step's mappings: the SQL, and for each {@code ?} how
+ * its value is taken from a row — a source column, a concatenation of source columns, the
+ * ingest timestamp or a fresh UUID. Mapping lists are inspected (and {@code autoGenerate}
+ * parsed) only here; {@link #rows} then fills each row's arguments with a plain loop over
+ * precomputed arrays.
+ * <p>
+ * Immutable and thread-safe: the {@link ColumnRef}s that read the rows are created per
+ * {@link #rows} call, so parallel writers can share one plan.
+ */
+final class InsertPlan {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertPlan.class);
+
+    private static final byte DIRECT = 0;
+    private static final byte CONCAT = 1;
+    private static final byte TIMESTAMP = 2;
+    private static final byte UUID_VALUE = 3;
+    private static final byte NONE = 4;
+
+    private final String sql;
+    /** The mapping behind each parameter, in parameter order. */
+    private final List<DatabaseMapping> parameters;
+    private final byte[] kinds;
+    /** Source columns of parameter {@code i} are {@code sources[sourceStart[i] .. sourceStart[i + 1])}. */
+    private final int[] sourceStart;
+    private final String[] sources;
+    private final String[] separators;
+    /** Position of the id column's parameter, or -1 for a plain INSERT. */
+    private final int idParameter;
+
+    private InsertPlan(String sql, List<DatabaseMapping> parameters, int idParameter) {
+        this.sql = sql;
+        this.idParameter = idParameter;
+        this.parameters = List.copyOf(parameters);
+        int n = parameters.size();
+        this.kinds = new byte[n];
+        this.sourceStart = new int[n + 1];
+        this.separators = new String[n];
+        List<String> sourceList = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            DatabaseMapping m = parameters.get(i);
+            sourceStart[i] = sourceList.size();
+            if (m.isAutoGenerated()) {
+                kinds[i] = autoGenerateKind(m);
+            } else if (m.isConcatenated()) {
+                kinds[i] = CONCAT;
+                separators[i] = m.separator();
+                sourceList.addAll(m.concatenate());
+            } else {
+                kinds[i] = DIRECT;
+                sourceList.add(m.excelColumn());
+            }
+        }
+        sourceStart[n] = sourceList.size();
+        this.sources = sourceList.toArray(String[]::new);
+    }
+
+    /** {@code INSERT INTO table (c1, ..) VALUES (?, ..)} with one parameter per mapping, in mapping order. */
+    static InsertPlan forInsert(String tableName, List<DatabaseMapping> mappings) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for (DatabaseMapping m : mappings) {
+            if (!columns.isEmpty()) {
+                columns.append(", ");
+                placeholders.append(", ");
+            }
+            columns.append(m.dbColumn());
+            // Auto-generated values are resolved in Java, not by DB functions, for portability.
+            placeholders.append('?');
+        }
+        return new InsertPlan("INSERT INTO " + tableName + " (" + columns + ") VALUES (" + placeholders + ")",
+                mappings, -1);
+    }
+
+    /**
+     * {@code UPDATE table SET c1 = ?, .. WHERE id = ?}: every mapping but the id column's is SET,
+     * the id mapping's value is the last parameter.
+     *
+     * @throws IllegalArgumentException if no mapping targets {@code idColumn}
+     * @return null if the id column is the only one mapped, so there is nothing to update
+     */
+    static InsertPlan forUpdate(String tableName, List<DatabaseMapping> mappings, String idColumn) {
+        DatabaseMapping idMapping = null;
+        List<DatabaseMapping> parameters = new ArrayList<>(mappings.size());
+        StringBuilder setClause = new StringBuilder();
+        for (DatabaseMapping m : mappings) {
+            if (idColumn.equalsIgnoreCase(m.dbColumn())) {
+                if (idMapping == null) idMapping = m;
+                continue;
+            }
+            if (!setClause.isEmpty()) setClause.append(", ");
+            setClause.append(m.dbColumn()).append(" = ?");
+            parameters.add(m);
+        }
+        if (idMapping == null) {
+            throw new IllegalArgumentException("No mapping found for idColumn: " + idColumn);
+        }
+        if (parameters.isEmpty()) return null;
+        parameters.add(idMapping);
+        return new InsertPlan("UPDATE " + tableName + " SET " + setClause + " WHERE " + idColumn + " = ?",
+                parameters, parameters.size() - 1);
+    }
+
+    /**
+     * {@code MERGE INTO table t USING (<row>) s ON (t.id = s.id)}: rows whose id is not in the
+     * table are inserted; with {@code updateExisting}, the others get every non-id column set, and
+     * are left alone otherwise. One parameter per mapping, in mapping order, as for
+     * {@link #forInsert}. The source row is {@code VALUES (?, ..)} for H2 and
+     * {@code SELECT ? .. FROM DUAL} for Oracle.
+     *
+     * @throws IllegalArgumentException if no mapping targets {@code idColumn}
+     */
+    static InsertPlan forMerge(String tableName, List<DatabaseMapping> mappings, String idColumn,
+                               boolean updateExisting, SqlDialect dialect) {
+        int idParameter = -1;
+        StringBuilder source = new StringBuilder();
+        StringBuilder sourceColumns = new StringBuilder();
+        StringBuilder columns = new StringBuilder();
+        StringBuilder values = new StringBuilder();
+        StringBuilder setClause = new StringBuilder();
+        for (int i = 0; i < mappings.size(); i++) {
+            DatabaseMapping m = mappings.get(i);
+            String sourceColumn = "C" + (i + 1);
+            if (i > 0) {
+                source.append(", ");
+                sourceColumns.append(", ");
+                columns.append(", ");
+                values.append(", ");
+            }
+            source.append(dialect == SqlDialect.ORACLE ? "? " + sourceColumn : "?");
+            sourceColumns.append(sourceColumn);
+            columns.append(m.dbColumn());
+            values.append("s.").append(sourceColumn);
+            if (idColumn.equalsIgnoreCase(m.dbColumn())) {
+                if (idParameter < 0) idParameter = i;
+            } else {
+                if (!setClause.isEmpty()) setClause.append(", ");
+                setClause.append("t.").append(m.dbColumn()).append(" = s.").append(sourceColumn);
+            }
+        }
+        if (idParameter < 0) {
+            throw new IllegalArgumentException("No mapping found for idColumn: " + idColumn);
+        }
+
+        String using = dialect == SqlDialect.ORACLE
+                ? "(SELECT " + source + " FROM DUAL) s"
+                : "(VALUES (" + source + ")) s (" + sourceColumns + ")";
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(tableName).append(" t USING ").append(using)
+                .append(" ON (t.").append(idColumn).append(" = s.C").append(idParameter + 1).append(')');
+        if (updateExisting && !setClause.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ").append(setClause);
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT (").append(columns).append(") VALUES (").append(values).append(')');
+        return new InsertPlan(sql.toString(), mappings, idParameter);
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    /** Position of the id column's value in each row of {@link #rows}; -1 for an INSERT plan. */
+    int idParameter() {
+        return idParameter;
+    }
+
+    /** The mapping behind each {@code ?} of {@link #sql()}, in order. */
+    List<DatabaseMapping> parameters() {
+        return parameters;
+    }
+
+    /** The argument arrays for {@code data}, one per row and in row order. */
+    List<Object[]> rows(List<Action> data, Timestamp ingestTimestamp) {
+        ColumnRef[] refs = new ColumnRef[sources.length];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = ColumnRef.of(sources[i]);
+        }
+        List<Object[]> rows = new ArrayList<>(data.size());
+        StringBuilder concat = new StringBuilder();
+        for (Action action : data) {
+            Object[] args = new Object[kinds.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = switch (kinds[i]) {
+                    case DIRECT -> refs[sourceStart[i]].get(action);
+                    case CONCAT -> concat(action, refs, i, concat);
+                    case TIMESTAMP -> ingestTimestamp;
+                    case UUID_VALUE -> UUID.randomUUID().toString();
+                    default -> null;
+                };
+            }
+            rows.add(args);
+        }
+        return rows;
+    }
+
+    /** Non-blank source values of parameter {@code i}, joined by its separator. */
+    private String concat(Action action, ColumnRef[] refs, int i, StringBuilder sb) {
+        sb.setLength(0);
+        for (int s = sourceStart[i]; s < sourceStart[i + 1]; s++) {
+            Object value = refs[s].get(action);
+            if (value == null) continue;
+            String text = value.toString();
+            if (text.isBlank()) continue;
+            if (!sb.isEmpty()) sb.append(separators[i]);
+            sb.append(text);
+        }
+        return sb.toString();
+    }
+
+    private static byte autoGenerateKind(DatabaseMapping mapping) {
+        return switch (mapping.autoGenerate().toUpperCase()) {
+            case "TIMESTAMP" -> TIMESTAMP;
+            case "UUID" -> UUID_VALUE;
+            default -> {
+                log.warn("Unknown autoGenerate type: {}", mapping.autoGenerate());
+                yield NONE;
+            }
+        };
+    }
+}
@@ -1,35 +1,74 @@
 package es.ing.icenterprise.arthur.adapters.outbound.persistence;
 
 import es.ing.icenterprise.arthur.core.domain.model.Action;
+import es.ing.icenterprise.arthur.core.domain.model.ColumnMetadata;
+import es.ing.icenterprise.arthur.core.domain.model.CompactIdIndex;
+import es.ing.icenterprise.arthur.core.domain.model.CompactStringMap;
 import es.ing.icenterprise.arthur.core.domain.model.DatabaseMapping;
+import es.ing.icenterprise.arthur.core.domain.model.ReferenceKeys;
 import es.ing.icenterprise.arthur.core.ports.outbound.InsertResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.LinkResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.MergeResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.ParentLink;
 import es.ing.icenterprise.arthur.core.ports.outbound.PersistencePort;
+import es.ing.icenterprise.arthur.core.ports.outbound.TableMetadataPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Component
 public class JdbcPersistenceAdapter implements PersistencePort {
 
     private static final Logger log = LoggerFactory.getLogger(JdbcPersistenceAdapter.class);
+    /** Compiled plans kept before the cache is reset; a run has one per write step. */
+    private static final int MAX_PLANS = 256;
+    /** Oracle's limit on the elements of an {@code IN} list. */
+    private static final int IN_LIST_LIMIT = 1000;
+    /**
+     * Rows per fetch when streaming ids or lookup entries; the Oracle driver's default of 10 means
+     * a round-trip every 10 rows.
+     */
+    private static final int ID_FETCH_SIZE = 10_000;
 
     private final JdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
+    private final TableMetadataPort tableMetadataPort;
+    private final Map<PlanKey, InsertPlan> plans = new ConcurrentHashMap<>();
+    private volatile SqlDialect dialect;
 
     public JdbcPersistenceAdapter(JdbcTemplate jdbcTemplate, PlatformTransactionManager txManager) {
+        this(jdbcTemplate, txManager, null);
+    }
+
+    @Autowired
+    public JdbcPersistenceAdapter(JdbcTemplate jdbcTemplate, PlatformTransactionManager txManager,
+                                  TableMetadataPort tableMetadataPort) {
         this.jdbcTemplate = jdbcTemplate;
+        this.tableMetadataPort = tableMetadataPort;
         // REQUIRES_NEW: each batch attempt is its own short-lived transaction so a
         // failed chunk can be rolled back cleanly before the bisected retries run.
         this.transactionTemplate = new TransactionTemplate(txManager);
@@ -43,34 +82,173 @@ public class JdbcPersistenceAdapter implements PersistencePort {
 
         if (data.isEmpty() || mappings.isEmpty()) return InsertResult.EMPTY;
 
-        // Build column list from mappings
-        List<String> dbColumns = mappings.stream()
-                .map(DatabaseMapping::dbColumn)
-                .toList();
-
-        // Build placeholders: ? for normal/concat, function call for auto-generated
-        List<String> placeholders = mappings.stream()
-                .map(this::buildPlaceholder)
-                .toList();
-
-        String sql = String.format("INSERT INTO %s (%s) VALUES (%s)",
-                tableName,
-                String.join(", ", dbColumns),
-                String.join(", ", placeholders));
-
+        InsertPlan plan = plan(tableName, mappings, null);
+        String sql = plan.sql();
         log.debug("Generated SQL: {}", sql);
 
         // Resolve ingest date: from filename (passed via params) or fallback to today
         LocalDate ingestDate = (LocalDate) parameters.getOrDefault("_ingestDate", LocalDate.now());
-        Timestamp ingestTimestamp = Timestamp.valueOf(ingestDate.atStartOfDay());
+        List<Object[]> batchArgs = plan.rows(data, Timestamp.valueOf(ingestDate.atStartOfDay()));
+
+        // With typedBinding, values are converted to their column's type once here and bound with
+        // typed setters; preValidate runs the same conversion only to drop rows it rejects.
+        boolean typedBinding = Boolean.TRUE.equals(parameters.get("typedBinding"));
+        TypedRowBinder binder = typedBinding || Boolean.TRUE.equals(parameters.get("preValidate"))
+                ? binderFor(plan.parameters(), tableName, (String) parameters.get("schema"))
+                : null;
+        int rejected = batchArgs.size();
+        batchArgs = validate(batchArgs, binder, typedBinding, tableName);
+        rejected -= batchArgs.size();
+        TypedRowBinder sendBinder = typedBinding ? binder : null;
+
+        List<Object[]> rows = batchArgs;
+        Supplier<InsertResult> batchInsert = "UPDATE_COUNTS".equalsIgnoreCase(String.valueOf(parameters.get("rowIsolation")))
+                ? () -> batchInsertIsolate(sql, rows, tableName, sendBinder)
+                : () -> batchInsertBisect(sql, rows, tableName, sendBinder);
+        InsertResult result = "BULK".equalsIgnoreCase(String.valueOf(parameters.get("loadStrategy")))
+                ? bulkInsert(plan, tableName, rows, sendBinder, batchInsert)
+                : batchInsert.get();
+        result = result.plus(new InsertResult(0, rejected));
+        log.info("Insert into {} finished: {} inserted, {} failed, {} isolation round-trips",
+                tableName, result.inserted(), result.failed(), result.isolationRoundTrips());
+        return result;
+    }
 
-        List<Object[]> batchArgs = data.stream()
-                .map(action -> buildRowArgs(action, mappings, ingestTimestamp))
-                .toList();
+    /**
+     * The rows {@code binder} accepts, converted to their bind types if {@code typedBinding};
+     * rejected rows are logged. All rows, unchanged, without a binder.
+     */
+    private static List<Object[]> validate(List<Object[]> rows, TypedRowBinder binder, boolean typedBinding,
+                                           String tableName) {
+        if (binder == null) return rows;
+        List<Object[]> accepted = new ArrayList<>(rows.size());
+        for (Object[] args : rows) {
+            try {
+                Object[] converted = binder.convert(args);
+                accepted.add(typedBinding ? converted : args);
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping invalid row for {}: values={} error={}",
+                        tableName, Arrays.toString(args), e.getMessage());
+            }
+        }
+        return accepted;
+    }
 
-        InsertResult result = batchInsertBisect(sql, batchArgs, tableName);
-        log.info("Insert into {} finished: {} inserted, {} failed", tableName, result.inserted(), result.failed());
-        return result;
+    /**
+     * {@code loadStrategy: BULK}: sends the chunk in one database-native statement (see
+     * {@link BulkLoader}). The load is all or nothing, so if the database rejects any row the
+     * chunk is rolled back and handed to {@code batchInsert}, whose row isolation finds the bad
+     * ones; the failed attempt counts as one extra round-trip.
+     */
+    private InsertResult bulkInsert(InsertPlan plan, String tableName, List<Object[]> rows, TypedRowBinder binder,
+                                    Supplier<InsertResult> batchInsert) {
+        if (rows.isEmpty()) return InsertResult.EMPTY;
+        SqlDialect dialect = dialect();
+        if (dialect == SqlDialect.OTHER) {
+            log.debug("No bulk load path for this database; batch inserting into {}", tableName);
+            return batchInsert.get();
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (dialect == SqlDialect.ORACLE) {
+                    executeBatch(BulkLoader.directPathSql(plan.sql()), rows, binder);
+                } else {
+                    loadCsv(tableName, plan, rows);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Bulk load into {} rejected the chunk of {} rows ({}); retrying as batch inserts",
+                    tableName, rows.size(), rootCauseMessage(e));
+            return batchInsert.get().withRoundTrips(1);
+        }
+        log.info("Bulk loaded {} rows into {} in {} ms", rows.size(), tableName,
+                (System.nanoTime() - start) / 1_000_000);
+        return new InsertResult(rows.size(), 0);
+    }
+
+    private void loadCsv(String tableName, InsertPlan plan, List<Object[]> rows) {
+        Path file;
+        try {
+            file = BulkLoader.writeCsv(rows);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write bulk load file for " + tableName, e);
+        }
+        try {
+            List<String> columns = plan.parameters().stream().map(DatabaseMapping::dbColumn).toList();
+            jdbcTemplate.update(BulkLoader.csvReadSql(tableName, columns, file));
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete bulk load file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /** The connected database's dialect, read from the driver once. */
+    private SqlDialect dialect() {
+        SqlDialect d = dialect;
+        if (d == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) conn -> conn.getMetaData().getDatabaseProductName());
+            d = SqlDialect.of(product);
+            dialect = d;
+        }
+        return d;
+    }
+
+    /**
+     * The compiled plan for this table and mapping list, built on the step's first chunk and
+     * reused for the rest. A null {@code idColumn} means INSERT, otherwise UPDATE by that column;
+     * null if an UPDATE has nothing to set.
+     */
+    private InsertPlan plan(String tableName, List<DatabaseMapping> mappings, String idColumn) {
+        return plan(idColumn == null ? "INSERT" : "UPDATE", tableName, mappings, idColumn);
+    }
+
+    /** As {@link #plan(String, List, String)}, for {@code statement} INSERT, UPDATE, MERGE or MERGE_INSERT. */
+    private InsertPlan plan(String statement, String tableName, List<DatabaseMapping> mappings, String idColumn) {
+        PlanKey key = new PlanKey(statement, tableName, mappings, idColumn);
+        InsertPlan plan = plans.get(key);
+        if (plan != null) return plan;
+        plan = switch (statement) {
+            case "INSERT" -> InsertPlan.forInsert(tableName, mappings);
+            case "UPDATE" -> InsertPlan.forUpdate(tableName, mappings, idColumn);
+            default -> InsertPlan.forMerge(tableName, mappings, idColumn, statement.equals("MERGE"), dialect());
+        };
+        if (plan != null) {
+            if (plans.size() >= MAX_PLANS) plans.clear();
+            plans.put(new PlanKey(statement, tableName, List.copyOf(mappings), idColumn), plan);
+        }
+        return plan;
+    }
+
+    /** A binder from the table's (cached) column metadata, or null if this adapter has no metadata port. */
+    private TypedRowBinder binderFor(List<DatabaseMapping> mappings, String tableName, String schema) {
+        if (tableMetadataPort == null) return null;
+        Map<String, ColumnMetadata> columns = tableMetadataPort.getColumns(tableName, schema).stream()
+                .collect(Collectors.toMap(ColumnMetadata::name, c -> c, (a, b) -> a));
+        return TypedRowBinder.forMappings(mappings, columns);
+    }
+
+    /** One batch execution: typed setters through {@code binder} when given, driver-inferred types otherwise. */
+    private void executeBatch(String sql, List<Object[]> batchArgs, TypedRowBinder binder) {
+        if (binder == null) {
+            jdbcTemplate.batchUpdate(sql, batchArgs);
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                binder.bind(ps, batchArgs.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batchArgs.size();
+            }
+        });
     }
 
     /**
@@ -79,26 +257,106 @@ public class JdbcPersistenceAdapter implements PersistencePort {
      * row, that row is logged and counted as failed. This isolates bad rows and
      * lets the rest of the batch through.
      */
-    private InsertResult batchInsertBisect(String sql, List<Object[]> batchArgs, String tableName) {
+    private InsertResult batchInsertBisect(String sql, List<Object[]> batchArgs, String tableName,
+                                           TypedRowBinder binder) {
         if (batchArgs.isEmpty()) return InsertResult.EMPTY;
         try {
             return transactionTemplate.execute(status -> {
-                jdbcTemplate.batchUpdate(sql, batchArgs);
+                executeBatch(sql, batchArgs, binder);
                 return new InsertResult(batchArgs.size(), 0);
             });
         } catch (DataAccessException e) {
             if (batchArgs.size() == 1) {
-                log.warn("Skipping bad row for {}: values={} error={}",
-                        tableName, Arrays.toString(batchArgs.get(0)), rootCauseMessage(e));
-                return new InsertResult(0, 1);
+                return skipBadRow(batchArgs.get(0), tableName, e);
             }
-            int mid = batchArgs.size() / 2;
-            InsertResult left = batchInsertBisect(sql, batchArgs.subList(0, mid), tableName);
-            InsertResult right = batchInsertBisect(sql, batchArgs.subList(mid, batchArgs.size()), tableName);
-            return left.plus(right);
+            return bisect(sql, batchArgs, tableName, binder);
         }
     }
 
+    private InsertResult bisect(String sql, List<Object[]> batchArgs, String tableName, TypedRowBinder binder) {
+        int mid = batchArgs.size() / 2;
+        InsertResult left = batchInsertBisect(sql, batchArgs.subList(0, mid), tableName, binder);
+        InsertResult right = batchInsertBisect(sql, batchArgs.subList(mid, batchArgs.size()), tableName, binder);
+        return left.plus(right).withRoundTrips(2);
+    }
+
+    /**
+     * Like {@link #batchInsertBisect}, but reads the failing rows off the driver's
+     * {@link BatchUpdateException#getUpdateCounts()} instead of halving blindly: those rows are
+     * logged and dropped and the rest is resent, one round-trip per failed attempt instead of
+     * {@code O(log n)} per bad row. Falls back to bisection when the counts do not identify the
+     * failing rows.
+     */
+    private InsertResult batchInsertIsolate(String sql, List<Object[]> batchArgs, String tableName,
+                                            TypedRowBinder binder) {
+        if (batchArgs.isEmpty()) return InsertResult.EMPTY;
+        try {
+            return transactionTemplate.execute(status -> {
+                executeBatch(sql, batchArgs, binder);
+                return new InsertResult(batchArgs.size(), 0);
+            });
+        } catch (DataAccessException e) {
+            if (batchArgs.size() == 1) {
+                return skipBadRow(batchArgs.get(0), tableName, e);
+            }
+            List<Integer> failedRows = failedRows(updateCounts(e), batchArgs.size());
+            if (failedRows == null) {
+                return bisect(sql, batchArgs, tableName, binder);
+            }
+            InsertResult skipped = InsertResult.EMPTY;
+            List<Object[]> rest = new ArrayList<>(batchArgs.size() - failedRows.size());
+            for (int i = 0, next = 0; i < batchArgs.size(); i++) {
+                if (next < failedRows.size() && failedRows.get(next) == i) {
+                    skipped = skipped.plus(skipBadRow(batchArgs.get(i), tableName, e));
+                    next++;
+                } else {
+                    rest.add(batchArgs.get(i));
+                }
+            }
+            InsertResult retried = batchInsertIsolate(sql, rest, tableName, binder);
+            return retried.plus(skipped).withRoundTrips(rest.isEmpty() ? 0 : 1);
+        }
+    }
+
+    /**
+     * Indexes of the rows a failed batch of {@code size} rows rejected, in ascending order, or
+     * null if {@code counts} does not say.
+     * <ul>
+     *   <li>Fewer counts than rows: the driver stopped at the first error (Oracle, PostgreSQL), so
+     *       the row right after the last count failed.</li>
+     *   <li>One count per row: the driver went on after errors (H2, SQL Server) and marked each
+     *       failed row {@link Statement#EXECUTE_FAILED}. When the marks run from the first failure
+     *       to the end, the driver may just have stopped there, so only the first one is
+     *       trusted. When every row is marked, nothing is known.</li>
+     * </ul>
+     */
+    static List<Integer> failedRows(int[] counts, int size) {
+        if (counts == null) return null;
+        if (counts.length < size) return List.of(counts.length);
+        if (counts.length > size) return null;
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) failed.add(i);
+        }
+        if (failed.isEmpty() || failed.size() == size) return null;
+        int first = failed.get(0);
+        if (failed.size() > 1 && failed.size() == size - first) return List.of(first);
+        return failed;
+    }
+
+    private static int[] updateCounts(Throwable t) {
+        for (Throwable cur = t; cur != null; cur = cur.getCause() == cur ? null : cur.getCause()) {
+            if (cur instanceof BatchUpdateException bue) return bue.getUpdateCounts();
+        }
+        return null;
+    }
+
+    private static InsertResult skipBadRow(Object[] args, String tableName, DataAccessException e) {
+        log.warn("Skipping bad row for {}: values={} error={}",
+                tableName, Arrays.toString(args), rootCauseMessage(e));
+        return new InsertResult(0, 1);
+    }
+
     private static String rootCauseMessage(Throwable t) {
         Throwable cur = t;
         while (cur.getCause() != null && cur.getCause() != cur) {
@@ -132,51 +390,6 @@ public class JdbcPersistenceAdapter implements PersistencePort {
         }
     }
 
-    /**
-     * Builds the placeholder for a mapping in the VALUES clause.
-     * Normal and concatenated fields use ?, auto-generated use ? too
-     * (we resolve values in Java, not DB functions, for portability).
-     */
-    private String buildPlaceholder(DatabaseMapping mapping) {
-        return "?";
-    }
-
-    /**
-     * Builds the argument array for a single row based on the mappings.
-     */
-    private Object[] buildRowArgs(Action action, List<DatabaseMapping> mappings, Timestamp ingestTimestamp) {
-        return mappings.stream()
-                .map(mapping -> resolveValue(action, mapping, ingestTimestamp))
-                .toArray();
-    }
-
-    /**
-     * Resolves the value for a single mapping from an Action row.
-     */
-    private Object resolveValue(Action action, DatabaseMapping mapping, Timestamp ingestTimestamp) {
-        if (mapping.isAutoGenerated()) {
-            return resolveAutoGenerated(mapping, ingestTimestamp);
-        }
-
-        if (mapping.isConcatenated()) {
-            return resolveConcatenated(action, mapping);
-        }
-
-        // Normal mapping: get value from Excel by original header name
-        return action.get(mapping.excelColumn());
-    }
-
-    private Object resolveAutoGenerated(DatabaseMapping mapping, Timestamp ingestTimestamp) {
-        return switch (mapping.autoGenerate().toUpperCase()) {
-            case "TIMESTAMP" -> ingestTimestamp;
-            case "UUID" -> UUID.randomUUID().toString();
-            default -> {
-                log.warn("Unknown autoGenerate type: {}", mapping.autoGenerate());
-                yield null;
-            }
-        };
-    }
-
     @Override
     public boolean checkExists(String tableName, String schema, String idColumn, Object idValue,
                                String timestampColumn, LocalDate date) {
@@ -192,18 +405,49 @@ public class JdbcPersistenceAdapter implements PersistencePort {
     public void insertRow(String tableName, String schema, Map<String, Object> columnValues) {
         String fullTable = schema != null ? schema + "." + tableName : tableName;
         List<String> columns = new ArrayList<>(columnValues.keySet());
+        jdbcTemplate.update(rowInsertSql(fullTable, columns), rowArgs(columns, columnValues));
+        log.debug("Inserted row into {}: {}", fullTable, columnValues);
+    }
+
+    /**
+     * Sends the rows as JDBC batches, one per run of consecutive rows with the same column set, so
+     * the rows reach the table in the order given. All batches run in one transaction, so a failing
+     * batch throws, as {@link #insertRow} does, and rolls back every row of the call; drivers that
+     * keep executing a batch past a bad row (H2) leave nothing behind either.
+     */
+    @Override
+    public void insertRows(String tableName, String schema, List<Map<String, Object>> rows) {
+        String fullTable = schema != null ? schema + "." + tableName : tableName;
+        transactionTemplate.executeWithoutResult(status -> {
+            int from = 0;
+            while (from < rows.size()) {
+                Set<String> keys = rows.get(from).keySet();
+                List<String> columns = new ArrayList<>(keys);
+                List<Object[]> batchArgs = new ArrayList<>();
+                int to = from;
+                while (to < rows.size() && keys.equals(rows.get(to).keySet())) {
+                    batchArgs.add(rowArgs(columns, rows.get(to)));
+                    to++;
+                }
+                jdbcTemplate.batchUpdate(rowInsertSql(fullTable, columns), batchArgs);
+                from = to;
+            }
+        });
+        log.debug("Inserted {} rows into {}", rows.size(), fullTable);
+    }
+
+    private static String rowInsertSql(String fullTable, List<String> columns) {
         String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
-        String sql = "INSERT INTO " + fullTable + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")";
+        return "INSERT INTO " + fullTable + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")";
+    }
 
-        Object[] args = columns.stream()
+    private static Object[] rowArgs(List<String> columns, Map<String, Object> columnValues) {
+        return columns.stream()
                 .map(col -> {
                     Object v = columnValues.get(col);
                     return v instanceof LocalDate ld ? Timestamp.valueOf(ld.atStartOfDay()) : v;
                 })
                 .toArray();
-
-        jdbcTemplate.update(sql, args);
-        log.debug("Inserted row into {}: {}", fullTable, columnValues);
     }
 
     @Override
@@ -224,6 +468,45 @@ public class JdbcPersistenceAdapter implements PersistencePort {
         return new HashSet<>(ids);
     }
 
+    /**
+     * Streams the ids straight into the index: the query runs with a large fetch size, and each id
+     * is read as a string and appended to the index's byte arena, so no row list or boxed set is
+     * built on the way.
+     */
+    @Override
+    public CompactIdIndex loadExistingIdIndex(String tableName, String schema, String idColumn,
+                                              String timestampColumn, LocalDate date) {
+        return indexIds(CompactIdIndex.builder(), tableName, schema, idColumn, timestampColumn, date);
+    }
+
+    /** Streams the ids into a canonical index, as {@link #loadExistingIdIndex} does into an exact one. */
+    @Override
+    public CompactIdIndex loadReferenceIndex(String tableName, String schema, String idColumn,
+                                             String timestampColumn, LocalDate date) {
+        return indexIds(CompactIdIndex.canonicalBuilder(), tableName, schema, idColumn, timestampColumn, date);
+    }
+
+    private CompactIdIndex indexIds(CompactIdIndex.Builder builder, String tableName, String schema, String idColumn,
+                                    String timestampColumn, LocalDate date) {
+        String fullTable = schema != null ? schema + "." + tableName : tableName;
+        String sql = "SELECT " + idColumn + " FROM " + fullTable
+                + (timestampColumn != null ? " WHERE " + timestampColumn + " = ?" : "");
+        long start = System.nanoTime();
+        jdbcTemplate.query(conn -> {
+            PreparedStatement ps = conn.prepareStatement(sql);
+            ps.setFetchSize(ID_FETCH_SIZE);
+            if (timestampColumn != null) ps.setTimestamp(1, Timestamp.valueOf(date.atStartOfDay()));
+            return ps;
+        }, rs -> {
+            builder.add(rs.getString(1));
+        });
+        CompactIdIndex index = builder.build();
+        log.info("Indexed {} ids of {}.{}{} in {} ms ({} KB)", index.size(), fullTable, idColumn,
+                timestampColumn != null ? " for " + timestampColumn + " = " + date : "",
+                (System.nanoTime() - start) / 1_000_000, index.sizeInBytes() / 1024);
+        return index;
+    }
+
     @Override
     public void updateData(List<Action> data, List<DatabaseMapping> mappings,
                            Map<String, Object> parameters, String idColumn) {
@@ -232,75 +515,204 @@ public class JdbcPersistenceAdapter implements PersistencePort {
 
         if (data.isEmpty() || mappings.isEmpty()) return;
 
-        // Find the mapping for the ID column (used in WHERE clause)
-        DatabaseMapping idMapping = mappings.stream()
-                .filter(m -> idColumn.equalsIgnoreCase(m.dbColumn()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("No mapping found for idColumn: " + idColumn));
-
-        // SET columns = all mappings except the ID column
-        List<DatabaseMapping> setCols = mappings.stream()
-                .filter(m -> !idColumn.equalsIgnoreCase(m.dbColumn()))
-                .toList();
-
-        if (setCols.isEmpty()) {
+        InsertPlan plan = plan(tableName, mappings, idColumn);
+        if (plan == null) {
             log.warn("No columns to update (only ID mapped) for table {}", tableName);
             return;
         }
-
-        String setClause = setCols.stream()
-                .map(m -> m.dbColumn() + " = ?")
-                .collect(Collectors.joining(", "));
-
-        String sql = String.format("UPDATE %s SET %s WHERE %s = ?", tableName, setClause, idColumn);
+        String sql = plan.sql();
         log.debug("Generated UPDATE SQL: {}", sql);
 
         LocalDate ingestDate = (LocalDate) parameters.getOrDefault("_ingestDate", LocalDate.now());
-        Timestamp ingestTimestamp = Timestamp.valueOf(ingestDate.atStartOfDay());
-
-        List<Object[]> batchArgs = data.stream()
-                .map(action -> {
-                    List<Object> args = new ArrayList<>();
-                    // SET values
-                    for (DatabaseMapping m : setCols) {
-                        args.add(resolveValue(action, m, ingestTimestamp));
-                    }
-                    // WHERE value
-                    args.add(resolveValue(action, idMapping, ingestTimestamp));
-                    return args.toArray();
-                })
-                .toList();
+        List<Object[]> batchArgs = plan.rows(data, Timestamp.valueOf(ingestDate.atStartOfDay()));
 
         jdbcTemplate.batchUpdate(sql, batchArgs);
         log.info("Successfully updated {} records in {}", data.size(), tableName);
     }
 
+    /**
+     * One {@code MERGE} per row, sent as a JDBC batch: the chunk's rows are the bound source of
+     * the statement (array-bound on Oracle) and the database resolves insert-vs-update through the
+     * target's id index, with no ID set loaded into the JVM. How many rows matched is counted with
+     * one {@code SELECT COUNT(*) .. WHERE id IN (..)} per 1000 ids first. H2 and Oracle only;
+     * {@code null} on other databases.
+     */
+    @Override
+    public MergeResult mergeData(List<Action> data, List<DatabaseMapping> mappings, Map<String, Object> parameters,
+                                 String idColumn, boolean updateExisting) {
+        if (dialect() == SqlDialect.OTHER) return null;
+        String tableName = (String) parameters.getOrDefault("tableName", "ingesta_data");
+        log.info("Merging {} records into table: {} by idColumn: {}", data.size(), tableName, idColumn);
+
+        if (data.isEmpty() || mappings.isEmpty()) return MergeResult.EMPTY;
+
+        InsertPlan plan = plan(updateExisting ? "MERGE" : "MERGE_INSERT", tableName, mappings, idColumn);
+        log.debug("Generated MERGE SQL: {}", plan.sql());
+        LocalDate ingestDate = (LocalDate) parameters.getOrDefault("_ingestDate", LocalDate.now());
+        List<Object[]> rows = plan.rows(data, Timestamp.valueOf(ingestDate.atStartOfDay()));
+
+        boolean typedBinding = Boolean.TRUE.equals(parameters.get("typedBinding"));
+        TypedRowBinder binder = typedBinding || Boolean.TRUE.equals(parameters.get("preValidate"))
+                ? binderFor(plan.parameters(), tableName, (String) parameters.get("schema"))
+                : null;
+        int rejected = rows.size();
+        rows = validate(rows, binder, typedBinding, tableName);
+        rejected -= rows.size();
+        TypedRowBinder sendBinder = typedBinding ? binder : null;
+
+        int matched = countExisting(tableName, idColumn, rows, plan.idParameter());
+        InsertResult merged = "UPDATE_COUNTS".equalsIgnoreCase(String.valueOf(parameters.get("rowIsolation")))
+                ? batchInsertIsolate(plan.sql(), rows, tableName, sendBinder)
+                : batchInsertBisect(plan.sql(), rows, tableName, sendBinder);
+        // Rows the database rejected are counted as new; an existing id rarely makes a row invalid.
+        int matchedOk = Math.min(matched, merged.inserted());
+        MergeResult result = new MergeResult(merged.inserted() - matchedOk, matchedOk,
+                merged.failed() + rejected, merged.isolationRoundTrips());
+        log.info("Merge into {} finished: {} inserted, {} matched{}, {} failed", tableName, result.inserted(),
+                result.matched(), updateExisting ? " and updated" : "", result.failed());
+        return result;
+    }
+
+    /** How many distinct ids of {@code rows} (at {@code idParameter}) are already in the table. */
+    private int countExisting(String tableName, String idColumn, List<Object[]> rows, int idParameter) {
+        List<Object> ids = new ArrayList<>(new LinkedHashSet<>(rows.stream()
+                .map(r -> r[idParameter]).filter(Objects::nonNull).toList()));
+        int existing = 0;
+        for (int i = 0; i < ids.size(); i += IN_LIST_LIMIT) {
+            List<Object> slice = ids.subList(i, Math.min(i + IN_LIST_LIMIT, ids.size()));
+            // DISTINCT: tables that keep history hold one row per id and snapshot.
+            String sql = "SELECT COUNT(DISTINCT " + idColumn + ") FROM " + tableName + " WHERE " + idColumn + " IN ("
+                    + String.join(", ", Collections.nCopies(slice.size(), "?")) + ")";
+            Integer count = jdbcTemplate.queryForObject(sql, Integer.class, slice.toArray());
+            existing += count != null ? count : 0;
+        }
+        return existing;
+    }
+
+    /**
+     * Stages the links in a transaction-private temporary table (see {@link LinkStaging}) and
+     * resolves each rule that has links with one {@code INSERT .. SELECT} into its relation table
+     * and, with an {@code etlLogTable} and orphans left, one more into ETL_LOG. Runs in one
+     * {@code REQUIRES_NEW} transaction, so a failing statement leaves nothing of the chunk behind.
+     * H2 and Oracle only; {@code null} on other databases.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public LinkResult linkParents(List<ParentLink> links, List<Map<String, Object>> rules,
+                                  Map<String, Object> parameters) {
+        SqlDialect dialect = dialect();
+        if (dialect == SqlDialect.OTHER) return null;
+        if (links.isEmpty()) return LinkResult.EMPTY;
+
+        String schema            = (String) parameters.get("schema");
+        String checkIdColumn     = (String) parameters.getOrDefault("checkIdColumn", "ID");
+        String id1Column         = (String) parameters.getOrDefault("id1Column", "ID_1");
+        String id2Column         = (String) parameters.getOrDefault("id2Column", "ID_2");
+        String timestampColumn   = (String) parameters.getOrDefault("timestampColumn", "TIMESTAMP");
+        String etlLogTable       = (String) parameters.get("etlLogTable");
+        String currentEntityType = (String) parameters.getOrDefault("currentEntityType", "Unknown");
+        LocalDate ingestDate     = (LocalDate) parameters.getOrDefault("_ingestDate", LocalDate.now());
+        Timestamp ts = Timestamp.valueOf(ingestDate.atStartOfDay());
+
+        int[] staged = new int[rules.size()];
+        List<Object[]> stageArgs = new ArrayList<>(links.size());
+        for (ParentLink link : links) {
+            staged[link.rule()]++;
+            stageArgs.add(new Object[]{stageArgs.size(), link.rule(), link.currentId(), link.parentId()});
+        }
+
+        LinkResult result = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(LinkStaging.createSql(dialect));
+            jdbcTemplate.batchUpdate(LinkStaging.stageSql(dialect), stageArgs);
+            int statements = 2;
+            int linked = 0;
+            int notFound = 0;
+            for (int r = 0; r < rules.size(); r++) {
+                if (staged[r] == 0) continue;
+                Map<String, Object> rule = rules.get(r);
+                String checkTable = qualified(schema, (String) rule.get("checkTable"));
+                Map<String, Object> extraColumns = rule.get("extraColumns") instanceof Map<?, ?> m
+                        ? (Map<String, Object>) m : Map.of();
+
+                List<Object> args = new ArrayList<>();
+                args.add(ts);
+                args.addAll(extraColumns.values());
+                args.add(r);
+                args.add(ts);
+                int ruleLinked = jdbcTemplate.update(LinkStaging.linkSql(dialect,
+                        qualified(schema, (String) rule.get("relationTable")), checkTable, checkIdColumn,
+                        id1Column, id2Column, timestampColumn, extraColumns.keySet()), args.toArray());
+                statements++;
+                linked += ruleLinked;
+                notFound += staged[r] - ruleLinked;
+
+                if (etlLogTable != null && staged[r] > ruleLinked) {
+                    String parentEntityType = (String) rule.getOrDefault("parentEntityType", rule.get("checkTable"));
+                    jdbcTemplate.update(LinkStaging.orphanSql(dialect, qualified(schema, etlLogTable),
+                                    checkTable, checkIdColumn, timestampColumn),
+                            parentEntityType, currentEntityType, "Unknown", "relationship not loaded", ts, r, ts);
+                    statements++;
+                }
+            }
+            return new LinkResult(linked, notFound, statements);
+        });
+        log.info("Set-based link of {} rows finished: {} linked, {} parent not found, {} statements",
+                links.size(), result.linked(), result.notFound(), result.statements());
+        return result;
+    }
+
+    private static String qualified(String schema, String tableName) {
+        return schema != null ? schema + "." + tableName : tableName;
+    }
+
     @Override
     public Map<String, String> lookupValues(String tableName, String schema, String keyColumn,
                                             String valueColumn, String timestampColumn) {
         String fullTable = schema != null ? schema + "." + tableName : tableName;
-        String sql = timestampColumn != null
-                ? "SELECT " + keyColumn + ", " + valueColumn + " FROM " + fullTable
-                  + " WHERE " + timestampColumn + " = (SELECT MAX(" + timestampColumn + ") FROM " + fullTable + ")"
-                : "SELECT " + keyColumn + ", " + valueColumn + " FROM " + fullTable;
-
         Map<String, String> result = new LinkedHashMap<>();
-        jdbcTemplate.query(sql, rs -> {
+        jdbcTemplate.query(lookupSql(fullTable, keyColumn, valueColumn, timestampColumn), rs -> {
             String key = rs.getString(1);
             String value = rs.getString(2);
-            if (key != null) result.put(key.toLowerCase(), value);
+            if (key != null) result.put(ReferenceKeys.canonical(key), value);
         });
         log.info("Loaded {} lookup entries from {}.{} → {}", result.size(), fullTable, keyColumn, valueColumn);
         return result;
     }
 
-    private Object resolveConcatenated(Action action, DatabaseMapping mapping) {
-        return mapping.concatenate().stream()
-                .map(col -> {
-                    Object val = action.get(col);
-                    return val != null ? val.toString() : "";
-                })
-                .filter(s -> !s.isBlank())
-                .collect(Collectors.joining(mapping.separator()));
+    /** Streams the rows straight into the dictionary's byte arena, with a large fetch size. */
+    @Override
+    public CompactStringMap lookupDictionary(String tableName, String schema, String keyColumn,
+                                             String valueColumn, String timestampColumn) {
+        String fullTable = schema != null ? schema + "." + tableName : tableName;
+        String sql = lookupSql(fullTable, keyColumn, valueColumn, timestampColumn);
+        long start = System.nanoTime();
+        CompactStringMap.Builder builder = CompactStringMap.builder();
+        jdbcTemplate.query(conn -> {
+            PreparedStatement ps = conn.prepareStatement(sql);
+            ps.setFetchSize(ID_FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            String key = rs.getString(1);
+            if (key != null) builder.put(ReferenceKeys.canonical(key), rs.getString(2));
+        });
+        CompactStringMap dictionary = builder.build();
+        log.info("Loaded {} lookup entries from {}.{} → {} in {} ms ({} KB)", dictionary.size(), fullTable,
+                keyColumn, valueColumn, (System.nanoTime() - start) / 1_000_000, dictionary.sizeInBytes() / 1024);
+        return dictionary;
     }
+
+    @Override
+    public Object latestTimestamp(String tableName, String schema, String timestampColumn) {
+        String fullTable = schema != null ? schema + "." + tableName : tableName;
+        return jdbcTemplate.queryForObject("SELECT MAX(" + timestampColumn + ") FROM " + fullTable, Object.class);
+    }
+
+    private static String lookupSql(String fullTable, String keyColumn, String valueColumn, String timestampColumn) {
+        return timestampColumn != null
+                ? "SELECT " + keyColumn + ", " + valueColumn + " FROM " + fullTable
+                  + " WHERE " + timestampColumn + " = (SELECT MAX(" + timestampColumn + ") FROM " + fullTable + ")"
+                : "SELECT " + keyColumn + ", " + valueColumn + " FROM " + fullTable;
+    }
+
+    private record PlanKey(String statement, String tableName, List<DatabaseMapping> mappings, String idColumn) {}
 }
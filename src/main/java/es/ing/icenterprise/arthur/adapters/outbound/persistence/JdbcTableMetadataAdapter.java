@@ -1,8 +1,10 @@
 package es.ing.icenterprise.arthur.adapters.outbound.persistence;
 
+import es.ing.icenterprise.arthur.core.domain.model.ColumnMetadata;
 import es.ing.icenterprise.arthur.core.ports.outbound.TableMetadataPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
@@ -10,15 +12,30 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Reads column metadata through {@link DatabaseMetaData#getColumns} and caches it per table for
+ * {@code ingesta.metadata.cache-ttl}. Dictionary queries are slow on Oracle, and without the cache
+ * every INSERT step, and every sheet of a {@code processAllSheets} job, would pay for one or two.
+ * Only tables that exist are cached, so a table created mid-run is found on the next lookup.
+ */
 @Component
 public class JdbcTableMetadataAdapter implements TableMetadataPort {
 
     private static final Logger log = LoggerFactory.getLogger(JdbcTableMetadataAdapter.class);
 
     private final DataSource dataSource;
+    private final Map<String, CachedColumns> cache = new ConcurrentHashMap<>();
+
+    /** How long cached columns are trusted; {@code 0} disables the cache. */
+    @Value("${ingesta.metadata.cache-ttl:PT10M}")
+    Duration cacheTtl = Duration.ofMinutes(10);
 
     public JdbcTableMetadataAdapter(DataSource dataSource) {
         this.dataSource = dataSource;
@@ -26,9 +43,65 @@ public class JdbcTableMetadataAdapter implements TableMetadataPort {
 
     @Override
     public List<String> getColumnNames(String tableName, String schema) {
+        return getColumns(tableName, schema).stream().map(ColumnMetadata::name).toList();
+    }
+
+    @Override
+    public List<ColumnMetadata> getColumns(String tableName, String schema) {
+        String key = key(tableName, schema);
+        CachedColumns cached = cache.get(key);
+        if (cached != null && cached.isFresh(cacheTtl)) {
+            return cached.columns();
+        }
+
+        List<ColumnMetadata> columns = readColumns(tableName, schema);
+        if (!columns.isEmpty() && !cacheTtl.isZero()) {
+            cache.put(key, new CachedColumns(columns, System.nanoTime()));
+        }
+        return columns;
+    }
+
+    @Override
+    public int warmUp(String schema) {
+        if (cacheTtl.isZero()) return 0;
+        long start = System.nanoTime();
+        Map<String, List<ColumnMetadata>> tables = new LinkedHashMap<>();
+
+        try (Connection conn = dataSource.getConnection()) {
+            DatabaseMetaData meta = conn.getMetaData();
+            try (ResultSet rs = meta.getColumns(null, schema != null ? schema.toUpperCase() : null, "%", null)) {
+                readTables(rs, tables);
+            }
+            if (tables.isEmpty() && schema != null) {
+                try (ResultSet rs = meta.getColumns(null, schema, "%", null)) {
+                    readTables(rs, tables);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to read table metadata for schema: " + schema, e);
+        }
+
+        long loadedAt = System.nanoTime();
+        tables.forEach((table, columns) -> cache.put(key(table, schema), new CachedColumns(List.copyOf(columns), loadedAt)));
+        log.info("Metadata warm-up for schema {}: {} tables in {} ms", schema, tables.size(),
+                Duration.ofNanos(loadedAt - start).toMillis());
+        return tables.size();
+    }
+
+    @Override
+    public void invalidate(String tableName, String schema) {
+        cache.remove(key(tableName, schema));
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private List<ColumnMetadata> readColumns(String tableName, String schema) {
         log.info("Reading metadata for table: {}.{}", schema, tableName);
 
-        List<String> columns = new ArrayList<>();
+        List<ColumnMetadata> columns = new ArrayList<>();
 
         try (Connection conn = dataSource.getConnection()) {
             DatabaseMetaData meta = conn.getMetaData();
@@ -38,27 +111,56 @@ public class JdbcTableMetadataAdapter implements TableMetadataPort {
                     schema != null ? schema.toUpperCase() : null,
                     tableName.toUpperCase(),
                     null)) {
-
-                while (rs.next()) {
-                    columns.add(rs.getString("COLUMN_NAME").toUpperCase());
-                }
+                readColumns(rs, columns);
             }
 
             // Fallback: try without uppercasing (PostgreSQL, H2 mixed case)
             if (columns.isEmpty()) {
                 try (ResultSet rs = meta.getColumns(null, schema, tableName, null)) {
-                    while (rs.next()) {
-                        columns.add(rs.getString("COLUMN_NAME").toUpperCase());
-                    }
+                    readColumns(rs, columns);
                 }
             }
 
-            log.info("Found {} columns in {}: {}", columns.size(), tableName, columns);
+            log.info("Found {} columns in {}: {}", columns.size(), tableName,
+                    columns.stream().map(ColumnMetadata::name).toList());
 
         } catch (SQLException e) {
             throw new RuntimeException("Failed to read table metadata for: " + tableName, e);
         }
 
-        return columns;
+        return List.copyOf(columns);
+    }
+
+    private static void readColumns(ResultSet rs, List<ColumnMetadata> columns) throws SQLException {
+        while (rs.next()) {
+            columns.add(column(rs));
+        }
+    }
+
+    private static void readTables(ResultSet rs, Map<String, List<ColumnMetadata>> tables) throws SQLException {
+        while (rs.next()) {
+            tables.computeIfAbsent(rs.getString("TABLE_NAME"), t -> new ArrayList<>()).add(column(rs));
+        }
+    }
+
+    private static ColumnMetadata column(ResultSet rs) throws SQLException {
+        return new ColumnMetadata(
+                rs.getString("COLUMN_NAME").toUpperCase(),
+                rs.getInt("DATA_TYPE"),
+                rs.getString("TYPE_NAME"),
+                rs.getInt("COLUMN_SIZE"),
+                rs.getInt("DECIMAL_DIGITS"),
+                rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+    }
+
+    private static String key(String tableName, String schema) {
+        return (schema != null ? schema.toUpperCase() : "") + "." + tableName.toUpperCase();
+    }
+
+    private record CachedColumns(List<ColumnMetadata> columns, long loadedAtNanos) {
+
+        boolean isFresh(Duration ttl) {
+            return System.nanoTime() - loadedAtNanos < ttl.toNanos();
+        }
     }
 }
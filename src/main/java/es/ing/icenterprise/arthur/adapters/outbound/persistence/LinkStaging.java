@@ -0,0 +1,77 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+import java.util.Collection;
+
+/**
+ * The SQL of set-based {@code LINK_PARENT} ({@code linkMode: SET_BASED}). A chunk's
+ * {@code (SEQ, RULE_NO, CURRENT_ID, PARENT_ID)} tuples are batch-inserted into a staging table
+ * private to the session and transaction, then each rule is resolved against its
+ * {@code checkTable} with two statements: an {@code INSERT .. SELECT .. WHERE EXISTS} into the
+ * relation table and an {@code INSERT .. SELECT .. WHERE NOT EXISTS} into ETL_LOG for orphans.
+ * <ul>
+ *   <li>{@link SqlDialect#H2}: a {@code LOCAL TEMPORARY} table, transactional and dropped on commit.</li>
+ *   <li>{@link SqlDialect#ORACLE}: a private temporary table (18c and later), whose definition is
+ *       dropped on commit. Creating it does not commit.</li>
+ * </ul>
+ * {@code EXISTS} rather than a join, so a parent id that appears twice in {@code checkTable}
+ * still yields one relation row per link, as a per-row {@code COUNT(*) > 0} check did.
+ */
+final class LinkStaging {
+
+    private LinkStaging() {
+    }
+
+    static String table(SqlDialect dialect) {
+        return dialect == SqlDialect.ORACLE ? "ORA$PTT_LINK_PARENT_STAGE" : "LINK_PARENT_STAGE";
+    }
+
+    static String createSql(SqlDialect dialect) {
+        return dialect == SqlDialect.ORACLE
+                ? "CREATE PRIVATE TEMPORARY TABLE " + table(dialect) + " (SEQ NUMBER(10), RULE_NO NUMBER(5), "
+                  + "CURRENT_ID VARCHAR2(4000), PARENT_ID VARCHAR2(4000)) ON COMMIT DROP DEFINITION"
+                : "CREATE LOCAL TEMPORARY TABLE " + table(dialect) + " (SEQ INT, RULE_NO INT, "
+                  + "CURRENT_ID VARCHAR(4000), PARENT_ID VARCHAR(4000)) ON COMMIT DROP TRANSACTIONAL";
+    }
+
+    /** Binds {@code SEQ, RULE_NO, CURRENT_ID, PARENT_ID}. */
+    static String stageSql(SqlDialect dialect) {
+        return "INSERT INTO " + table(dialect) + " (SEQ, RULE_NO, CURRENT_ID, PARENT_ID) VALUES (?, ?, ?, ?)";
+    }
+
+    /**
+     * {@code INSERT INTO relationTable (id1, id2, ts, extra..) SELECT ..} for the staged links of one
+     * rule whose parent exists. Binds the ingest timestamp, one value per extra column, the rule
+     * number and the ingest timestamp again (for the {@code checkTable} filter).
+     */
+    static String linkSql(SqlDialect dialect, String relationTable, String checkTable, String checkIdColumn,
+                          String id1Column, String id2Column, String timestampColumn,
+                          Collection<String> extraColumns) {
+        StringBuilder columns = new StringBuilder(id1Column + ", " + id2Column + ", " + timestampColumn);
+        StringBuilder values = new StringBuilder("s.CURRENT_ID, s.PARENT_ID, ?");
+        for (String column : extraColumns) {
+            columns.append(", ").append(column);
+            values.append(", ?");
+        }
+        return "INSERT INTO " + relationTable + " (" + columns + ") SELECT " + values
+                + " FROM " + table(dialect) + " s WHERE s.RULE_NO = ? AND "
+                + parentExists(checkTable, checkIdColumn, timestampColumn) + " ORDER BY s.SEQ";
+    }
+
+    /**
+     * ETL_LOG rows for the staged links of one rule whose parent does not exist, with the columns
+     * the in-memory path writes. Binds the parent entity type, the current entity type, the
+     * cause, the action, the ingest timestamp, the rule number and the ingest timestamp again.
+     */
+    static String orphanSql(SqlDialect dialect, String etlLogTable, String checkTable, String checkIdColumn,
+                            String timestampColumn) {
+        return "INSERT INTO " + etlLogTable + " (WHERE_A, A, WHERE_B, B, CAUSE, ACTION, TIMESTAMP)"
+                + " SELECT ?, s.PARENT_ID, ?, s.CURRENT_ID, ?, ?, ? FROM " + table(dialect)
+                + " s WHERE s.RULE_NO = ? AND NOT " + parentExists(checkTable, checkIdColumn, timestampColumn)
+                + " ORDER BY s.SEQ";
+    }
+
+    private static String parentExists(String checkTable, String checkIdColumn, String timestampColumn) {
+        return "EXISTS (SELECT 1 FROM " + checkTable + " c WHERE c." + checkIdColumn + " = s.PARENT_ID AND c."
+                + timestampColumn + " = ?)";
+    }
+}
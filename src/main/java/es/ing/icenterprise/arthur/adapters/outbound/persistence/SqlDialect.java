@@ -0,0 +1,17 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+/**
+ * The databases {@link JdbcPersistenceAdapter} has native statements for, recognised from the
+ * driver's {@code getDatabaseProductName()}. Everything else gets the portable JDBC paths.
+ */
+enum SqlDialect {
+    H2, ORACLE, OTHER;
+
+    static SqlDialect of(String databaseProductName) {
+        if (databaseProductName == null) return OTHER;
+        String name = databaseProductName.toUpperCase();
+        if (name.startsWith("H2")) return H2;
+        if (name.startsWith("ORACLE")) return ORACLE;
+        return OTHER;
+    }
+}
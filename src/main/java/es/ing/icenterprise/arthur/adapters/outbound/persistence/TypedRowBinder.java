@@ -0,0 +1,189 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+import es.ing.icenterprise.arthur.core.domain.model.ColumnMetadata;
+import es.ing.icenterprise.arthur.core.domain.model.DatabaseMapping;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts row arguments to the Java type of their target column once, up front, and binds them
+ * with the matching typed setter, so the driver never has to guess a parameter's SQL type:
+ * <ul>
+ *   <li>character columns get a {@code String}; numbers are written plainly ({@code 123.0} becomes
+ *       {@code "123"}), which is what Excel users mean by a numeric id cell;</li>
+ *   <li>integer columns get a {@code Long}, {@code DOUBLE}/{@code FLOAT}/{@code REAL} a {@code Double},
+ *       other numeric columns a {@code BigDecimal}, parsed from strings where needed;</li>
+ *   <li>{@code DATE}/{@code TIMESTAMP} columns get a {@link Timestamp} from dates, {@code LocalDate(Time)}
+ *       and ISO strings; other strings are left to the driver's own parsing.</li>
+ * </ul>
+ * A value that cannot go into its column (NULL into NOT NULL, text longer than the column, a
+ * non-number or too many digits for a numeric column) makes {@link #convert} reject the row, so the
+ * database never sees it. Parameters whose column the metadata does not know are passed through
+ * and bound with {@code setObject}.
+ * <p>
+ * Immutable and thread-safe; build one per table and mapping list.
+ */
+final class TypedRowBinder {
+
+    private final ColumnMetadata[] columns;
+
+    private TypedRowBinder(ColumnMetadata[] columns) {
+        this.columns = columns;
+    }
+
+    /** A binder for the parameters of an insert with one {@code ?} per mapping, in mapping order. */
+    static TypedRowBinder forMappings(List<DatabaseMapping> mappings, Map<String, ColumnMetadata> columnsByName) {
+        return new TypedRowBinder(mappings.stream()
+                .map(m -> columnsByName.get(m.dbColumn().toUpperCase()))
+                .toArray(ColumnMetadata[]::new));
+    }
+
+    /**
+     * The row's arguments converted to their bind types.
+     *
+     * @throws IllegalArgumentException naming the column and the reason, if a value cannot be inserted
+     */
+    Object[] convert(Object[] args) {
+        Object[] converted = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            converted[i] = columns[i] != null ? convert(args[i], columns[i]) : args[i];
+        }
+        return converted;
+    }
+
+    /** Binds a row returned by {@link #convert} to the statement's parameters. */
+    void bind(PreparedStatement ps, Object[] converted) throws SQLException {
+        for (int i = 0; i < converted.length; i++) {
+            ColumnMetadata column = columns[i];
+            Object value = converted[i];
+            int index = i + 1;
+            if (column == null) {
+                ps.setObject(index, value);
+            } else if (value == null) {
+                ps.setNull(index, column.sqlType());
+            } else if (value instanceof String s) {
+                ps.setString(index, s);
+            } else if (value instanceof BigDecimal bd) {
+                ps.setBigDecimal(index, bd);
+            } else if (value instanceof Long l) {
+                ps.setLong(index, l);
+            } else if (value instanceof Double d) {
+                ps.setDouble(index, d);
+            } else if (value instanceof Timestamp ts) {
+                ps.setTimestamp(index, ts);
+            } else {
+                ps.setObject(index, value);
+            }
+        }
+    }
+
+    static Object convert(Object value, ColumnMetadata column) {
+        if (value instanceof String s && s.isBlank() && !column.isCharacter()) {
+            value = null;
+        }
+        if (value == null) {
+            if (!column.nullable()) {
+                throw new IllegalArgumentException("NULL in NOT NULL column " + column.name());
+            }
+            return null;
+        }
+        if (column.isCharacter()) return toText(value, column);
+        if (column.isNumeric()) return toNumber(value, column);
+        if (isTemporal(column)) return toTimestamp(value);
+        return value;
+    }
+
+    private static String toText(Object value, ColumnMetadata column) {
+        String text;
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            text = Double.isFinite(d) ? BigDecimal.valueOf(d).stripTrailingZeros().toPlainString() : value.toString();
+        } else if (value instanceof BigDecimal bd) {
+            text = bd.toPlainString();
+        } else {
+            text = value.toString();
+        }
+        if (column.size() > 0 && text.length() > column.size()) {
+            throw new IllegalArgumentException("value of " + text.length() + " characters exceeds "
+                    + column.name() + "(" + column.size() + ")");
+        }
+        return text;
+    }
+
+    private static Object toNumber(Object value, ColumnMetadata column) {
+        BigDecimal number;
+        if (value instanceof BigDecimal bd) {
+            number = bd;
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (!Double.isFinite(d)) {
+                throw new IllegalArgumentException("'" + value + "' is not a number for " + column.name());
+            }
+            number = BigDecimal.valueOf(d);
+        } else if (value instanceof Number n) {
+            number = BigDecimal.valueOf(n.longValue());
+        } else if (value instanceof String s) {
+            try {
+                number = new BigDecimal(s.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'" + value + "' is not a number for " + column.name());
+            }
+        } else {
+            throw new IllegalArgumentException(value.getClass().getSimpleName() + " '" + value
+                    + "' is not a number for " + column.name());
+        }
+
+        switch (column.sqlType()) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> {
+                try {
+                    return number.setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("'" + value + "' is not an integer for " + column.name());
+                }
+            }
+            case Types.REAL, Types.FLOAT, Types.DOUBLE -> {
+                return number.doubleValue();
+            }
+            default -> {
+                if (column.size() > 0 && number.precision() - number.scale() > column.size() - column.scale()) {
+                    throw new IllegalArgumentException("'" + value + "' has too many digits for " + column.name()
+                            + "(" + column.size() + "," + column.scale() + ")");
+                }
+                return number;
+            }
+        }
+    }
+
+    private static Object toTimestamp(Object value) {
+        if (value instanceof Timestamp ts) return ts;
+        if (value instanceof Date d) return new Timestamp(d.getTime());
+        if (value instanceof LocalDateTime ldt) return Timestamp.valueOf(ldt);
+        if (value instanceof LocalDate ld) return Timestamp.valueOf(ld.atStartOfDay());
+        if (value instanceof String s) {
+            String text = s.trim();
+            try {
+                return text.length() <= 10
+                        ? Timestamp.valueOf(LocalDate.parse(text).atStartOfDay())
+                        : Timestamp.valueOf(LocalDateTime.parse(text.replace(' ', 'T')));
+            } catch (DateTimeParseException e) {
+                return s;   // not ISO: leave it to the driver and the session's date format
+            }
+        }
+        return value;
+    }
+
+    private static boolean isTemporal(ColumnMetadata column) {
+        return column.sqlType() == Types.DATE || column.sqlType() == Types.TIMESTAMP;
+    }
+}
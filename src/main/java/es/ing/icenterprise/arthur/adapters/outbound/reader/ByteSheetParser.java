@@ -0,0 +1,514 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+
+/**
+ * Low-allocation alternative to the StAX row iterator, selected with
+ * {@code reader: { cellParser: FAST }}. Scans the sheet XML bytes directly instead of going through
+ * {@code XMLStreamReader}, which materialises every attribute and element text as a {@code String}:
+ * <ul>
+ *   <li>the column index is computed from the letters of {@code r} as they are read;</li>
+ *   <li>{@code s} (style) and shared-string indices are parsed as ints, {@code t} is classified
+ *       from its bytes;</li>
+ *   <li>{@code <v>} text goes into a reused byte buffer and numbers are parsed from it without an
+ *       intermediate {@code String} (plain decimals up to 15 significant digits take an exact
+ *       fast path, anything else falls back to {@link Double#parseDouble});</li>
+ *   <li>the input buffer, text buffer and row scratch array live for the whole sheet.</li>
+ * </ul>
+ * Only a {@code String} for string cells and the typed value of each cell are allocated. Yields
+ * the same sparse rows as the StAX path; sheet XML is machine-written, so DTDs are never expanded
+ * (comments, processing instructions and doctype declarations are skipped).
+ */
+final class ByteSheetParser implements SheetRowIterator {
+
+    private static final int E_OTHER = 0;
+    private static final int E_ROW = 1;
+    private static final int E_C = 2;
+    private static final int E_V = 3;
+    private static final int E_T = 4;
+
+    private static final int T_NUMBER = 0;
+    private static final int T_SHARED = 1;
+    private static final int T_STR = 2;
+    private static final int T_BOOL = 3;
+    private static final int T_ERROR = 4;
+    private static final int T_INLINE = 5;
+
+    /** Powers of ten exactly representable as doubles. */
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private final CellValueDecoder decoder;
+    private final byte[] buf = new byte[1 << 16];
+    private int pos;
+    private int limit;
+
+    private final byte[] name = new byte[32];
+    private int nameLen;
+    private final byte[] attrValue = new byte[16];
+    private byte[] text = new byte[128];
+    private int textLen;
+    private boolean capturing;
+
+    /** Set by {@link #readTag} for the tag just read. */
+    private boolean closing;
+    private boolean selfClosing;
+
+    /** Attributes of the current {@code <c>}. */
+    private int cellCol;
+    private int cellType;
+    private int cellStyle;
+
+    private Object[] cells = new Object[16];
+    private int cellCount;
+    private Object[] nextRow;
+    private boolean exhausted;
+    private BitSet columns;
+
+    ByteSheetParser(InputStream in, CellValueDecoder decoder) {
+        this.in = in;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public void project(BitSet columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow != null) return true;
+        if (exhausted) return false;
+        try {
+            nextRow = readNextRow();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse sheet XML", e);
+        }
+        if (nextRow == null) exhausted = true;
+        return nextRow != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Object[] r = nextRow;
+        nextRow = null;
+        return r;
+    }
+
+    private Object[] readNextRow() throws IOException {
+        int b;
+        while ((b = read()) >= 0) {
+            if (b != '<') continue;
+            int element = readTag(false);
+            if (!closing && element == E_ROW) {
+                return parseRow();
+            }
+        }
+        return null;
+    }
+
+    /** Returns the row's cells indexed by sheet column; empty cells are {@code null}. */
+    private Object[] parseRow() throws IOException {
+        cellCount = 0;
+        if (selfClosing) return new Object[0];
+        int b;
+        while ((b = read()) >= 0) {
+            if (b != '<') continue;
+            int element = readTag(true);
+            if (closing) {
+                if (element == E_ROW) break;
+            } else if (element == E_C && !selfClosing) {
+                parseCell();
+            }
+        }
+        return Arrays.copyOf(cells, cellCount);
+    }
+
+    /** Consumes the body of a {@code <c>} whose attributes {@link #readTag} already decoded. */
+    private void parseCell() throws IOException {
+        textLen = 0;
+        capturing = false;
+        boolean wanted = cellCol >= 0 && (columns == null || columns.get(cellCol));
+        while (true) {
+            int b = read();
+            if (b < 0) throw unexpectedEnd();
+            if (b == '<') {
+                int element = readTag(false);
+                if (closing) {
+                    if (element == E_C) break;
+                    if (element == E_V || element == E_T) capturing = false;
+                } else if (wanted && !selfClosing && (element == E_V || element == E_T)) {
+                    // <v> for values; <t> runs inside <is> for inline strings.
+                    capturing = true;
+                }
+            } else if (capturing) {
+                if (b == '&') appendEntity();
+                else appendText(b);
+            }
+        }
+        capturing = false;
+        if (!wanted) return;
+
+        Object value = decodeValue();
+        if (value != null) putCell(cellCol, value);
+    }
+
+    private Object decodeValue() {
+        if (textLen == 0) return null;
+        return switch (cellType) {
+            case T_INLINE, T_STR -> new String(text, 0, textLen, StandardCharsets.UTF_8);
+            case T_SHARED -> decoder.sharedString(parseInt());
+            case T_BOOL -> !(textLen == 1 && text[0] == '0');
+            case T_ERROR -> null;
+            default -> parseNumber();
+        };
+    }
+
+    private void putCell(int col, Object value) {
+        if (col >= cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(col + 1, cells.length * 2));
+        }
+        for (int i = cellCount; i < col; i++) cells[i] = null;
+        cells[col] = value;
+        cellCount = Math.max(cellCount, col + 1);
+    }
+
+    // ── tags ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Reads a tag up to and including its {@code >}; the {@code <} is already consumed. Sets
+     * {@link #closing} and {@link #selfClosing} and returns the element code of its local name.
+     * With {@code cellAttributes}, a {@code <c>} start tag also sets {@link #cellCol},
+     * {@link #cellType} and {@link #cellStyle}.
+     */
+    private int readTag(boolean cellAttributes) throws IOException {
+        closing = false;
+        selfClosing = false;
+        int b = read();
+        if (b == '/') {
+            closing = true;
+            b = read();
+        } else if (b == '?') {
+            skipUntil('?', 1);
+            return E_OTHER;
+        } else if (b == '!') {
+            readDeclaration();
+            return E_OTHER;
+        }
+
+        nameLen = 0;
+        while (b >= 0 && b != '>' && b != '/' && !isSpace(b)) {
+            if (b == ':') {
+                nameLen = 0;
+            } else if (nameLen < name.length) {
+                name[nameLen++] = (byte) b;
+            }
+            b = read();
+        }
+        int element = element();
+        if (closing) {
+            while (b >= 0 && b != '>') b = read();
+            if (b < 0) throw unexpectedEnd();
+            return element;
+        }
+
+        boolean cell = cellAttributes && element == E_C;
+        if (cell) {
+            cellCol = -1;
+            cellType = T_NUMBER;
+            cellStyle = -1;
+        }
+        while (true) {
+            while (isSpace(b)) b = read();
+            if (b < 0) throw unexpectedEnd();
+            if (b == '>') return element;
+            if (b == '/') {
+                selfClosing = true;
+                b = read();
+                continue;
+            }
+            int first = b;
+            int attrLen = 0;
+            while (b >= 0 && b != '=' && !isSpace(b)) {
+                attrLen++;
+                b = read();
+            }
+            while (b != '"' && b != '\'') {
+                if (b < 0) throw unexpectedEnd();
+                b = read();
+            }
+            readAttributeValue(b, cell && attrLen == 1 ? first : 0);
+            b = read();
+        }
+    }
+
+    /** Consumes an attribute value up to its closing {@code quote}, decoding the {@code <c>} attributes. */
+    private void readAttributeValue(int quote, int attribute) throws IOException {
+        int b;
+        switch (attribute) {
+            case 'r' -> {
+                int col = 0;
+                boolean letters = true;
+                while ((b = read()) != quote) {
+                    if (b < 0) throw unexpectedEnd();
+                    if (letters && b >= 'A' && b <= 'Z') {
+                        col = col * 26 + (b - 'A' + 1);
+                    } else {
+                        letters = false;
+                    }
+                }
+                cellCol = col - 1;
+            }
+            case 's' -> {
+                int style = 0;
+                while ((b = read()) != quote) {
+                    if (b < 0) throw unexpectedEnd();
+                    if (b >= '0' && b <= '9') style = style * 10 + (b - '0');
+                }
+                cellStyle = style;
+            }
+            case 't' -> {
+                int len = 0;
+                while ((b = read()) != quote) {
+                    if (b < 0) throw unexpectedEnd();
+                    if (len < attrValue.length) attrValue[len++] = (byte) b;
+                }
+                cellType = cellType(len);
+            }
+            default -> {
+                while ((b = read()) != quote) {
+                    if (b < 0) throw unexpectedEnd();
+                }
+            }
+        }
+    }
+
+    private int cellType(int len) {
+        if (len == 1) {
+            return switch (attrValue[0]) {
+                case 's' -> T_SHARED;
+                case 'b' -> T_BOOL;
+                case 'e' -> T_ERROR;
+                default -> T_NUMBER;
+            };
+        }
+        if (len == 3 && attrValue[0] == 's' && attrValue[1] == 't' && attrValue[2] == 'r') return T_STR;
+        if (len == 9 && attrValue[0] == 'i' && attrValue[6] == 'S') return T_INLINE;
+        return T_NUMBER;
+    }
+
+    private int element() {
+        if (nameLen == 1) {
+            return switch (name[0]) {
+                case 'c' -> E_C;
+                case 'v' -> E_V;
+                case 't' -> E_T;
+                default -> E_OTHER;
+            };
+        }
+        if (nameLen == 3 && name[0] == 'r' && name[1] == 'o' && name[2] == 'w') return E_ROW;
+        return E_OTHER;
+    }
+
+    /** After {@code <!}: a comment, a CDATA section (kept when capturing text) or a declaration. */
+    private void readDeclaration() throws IOException {
+        int b = read();
+        if (b == '-') {
+            read();
+            skipUntil('-', 2);
+        } else if (b == '[') {
+            for (int i = 0; i < 6; i++) read();   // CDATA[
+            boolean append = capturing;
+            int run = 0;
+            while (true) {
+                b = read();
+                if (b < 0) throw unexpectedEnd();
+                if (b == '>' && run >= 2) {
+                    if (append) textLen -= 2;
+                    return;
+                }
+                run = b == ']' ? run + 1 : 0;
+                if (append) appendText(b);
+            }
+        } else {
+            while (b >= 0 && b != '>') b = read();
+        }
+    }
+
+    /** Skips past the first {@code >} preceded by at least {@code count} {@code mark} bytes. */
+    private void skipUntil(int mark, int count) throws IOException {
+        int run = 0;
+        while (true) {
+            int b = read();
+            if (b < 0) throw unexpectedEnd();
+            if (b == '>' && run >= count) return;
+            run = b == mark ? run + 1 : 0;
+        }
+    }
+
+    // ── text ─────────────────────────────────────────────────────────────────
+
+    private void appendText(int b) {
+        if (textLen == text.length) text = Arrays.copyOf(text, text.length * 2);
+        text[textLen++] = (byte) b;
+    }
+
+    /** Decodes {@code &name;} / {@code &#n;} / {@code &#xh;} into the text buffer as UTF-8. */
+    private void appendEntity() throws IOException {
+        int len = 0;
+        int b;
+        while ((b = read()) != ';') {
+            if (b < 0) throw unexpectedEnd();
+            if (len < attrValue.length) attrValue[len++] = (byte) b;
+        }
+        int cp = -1;
+        if (len > 1 && attrValue[0] == '#') {
+            boolean hex = attrValue[1] == 'x' || attrValue[1] == 'X';
+            cp = 0;
+            for (int i = hex ? 2 : 1; i < len; i++) {
+                cp = cp * (hex ? 16 : 10) + Character.digit(attrValue[i], hex ? 16 : 10);
+            }
+        } else if (is(len, "amp")) {
+            cp = '&';
+        } else if (is(len, "lt")) {
+            cp = '<';
+        } else if (is(len, "gt")) {
+            cp = '>';
+        } else if (is(len, "quot")) {
+            cp = '"';
+        } else if (is(len, "apos")) {
+            cp = '\'';
+        }
+        if (cp < 0) {
+            appendText('&');
+            for (int i = 0; i < len; i++) appendText(attrValue[i]);
+            appendText(';');
+        } else if (cp < 0x80) {
+            appendText(cp);
+        } else if (cp < 0x800) {
+            appendText(0xC0 | cp >> 6);
+            appendText(0x80 | cp & 0x3F);
+        } else if (cp < 0x10000) {
+            appendText(0xE0 | cp >> 12);
+            appendText(0x80 | cp >> 6 & 0x3F);
+            appendText(0x80 | cp & 0x3F);
+        } else {
+            appendText(0xF0 | cp >> 18);
+            appendText(0x80 | cp >> 12 & 0x3F);
+            appendText(0x80 | cp >> 6 & 0x3F);
+            appendText(0x80 | cp & 0x3F);
+        }
+    }
+
+    private boolean is(int len, String entity) {
+        if (len != entity.length()) return false;
+        for (int i = 0; i < len; i++) {
+            if (attrValue[i] != entity.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int parseInt() {
+        int value = 0;
+        for (int i = 0; i < textLen; i++) {
+            int d = text[i] - '0';
+            if (d < 0 || d > 9) return Integer.parseInt(new String(text, 0, textLen, StandardCharsets.US_ASCII));
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Parses the text buffer as a number, typed by {@link CellValueDecoder#numeric}. Decimals with at
+     * most 15 significant digits and a small exponent are exact as {@code mantissa * 10^exp} in
+     * double arithmetic; other shapes go through {@link Double#parseDouble}.
+     */
+    private Object parseNumber() {
+        int i = 0;
+        boolean negative = text[0] == '-';
+        if (negative || text[0] == '+') i++;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean sawDigit = false;
+        boolean fast = i < textLen;
+        for (; i < textLen && fast; i++) {
+            int b = text[i];
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || b != '0') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (++digits > 15) fast = false;
+                }
+                if (dot) scale--;
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else if (b == 'E' || b == 'e') {
+                int exp = parseExponent(i + 1);
+                if (exp == Integer.MIN_VALUE) fast = false;
+                else scale += exp;
+                break;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && sawDigit && scale >= -22 && scale <= 22) {
+            double value = mantissa;
+            value = scale >= 0 ? value * POW10[scale] : value / POW10[-scale];
+            return decoder.numeric(cellStyle, negative ? -value : value);
+        }
+        try {
+            return decoder.numeric(cellStyle,
+                    Double.parseDouble(new String(text, 0, textLen, StandardCharsets.US_ASCII)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private int parseExponent(int i) {
+        if (i >= textLen) return Integer.MIN_VALUE;
+        boolean negative = text[i] == '-';
+        if (negative || text[i] == '+') i++;
+        if (i >= textLen || textLen - i > 3) return Integer.MIN_VALUE;
+        int exp = 0;
+        for (; i < textLen; i++) {
+            int d = text[i] - '0';
+            if (d < 0 || d > 9) return Integer.MIN_VALUE;
+            exp = exp * 10 + d;
+        }
+        return negative ? -exp : exp;
+    }
+
+    // ── input ────────────────────────────────────────────────────────────────
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            int n;
+            do {
+                n = in.read(buf, 0, buf.length);
+            } while (n == 0);
+            if (n < 0) return -1;
+            pos = 0;
+            limit = n;
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    private static boolean isSpace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static IOException unexpectedEnd() {
+        return new IOException("Unexpected end of sheet XML");
+    }
+}
@@ -0,0 +1,16 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+/**
+ * How sheet XML is turned into cells. Selected per job with {@code reader: { cellParser: FAST }}.
+ */
+enum CellParserMode {
+    /** {@code XMLStreamReader}-based; the reference implementation. */
+    STAX,
+    /** {@link ByteSheetParser}: scans the bytes directly without per-attribute strings. */
+    FAST;
+
+    static CellParserMode from(Object value) {
+        if (value == null) return STAX;
+        return valueOf(value.toString().trim().toUpperCase());
+    }
+}
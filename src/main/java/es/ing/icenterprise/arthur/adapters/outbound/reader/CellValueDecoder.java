@@ -0,0 +1,132 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+import java.sql.Timestamp;
+import java.util.BitSet;
+
+/**
+ * Turns the raw {@code <v>} text of a sheet cell into its typed value. Date detection is a single
+ * {@link BitSet} lookup: {@link #dateStyles} evaluates {@code DateUtil.isADateFormat} once per cell
+ * style of the workbook instead of once per numeric cell.
+ * <p>
+ * Built once per workbook ({@link XlsxWorkbook#decoder}) and safe for concurrent sheet reads.
+ */
+final class CellValueDecoder {
+
+    private static final int DATE_CACHE_BITS = 12;
+
+    private final SharedStrings sst;
+    private final BitSet dateStyles;
+    /**
+     * Resolved on-heap shared strings by index. {@code SharedStrings.getItemAt} wraps each string in
+     * a new {@code XSSFRichTextString} (and its XMLBeans {@code CTRst}); this keeps the plain
+     * {@code String} after the first lookup. The entries are the table's own strings, so the cost
+     * is one reference per unique string. Racy writes are benign: every writer stores an equal
+     * immutable value. Not used for {@link MappedSharedStrings}, which must stay off heap.
+     */
+    private final String[] resolved;
+    /**
+     * Direct-mapped cache of date serial → {@link Timestamp}. Building a {@code Timestamp} from a
+     * serial goes through {@code LocalDateTime} and the deprecated {@code Date} field constructor,
+     * several hundred bytes per cell; dates repeat heavily within a sheet. {@code Timestamp} is
+     * mutable, so callers always get a clone and the cached instance never escapes.
+     */
+    private final DateEntry[] dates = new DateEntry[1 << DATE_CACHE_BITS];
+
+    private record DateEntry(double serial, Timestamp value) { }
+
+    CellValueDecoder(SharedStrings sst, BitSet dateStyles) {
+        this.sst = sst;
+        this.dateStyles = dateStyles;
+        this.resolved = sst == null || sst instanceof MappedSharedStrings
+                ? new String[0]
+                : new String[Math.max(0, sst.getUniqueCount())];
+    }
+
+    /** Indices of the cell styles (the {@code s} attribute of {@code <c>}) whose number format is a date. */
+    static BitSet dateStyles(StylesTable styles) {
+        BitSet dates = new BitSet();
+        if (styles == null) return dates;
+        int count = styles.getNumCellStyles();
+        for (int idx = 0; idx < count; idx++) {
+            try {
+                XSSFCellStyle style = styles.getStyleAt(idx);
+                if (style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())) {
+                    dates.set(idx);
+                }
+            } catch (Exception e) {
+                // Malformed style entry: treat as non-date, like the per-cell check did.
+            }
+        }
+        return dates;
+    }
+
+    boolean isDateStyle(int styleIdx) {
+        return styleIdx >= 0 && dateStyles.get(styleIdx);
+    }
+
+    /**
+     * Decodes a non-inline cell. Understands shared strings ({@code t="s"}), formula string results
+     * ({@code t="str"}), booleans ({@code t="b"}), errors ({@code t="e"}, always {@code null}) and
+     * numeric (default / {@code t="n"}), which become {@link Timestamp}s when the style is a date.
+     */
+    Object decode(String type, int styleIdx, String raw) {
+        if (raw == null || raw.isEmpty()) return null;
+        if (type == null || "n".equals(type)) return decodeNumeric(styleIdx, raw);
+        return switch (type) {
+            case "s" -> sharedString(Integer.parseInt(raw));
+            case "str" -> raw;
+            case "b" -> !"0".equals(raw);
+            case "e" -> null;
+            default -> decodeNumeric(styleIdx, raw);
+        };
+    }
+
+    String sharedString(int idx) {
+        if (sst instanceof MappedSharedStrings mapped) {
+            return mapped.getString(idx);
+        }
+        if (idx >= resolved.length) {
+            return sst.getItemAt(idx).getString();
+        }
+        String value = resolved[idx];
+        if (value == null) {
+            value = sst.getItemAt(idx).getString();
+            resolved[idx] = value;
+        }
+        return value;
+    }
+
+    /** A numeric cell as {@link Double}, or {@link Timestamp} for date styles; {@code null} if unparsable. */
+    Object decodeNumeric(int styleIdx, String raw) {
+        double num;
+        try {
+            num = Double.parseDouble(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return numeric(styleIdx, num);
+    }
+
+    Object numeric(int styleIdx, double num) {
+        if (isDateStyle(styleIdx)) {
+            return timestamp(num);
+        }
+        return num;
+    }
+
+    private Timestamp timestamp(double serial) {
+        long bits = Double.doubleToLongBits(serial);
+        int slot = (int) (bits ^ bits >>> 32) * 0x9E3779B9 >>> (32 - DATE_CACHE_BITS);
+        DateEntry entry = dates[slot];
+        if (entry == null || Double.doubleToLongBits(entry.serial()) != bits) {
+            entry = new DateEntry(serial, Timestamp.valueOf(DateUtil.getLocalDateTime(serial)));
+            dates[slot] = entry;
+        }
+        return (Timestamp) entry.value().clone();
+    }
+}
@@ -1,18 +1,15 @@
 package es.ing.icenterprise.arthur.adapters.outbound.reader;
 
 import es.ing.icenterprise.arthur.core.domain.enums.FileType;
+import es.ing.icenterprise.arthur.core.domain.model.ColumnProjection;
 import es.ing.icenterprise.arthur.core.domain.model.FileMetadata;
+import es.ing.icenterprise.arthur.core.domain.model.RowSchema;
+import es.ing.icenterprise.arthur.core.domain.model.SchemaRow;
+import es.ing.icenterprise.arthur.core.ports.outbound.FileReadSession;
 import es.ing.icenterprise.arthur.core.ports.outbound.FileReaderPort;
-import org.apache.poi.openxml4j.opc.OPCPackage;
-import org.apache.poi.openxml4j.opc.PackageAccess;
-import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
-import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.model.SharedStrings;
-import org.apache.poi.xssf.model.StylesTable;
-import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.xml.stream.XMLInputFactory;
@@ -23,10 +20,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -36,15 +34,27 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
- * XLSX reader that parses sheets with POI's SAX-based {@link XSSFReader} and exposes rows
+ * XLSX reader that parses sheets with POI's SAX-based {@code XSSFReader} and exposes rows
  * through a lazy {@link Stream}. Memory footprint stays bounded by the StAX cursor and the
  * shared-strings table — the full workbook DOM is never materialised.
+ * <p>
+ * Rows are {@link SchemaRow}s over one {@link RowSchema} per sheet, so header strings are held
+ * once instead of being repeated as keys in every row.
+ * <p>
+ * Opened workbooks go through an {@link XlsxWorkbookCache}: the sheet-name, metadata and data
+ * passes of one job share a single parsed shared-strings/styles table. The job's end calls
+ * {@link #release(Path)} to drop it.
  */
 @Component
 public class ExcelFileReaderAdapter implements FileReaderPort {
 
     private static final Logger log = LoggerFactory.getLogger(ExcelFileReaderAdapter.class);
 
+    @Value("${ingesta.reader.workbook-cache.max-entries:2}")
+    private int workbookCacheMaxEntries = 2;
+
+    private final XlsxWorkbookCache workbookCache = new XlsxWorkbookCache(() -> workbookCacheMaxEntries);
+
     private static final XMLInputFactory XML_FACTORY;
     static {
         XMLInputFactory f = XMLInputFactory.newInstance();
@@ -56,87 +66,136 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
 
     @Override
     public Stream<Map<String, Object>> read(Path filePath) {
-        return readInternal(filePath, 0);
+        return readInternal(filePath, Map.of());
     }
 
     @Override
     public Stream<Map<String, Object>> read(Path filePath, Map<String, Object> params) {
-        int sheetIndex = ((Number) params.getOrDefault("sheetIndex", 0)).intValue();
-        return readInternal(filePath, sheetIndex);
+        return readInternal(filePath, params);
     }
 
-    private Stream<Map<String, Object>> readInternal(Path filePath, int sheetIndex) {
-        log.info("Reading Excel file: {} (sheet {})", filePath, sheetIndex);
+    @Override
+    public FileReadSession open(Path filePath, Map<String, Object> options) {
+        try {
+            return new WorkbookSession(workbookCache.acquire(filePath), options);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open Excel file: " + filePath, e);
+        }
+    }
 
-        OPCPackage pkg = null;
-        InputStream sheetStream = null;
-        XMLStreamReader xml = null;
+    @Override
+    public void release(Path filePath) {
+        workbookCache.evict(filePath);
+    }
+
+    private Stream<Map<String, Object>> readInternal(Path filePath, Map<String, Object> params) {
+        XlsxWorkbookCache.Handle handle = null;
         try {
-            pkg = OPCPackage.open(filePath.toFile(), PackageAccess.READ);
-            XSSFReader reader = new XSSFReader(pkg);
-            SharedStrings sst = new ReadOnlySharedStringsTable(pkg);
-            StylesTable styles = reader.getStylesTable();
+            handle = workbookCache.acquire(filePath);
+            return readSheet(handle.workbook(), params, handle::release);
+        } catch (Exception e) {
+            if (handle != null) handle.release();
+            throw new RuntimeException("Failed to read Excel file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Streams one sheet of an already-open workbook. {@code params} carry {@code sheetIndex}
+     * (default 0), {@code sharedStrings} ({@code HEAP} or {@code MAPPED}, default {@code HEAP}),
+     * {@code cellParser} ({@code STAX} or {@code FAST}, default {@code STAX}) and an optional
+     * {@link ColumnProjection} under {@code projection}, which limits decoding to the columns it includes.
+     * {@code release} runs when the returned stream is closed (or immediately if the sheet has no
+     * header row); on exception the caller releases.
+     */
+    private Stream<Map<String, Object>> readSheet(XlsxWorkbook workbook, Map<String, Object> params, Runnable release)
+            throws IOException, XMLStreamException {
+        int sheetIndex = ((Number) params.getOrDefault("sheetIndex", 0)).intValue();
+        SharedStringsMode sstMode = SharedStringsMode.from(params.get("sharedStrings"));
+        CellParserMode parserMode = CellParserMode.from(params.get("cellParser"));
+        log.info("Reading Excel file: {} (sheet {})", workbook.path(), sheetIndex);
 
-            sheetStream = openSheetStream(reader, sheetIndex);
-            xml = XML_FACTORY.createXMLStreamReader(sheetStream);
+        InputStream sheetStream = null;
+        SheetRowIterator rowIt = null;
+        try {
+            CellValueDecoder decoder = workbook.decoder(sstMode);
 
-            Iterator<Map<Integer, Object>> rowIt = new StaxRowIterator(xml, sst, styles);
+            sheetStream = workbook.openSheet(sheetIndex);
+            rowIt = rowIterator(parserMode, sheetStream, decoder);
 
             List<String> headers = readHeaders(rowIt);
             if (headers.isEmpty()) {
-                closeQuietly(xml, sheetStream, pkg);
+                closeQuietly(rowIt, sheetStream);
+                release.run();
                 log.info("Read 0 data rows from Excel file (sheet {})", sheetIndex);
                 return Stream.empty();
             }
             log.debug("Headers detected ({} columns): {}", headers.size(), headers);
+            if (params.get("projection") instanceof ColumnProjection projection) {
+                BitSet columns = projectedColumns(headers, projection);
+                rowIt.project(columns);
+                log.info("Column projection: decoding {} of {} columns (sheet {})",
+                        columns.cardinality(), headers.size(), sheetIndex);
+            }
 
-            final OPCPackage pkgRef = pkg;
             final InputStream streamRef = sheetStream;
-            final XMLStreamReader xmlRef = xml;
-            Spliterator<Map<Integer, Object>> sp = Spliterators.spliteratorUnknownSize(
+            final Iterator<Object[]> rowsRef = rowIt;
+            RowMapper mapper = new RowMapper(headers);
+            Spliterator<Object[]> sp = Spliterators.spliteratorUnknownSize(
                     rowIt, Spliterator.ORDERED | Spliterator.NONNULL);
             return StreamSupport.stream(sp, false)
-                    .map(row -> mapRowWithHeaders(row, headers))
-                    .onClose(() -> closeQuietly(xmlRef, streamRef, pkgRef));
-        } catch (Exception e) {
-            closeQuietly(xml, sheetStream, pkg);
-            throw new RuntimeException("Failed to read Excel file: " + filePath, e);
+                    .map(mapper::map)
+                    .onClose(() -> {
+                        closeQuietly(rowsRef, streamRef);
+                        release.run();
+                    });
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            closeQuietly(rowIt, sheetStream);
+            throw e;
         }
     }
 
     @Override
     public List<String> getSheetNames(Path filePath) {
-        try (OPCPackage pkg = OPCPackage.open(filePath.toFile(), PackageAccess.READ)) {
-            XSSFReader reader = new XSSFReader(pkg);
-            XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
-            List<String> names = new ArrayList<>();
-            while (it.hasNext()) {
-                try (InputStream s = it.next()) {
-                    names.add(it.getSheetName());
-                }
-            }
+        XlsxWorkbookCache.Handle handle = null;
+        try {
+            handle = workbookCache.acquire(filePath);
+            List<String> names = handle.workbook().sheetNames();
             log.info("Found {} sheets in {}: {}", names.size(), filePath, names);
             return names;
         } catch (Exception e) {
             throw new RuntimeException("Failed to read sheet names from: " + filePath, e);
+        } finally {
+            if (handle != null) handle.release();
         }
     }
 
+    /**
+     * Sizes sheet 0 without parsing cells: the {@code <dimension>} ref when the sheet has one (an
+     * estimate), otherwise an exact count of {@code <row>} elements from a byte scan.
+     */
     @Override
     public FileMetadata readFileMetadata(Path filePath) {
+        XlsxWorkbookCache.Handle handle = null;
         try {
             long fileSize = Files.size(filePath);
-            long records = countDataRows(filePath, 0);
-            return new FileMetadata(filePath.toString(), fileSize, records);
+            handle = workbookCache.acquire(filePath);
+            XlsxWorkbook workbook = handle.workbook();
+            long estimate;
+            try (InputStream sheet = workbook.openSheet(0)) {
+                estimate = SheetSizeScanner.dimensionRows(sheet);
+            }
+            if (estimate >= 0) {
+                return new FileMetadata(filePath.toString(), fileSize, estimate, false);
+            }
+            long records;
+            try (InputStream sheet = workbook.openSheet(0)) {
+                records = SheetSizeScanner.countRows(sheet);
+            }
+            return new FileMetadata(filePath.toString(), fileSize, records, true);
         } catch (IOException e) {
             throw new RuntimeException("Failed to read file metadata: " + filePath, e);
-        }
-    }
-
-    /** Counts data rows (excluding the header) in a single streaming pass. */
-    private long countDataRows(Path filePath, int sheetIndex) {
-        try (Stream<Map<String, Object>> stream = readInternal(filePath, sheetIndex)) {
-            return stream.count();
+        } finally {
+            if (handle != null) handle.release();
         }
     }
 
@@ -145,23 +204,6 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
         return type == FileType.EXCEL;
     }
 
-    /** Advances {@link XSSFReader.SheetIterator} to the requested index and returns that sheet's XML stream. */
-    private InputStream openSheetStream(XSSFReader reader, int sheetIndex) throws IOException {
-        try {
-            XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
-            int i = 0;
-            while (it.hasNext()) {
-                InputStream s = it.next();
-                if (i == sheetIndex) return s;
-                s.close();
-                i++;
-            }
-            throw new IllegalArgumentException("Sheet index " + sheetIndex + " out of range (found " + i + " sheets)");
-        } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
-            throw new IOException("Invalid xlsx format", e);
-        }
-    }
-
     /**
      * Preserves the original header-detection rules verbatim:
      * <ul>
@@ -170,20 +212,21 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
      *   <li>For columns {@code 0..maxCol}, fall back to {@code column_i} when the header cell is null/blank.</li>
      * </ul>
      */
-    private List<String> readHeaders(Iterator<Map<Integer, Object>> rowIt) {
+    private List<String> readHeaders(Iterator<Object[]> rowIt) {
         while (rowIt.hasNext()) {
-            Map<Integer, Object> rowData = rowIt.next();
-            boolean hasContent = rowData.values().stream()
+            Object[] rowData = rowIt.next();
+            boolean hasContent = Arrays.stream(rowData)
                     .anyMatch(v -> v != null && !v.toString().isBlank());
             if (!hasContent) {
                 log.debug("Skipping blank row before headers");
                 continue;
             }
 
-            int maxCol = rowData.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+            int maxCol = rowData.length - 1;
+            while (maxCol >= 0 && rowData[maxCol] == null) maxCol--;
             List<String> headers = new ArrayList<>(maxCol + 1);
             for (int i = 0; i <= maxCol; i++) {
-                Object val = rowData.get(i);
+                Object val = rowData[i];
                 String header = (val != null && !val.toString().isBlank())
                         ? val.toString().strip()
                         : "column_" + i;
@@ -194,25 +237,121 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
         return List.of();
     }
 
-    private Map<String, Object> mapRowWithHeaders(Map<Integer, Object> rowData, List<String> headers) {
-        Map<String, Object> mapped = new LinkedHashMap<>();
-        for (Map.Entry<Integer, Object> entry : rowData.entrySet()) {
-            int idx = entry.getKey();
-            String header = idx < headers.size() ? headers.get(idx) : "column_" + idx;
-            mapped.put(header, entry.getValue());
+    /**
+     * Sheet columns to decode under {@code projection}: header columns it includes, plus cells past
+     * the header row that it names as {@code column_<i>}.
+     */
+    private static BitSet projectedColumns(List<String> headers, ColumnProjection projection) {
+        BitSet columns = new BitSet();
+        for (int i = 0; i < headers.size(); i++) {
+            if (projection.includes(headers.get(i))) columns.set(i);
+        }
+        for (String header : projection.headers()) {
+            if (header.startsWith("column_")) {
+                try {
+                    int col = Integer.parseInt(header.substring("column_".length()));
+                    if (col >= headers.size()) columns.set(col);
+                } catch (NumberFormatException ignored) {
+                    // Not a generated column name.
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Turns a sparse cell array into a {@link SchemaRow}. Sheet column → schema ordinal is resolved
+     * once per column; duplicate headers share an ordinal so the rightmost non-empty cell wins, and
+     * cells past the header row become {@code column_<i>}.
+     */
+    private static final class RowMapper {
+        private final List<String> headers;
+        private final RowSchema schema;
+        private int[] ordinals;
+
+        RowMapper(List<String> headers) {
+            this.headers = headers;
+            this.schema = new RowSchema(headers);
+            this.ordinals = new int[headers.size()];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = schema.indexOf(headers.get(i));
+            }
+        }
+
+        Map<String, Object> map(Object[] cells) {
+            SchemaRow row = new SchemaRow(schema);
+            for (int col = 0; col < cells.length; col++) {
+                if (cells[col] != null) row.setAt(ordinal(col), cells[col]);
+            }
+            return row;
+        }
+
+        private int ordinal(int col) {
+            if (col >= ordinals.length) {
+                int from = ordinals.length;
+                ordinals = Arrays.copyOf(ordinals, col + 1);
+                Arrays.fill(ordinals, from, ordinals.length, -1);
+            }
+            if (ordinals[col] < 0) {
+                String header = col < headers.size() ? headers.get(col) : "column_" + col;
+                ordinals[col] = schema.add(header);
+            }
+            return ordinals[col];
+        }
+    }
+
+    /** Sparse cell rows of one sheet's XML, parsed as {@code mode} selects. */
+    SheetRowIterator rowIterator(CellParserMode mode, InputStream sheetStream, CellValueDecoder decoder)
+            throws XMLStreamException {
+        if (mode == CellParserMode.FAST) {
+            return new ByteSheetParser(sheetStream, decoder);
         }
-        return mapped;
+        return new StaxRowIterator(XML_FACTORY.createXMLStreamReader(sheetStream), decoder);
     }
 
-    private void closeQuietly(XMLStreamReader xml, InputStream stream, OPCPackage pkg) {
-        if (xml != null) {
-            try { xml.close(); } catch (XMLStreamException e) { log.warn("Failed to close XML reader: {}", e.getMessage()); }
+    private void closeQuietly(Iterator<Object[]> rows, InputStream stream) {
+        if (rows instanceof StaxRowIterator stax) {
+            try { stax.xml.close(); } catch (XMLStreamException e) { log.warn("Failed to close XML reader: {}", e.getMessage()); }
         }
         if (stream != null) {
             try { stream.close(); } catch (IOException e) { log.warn("Failed to close sheet stream: {}", e.getMessage()); }
         }
-        if (pkg != null) {
-            try { pkg.close(); } catch (IOException e) { log.warn("Failed to close OPC package: {}", e.getMessage()); }
+    }
+
+    /**
+     * Session pinning one cached {@link XlsxWorkbook}: the package, shared strings and styles are
+     * parsed once and shared by every sheet read, which may run concurrently.
+     */
+    private final class WorkbookSession implements FileReadSession {
+        private final XlsxWorkbookCache.Handle handle;
+        private final XlsxWorkbook workbook;
+        private final Map<String, Object> options;
+
+        WorkbookSession(XlsxWorkbookCache.Handle handle, Map<String, Object> options) {
+            this.handle = handle;
+            this.workbook = handle.workbook();
+            this.options = options;
+        }
+
+        @Override
+        public List<String> getSheetNames() {
+            return workbook.sheetNames();
+        }
+
+        @Override
+        public Stream<Map<String, Object>> read(Map<String, Object> params) {
+            Map<String, Object> merged = new HashMap<>(options);
+            merged.putAll(params);
+            try {
+                return readSheet(workbook, merged, () -> { });
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to read Excel file: " + workbook.path(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            handle.release();
         }
     }
 
@@ -220,18 +359,25 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
     //  Lazy StAX → row iterator. Pull-based so Stream consumers drive parsing.
     // ────────────────────────────────────────────────────────────────────────────
 
-    private static final class StaxRowIterator implements Iterator<Map<Integer, Object>> {
+    private static final class StaxRowIterator implements SheetRowIterator {
 
         private final XMLStreamReader xml;
-        private final SharedStrings sst;
-        private final StylesTable styles;
-        private Map<Integer, Object> nextRow;
+        private final CellValueDecoder decoder;
+        /** Scratch buffer reused across rows; each row is copied out at its used length. */
+        private Object[] cells = new Object[16];
+        private int cellCount;
+        private Object[] nextRow;
         private boolean exhausted;
+        private BitSet columns;
 
-        StaxRowIterator(XMLStreamReader xml, SharedStrings sst, StylesTable styles) {
+        StaxRowIterator(XMLStreamReader xml, CellValueDecoder decoder) {
             this.xml = xml;
-            this.sst = sst;
-            this.styles = styles;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public void project(BitSet columns) {
+            this.columns = columns;
         }
 
         @Override
@@ -244,14 +390,14 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
         }
 
         @Override
-        public Map<Integer, Object> next() {
+        public Object[] next() {
             if (!hasNext()) throw new NoSuchElementException();
-            Map<Integer, Object> r = nextRow;
+            Object[] r = nextRow;
             nextRow = null;
             return r;
         }
 
-        private Map<Integer, Object> readNextRow() {
+        private Object[] readNextRow() {
             try {
                 while (xml.hasNext()) {
                     int evt = xml.next();
@@ -265,33 +411,44 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
             }
         }
 
-        private Map<Integer, Object> parseRow() throws XMLStreamException {
-            Map<Integer, Object> row = new LinkedHashMap<>();
+        /** Returns the row's cells indexed by sheet column; empty cells are {@code null}. */
+        private Object[] parseRow() throws XMLStreamException {
+            cellCount = 0;
             while (xml.hasNext()) {
                 int evt = xml.next();
                 if (evt == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
-                    parseCell(row);
+                    parseCell();
                 } else if (evt == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
-                    return row;
+                    break;
                 }
             }
-            return row;
+            return Arrays.copyOf(cells, cellCount);
+        }
+
+        private void putCell(int col, Object value) {
+            if (col >= cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(col + 1, cells.length * 2));
+            }
+            // Reset the gap left by skipped (empty) cells since the last one written.
+            for (int i = cellCount; i < col; i++) cells[i] = null;
+            cells[col] = value;
+            cellCount = Math.max(cellCount, col + 1);
         }
 
         /**
-         * Consumes a {@code <c>} element and, if it carries a value, adds the typed result to {@code row}.
-         * Understands: shared strings ({@code t="s"}), inline strings ({@code t="inlineStr"}),
-         * formula string results ({@code t="str"}), booleans ({@code t="b"}), errors ({@code t="e"}),
-         * and numeric (default / {@code t="n"}) including date detection via the style table.
+         * Consumes a {@code <c>} element and, if it carries a value, stores the typed result in the current row.
+         * Inline strings ({@code t="inlineStr"}) are collected here; every other type is decoded by
+         * {@link CellValueDecoder}.
          * For formula cells we read the cached {@code <v>} value and ignore the {@code <f>} formula — same
          * semantics as the previous {@code cell.getCachedFormulaResultType()} path.
          */
-        private void parseCell(Map<Integer, Object> row) throws XMLStreamException {
+        private void parseCell() throws XMLStreamException {
             String cellRef = xml.getAttributeValue(null, "r");
             String cellType = xml.getAttributeValue(null, "t");
             String styleStr = xml.getAttributeValue(null, "s");
             int styleIdx = styleStr != null ? Integer.parseInt(styleStr) : -1;
             int col = cellRef != null ? columnFromRef(cellRef) : -1;
+            boolean wanted = col >= 0 && (columns == null || columns.get(col));
 
             String rawValue = null;
             StringBuilder inlineBuf = null;
@@ -300,6 +457,8 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
                 int evt = xml.next();
                 if (evt == XMLStreamConstants.START_ELEMENT) {
                     String name = xml.getLocalName();
+                    // A projected-out cell is walked past without materialising its text.
+                    if (!wanted) continue;
                     if ("v".equals(name)) {
                         rawValue = xml.getElementText();
                     } else if ("t".equals(name)) {
@@ -313,50 +472,15 @@ public class ExcelFileReaderAdapter implements FileReaderPort {
                 }
             }
 
-            if (col < 0) return;
+            if (!wanted) return;
 
             Object extracted;
             if ("inlineStr".equals(cellType)) {
                 extracted = inlineBuf != null && inlineBuf.length() > 0 ? inlineBuf.toString() : null;
             } else {
-                extracted = extractTypedValue(cellType, styleIdx, rawValue);
-            }
-            if (extracted != null) row.put(col, extracted);
-        }
-
-        private Object extractTypedValue(String type, int styleIdx, String raw) {
-            if (raw == null || raw.isEmpty()) return null;
-            if ("s".equals(type)) {
-                int idx = Integer.parseInt(raw);
-                return sst.getItemAt(idx).getString();
-            }
-            if ("str".equals(type)) return raw;
-            if ("b".equals(type)) return !"0".equals(raw);
-            if ("e".equals(type)) return null;
-
-            // Default / "n": numeric. Apply date detection from the style.
-            double num;
-            try {
-                num = Double.parseDouble(raw);
-            } catch (NumberFormatException e) {
-                return null;
-            }
-            if (styleIdx >= 0 && isDateStyle(styleIdx)) {
-                return Timestamp.valueOf(DateUtil.getLocalDateTime(num));
-            }
-            return num;
-        }
-
-        private boolean isDateStyle(int styleIdx) {
-            try {
-                XSSFCellStyle style = styles.getStyleAt(styleIdx);
-                if (style == null) return false;
-                short formatIdx = style.getDataFormat();
-                String formatStr = style.getDataFormatString();
-                return DateUtil.isADateFormat(formatIdx, formatStr);
-            } catch (Exception e) {
-                return false;
+                extracted = decoder.decode(cellType, styleIdx, rawValue);
             }
+            if (extracted != null) putCell(col, extracted);
         }
 
         /** Translates an Excel cell reference like {@code "AA12"} into the zero-based column index. */
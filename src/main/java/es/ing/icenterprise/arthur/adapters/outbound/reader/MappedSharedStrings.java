@@ -0,0 +1,187 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@link SharedStrings} that keeps the string bodies off the Java heap. The {@code sst.xml} part
+ * is streamed once into a temp file as UTF-8, the file is memory-mapped read-only, and only a
+ * {@code long[]} offset index stays on heap. {@link #getItemAt} decodes the requested string from
+ * the mapping on every call, so a workbook with millions of unique strings costs the OS page
+ * cache rather than old-gen.
+ * <p>
+ * Text is collected the same way as {@code ReadOnlySharedStringsTable} with phonetic runs: every
+ * {@code <t>} inside an {@code <si>} is concatenated. Safe for concurrent readers.
+ */
+final class MappedSharedStrings implements SharedStrings, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedSharedStrings.class);
+
+    /** Mapping granularity; a single {@link MappedByteBuffer} cannot exceed 2 GB. */
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+    private static final XMLInputFactory XML_FACTORY;
+    static {
+        XMLInputFactory f = XMLInputFactory.newInstance();
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        f.setProperty("javax.xml.stream.isSupportingExternalEntities", false);
+        XML_FACTORY = f;
+    }
+
+    private final Path file;
+    private final long[] offsets;   // offsets[i]..offsets[i + 1] is string i
+    private final int uniqueCount;
+    private final int count;
+    private final MappedByteBuffer[] segments;
+
+    private MappedSharedStrings(Path file, long[] offsets, int uniqueCount, int count) throws IOException {
+        this.file = file;
+        this.offsets = offsets;
+        this.uniqueCount = uniqueCount;
+        this.count = count;
+        long size = offsets[uniqueCount];
+        int segmentCount = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+        this.segments = new MappedByteBuffer[segmentCount];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < segmentCount; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+        }
+    }
+
+    /**
+     * Streams an {@code sst.xml} part into a mapped temp file. {@code sst} may be {@code null}
+     * (workbook without shared strings), which yields an empty table.
+     */
+    static MappedSharedStrings load(InputStream sst) throws IOException {
+        Path file = Files.createTempFile("ingesta-sst-", ".bin");
+        try {
+            long[] offsets = new long[1024];
+            int unique = 0;
+            int declaredCount = 0;
+            long position = 0;
+            if (sst != null) {
+                XMLStreamReader xml = XML_FACTORY.createXMLStreamReader(sst);
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+                    StringBuilder text = new StringBuilder();
+                    boolean inItem = false;
+                    while (xml.hasNext()) {
+                        int evt = xml.next();
+                        if (evt == XMLStreamConstants.START_ELEMENT) {
+                            String name = xml.getLocalName();
+                            if ("si".equals(name)) {
+                                inItem = true;
+                                text.setLength(0);
+                            } else if ("t".equals(name) && inItem) {
+                                text.append(xml.getElementText());
+                            } else if ("sst".equals(name)) {
+                                declaredCount = parseCount(xml.getAttributeValue(null, "count"));
+                            }
+                        } else if (evt == XMLStreamConstants.END_ELEMENT && "si".equals(xml.getLocalName())) {
+                            inItem = false;
+                            byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                            out.write(bytes);
+                            if (unique + 1 >= offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                            offsets[unique] = position;
+                            position += bytes.length;
+                            unique++;
+                        }
+                    }
+                } finally {
+                    xml.close();
+                }
+            }
+            offsets[unique] = position;
+            MappedSharedStrings table = new MappedSharedStrings(file, Arrays.copyOf(offsets, unique + 1), unique,
+                    declaredCount > 0 ? declaredCount : unique);
+            log.debug("Mapped {} shared strings ({} bytes) to {}", unique, position, file);
+            return table;
+        } catch (XMLStreamException e) {
+            Files.deleteIfExists(file);
+            throw new IOException("Failed to parse shared strings", e);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static int parseCount(String value) {
+        try {
+            return value != null ? Integer.parseInt(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Decodes string {@code idx} straight from the mapping. */
+    String getString(int idx) {
+        if (idx < 0 || idx >= uniqueCount) {
+            throw new IndexOutOfBoundsException("Shared string " + idx + " out of range (" + uniqueCount + " strings)");
+        }
+        long start = offsets[idx];
+        int length = (int) (offsets[idx + 1] - start);
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long pos = start + copied;
+            MappedByteBuffer segment = segments[(int) (pos >>> SEGMENT_BITS)];
+            int inSegment = (int) (pos & (SEGMENT_SIZE - 1));
+            int chunk = Math.min(length - copied, segment.limit() - inSegment);
+            // Absolute bulk get: no shared position, so concurrent readers need no locking.
+            segment.get(inSegment, bytes, copied, chunk);
+            copied += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public RichTextString getItemAt(int idx) {
+        return new XSSFRichTextString(getString(idx));
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int getUniqueCount() {
+        return uniqueCount;
+    }
+
+    /**
+     * Deletes the temp file. The mapping itself is released when the buffers are collected; on
+     * platforms that refuse to delete a mapped file the deletion is deferred to JVM exit.
+     */
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+            log.debug("Deferred deletion of {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+/**
+ * Where the Excel shared-strings table lives while a workbook is open. Selected per job with
+ * {@code reader: { sharedStrings: MAPPED }}.
+ */
+enum SharedStringsMode {
+    /** POI's {@code ReadOnlySharedStringsTable}: every unique string on the Java heap. */
+    HEAP,
+    /** {@link MappedSharedStrings}: string bodies in a memory-mapped temp file, offsets on heap. */
+    MAPPED;
+
+    static SharedStringsMode from(Object value) {
+        if (value == null) return HEAP;
+        return valueOf(value.toString().trim().toUpperCase());
+    }
+}
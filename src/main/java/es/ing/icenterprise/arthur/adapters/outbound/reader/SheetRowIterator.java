@@ -0,0 +1,18 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import java.util.BitSet;
+import java.util.Iterator;
+
+/**
+ * Sparse cell rows of one sheet, indexed by sheet column. Implementations are the StAX iterator
+ * in {@link ExcelFileReaderAdapter} and {@link ByteSheetParser}.
+ */
+interface SheetRowIterator extends Iterator<Object[]> {
+
+    /**
+     * Restricts decoding of the rows still to come to the sheet columns set in {@code columns};
+     * other cells are skipped without resolving shared strings or parsing numbers, and come back
+     * as {@code null}. Called after the header row has been read.
+     */
+    void project(BitSet columns);
+}
@@ -0,0 +1,135 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sizes a sheet from its raw XML bytes without decoding cells: only element names are looked at,
+ * so neither shared strings nor styles are needed.
+ * <ul>
+ *   <li>{@link #dimensionRows}: the {@code <dimension ref="A1:L50001"/>} written at the top of the
+ *       sheet. Reads a few hundred bytes; an estimate, since writers may include blank trailing rows
+ *       or leading rows the reader skips.</li>
+ *   <li>{@link #countRows}: counts {@code <row>} elements after the header. Reads the whole sheet,
+ *       but at a fraction of the cost of parsing it.</li>
+ * </ul>
+ */
+final class SheetSizeScanner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern DIMENSION_REF =
+            Pattern.compile("\\bref\\s*=\\s*[\"']\\$?[A-Za-z]*\\$?(\\d+)(?::\\$?[A-Za-z]*\\$?(\\d+))?[\"']");
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final byte[] name = new byte[16];
+    private int nameLen;
+    private int pos;
+    private int limit;
+
+    private SheetSizeScanner(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Data rows implied by the sheet's {@code <dimension>}: last row minus first row (the header),
+     * or {@code -1} if the sheet has none before {@code <sheetData>}. A single-cell ref is treated as
+     * missing: writers that do not track the used range leave a placeholder {@code A1}.
+     */
+    static long dimensionRows(InputStream sheet) throws IOException {
+        SheetSizeScanner scanner = new SheetSizeScanner(sheet);
+        while (scanner.nextTag()) {
+            if (scanner.nameIs("dimension")) {
+                Matcher m = DIMENSION_REF.matcher(scanner.restOfTag());
+                if (!m.find() || m.group(2) == null) return -1;
+                return Math.max(0, Long.parseLong(m.group(2)) - Long.parseLong(m.group(1)));
+            }
+            if (scanner.nameIs("sheetData")) return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Rows the reader will emit: every {@code <row>} after the first one holding a value (the
+     * header row). Leading rows without any {@code <v>} or inline {@code <t>} are skipped, as
+     * header detection skips them.
+     */
+    static long countRows(InputStream sheet) throws IOException {
+        SheetSizeScanner scanner = new SheetSizeScanner(sheet);
+        long rows = 0;
+        boolean inRow = false;
+        boolean rowHasValue = false;
+        boolean headerSeen = false;
+        while (scanner.nextTag()) {
+            if (scanner.nameIs("row")) {
+                if (inRow) {
+                    if (headerSeen) rows++;
+                    else headerSeen = rowHasValue;
+                }
+                inRow = true;
+                rowHasValue = false;
+            } else if (inRow && (scanner.nameIs("v") || scanner.nameIs("t"))) {
+                rowHasValue = true;
+            }
+        }
+        if (inRow && headerSeen) rows++;
+        return rows;
+    }
+
+    /**
+     * Advances to the next start tag and reads its local name. End tags, comments, processing
+     * instructions and declarations are skipped. Returns {@code false} at end of input.
+     */
+    private boolean nextTag() throws IOException {
+        int b;
+        while ((b = read()) >= 0) {
+            if (b != '<') continue;
+            b = read();
+            if (b == '/' || b == '?' || b == '!' || b < 0) continue;
+            nameLen = 0;
+            while (b >= 0 && b != ' ' && b != '>' && b != '/' && b != '\t' && b != '\n' && b != '\r') {
+                if (b == ':') {
+                    nameLen = 0;
+                } else if (nameLen < name.length) {
+                    name[nameLen++] = (byte) b;
+                }
+                b = read();
+            }
+            if (b == '>' || b == '/') pos--;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean nameIs(String expected) {
+        if (nameLen != expected.length()) return false;
+        for (int i = 0; i < nameLen; i++) {
+            if (name[i] != expected.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** The attributes of the current tag, up to its closing {@code >}; only ASCII values are read from it. */
+    private String restOfTag() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = read()) >= 0 && b != '>') {
+            sb.append((char) b);
+        }
+        return sb.toString();
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buf[pos++] & 0xFF;
+    }
+}
@@ -0,0 +1,168 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An opened xlsx package. The sheet list is resolved on open; the shared-strings and styles tables
+ * are parsed on first use and then shared by every sheet read, including concurrent ones.
+ */
+final class XlsxWorkbook implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(XlsxWorkbook.class);
+
+    private final Path path;
+    private final OPCPackage pkg;
+    private final XSSFReader reader;
+    private final List<String> sheetNames;
+    private final List<PackagePart> sheetParts;
+    private SharedStrings sharedStrings;
+    private StylesTable styles;
+    private BitSet dateStyles;
+    private CellValueDecoder decoder;
+    private volatile boolean closed;
+
+    private XlsxWorkbook(Path path, OPCPackage pkg) throws IOException, OpenXML4JException {
+        this.path = path;
+        this.pkg = pkg;
+        this.reader = new XSSFReader(pkg);
+        this.sheetNames = new ArrayList<>();
+        this.sheetParts = new ArrayList<>();
+        XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while (it.hasNext()) {
+            try (InputStream ignored = it.next()) {
+                sheetNames.add(it.getSheetName());
+                sheetParts.add(it.getSheetPart());
+            }
+        }
+    }
+
+    static XlsxWorkbook open(Path path) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(path.toFile(), PackageAccess.READ);
+            return new XlsxWorkbook(path, pkg);
+        } catch (OpenXML4JException e) {
+            closeQuietly(pkg);
+            throw new IOException("Invalid xlsx format: " + path, e);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(pkg);
+            throw e;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    List<String> sheetNames() {
+        return List.copyOf(sheetNames);
+    }
+
+    /**
+     * The shared-strings table, parsed on first call in the requested {@code mode}. The table is
+     * parsed once per workbook, so a later call with a different mode gets the existing table.
+     */
+    synchronized SharedStrings sharedStrings(SharedStringsMode mode) throws IOException {
+        if (sharedStrings == null) {
+            sharedStrings = mode == SharedStringsMode.MAPPED ? loadMapped() : loadOnHeap();
+        }
+        return sharedStrings;
+    }
+
+    private SharedStrings loadOnHeap() throws IOException {
+        try {
+            return new ReadOnlySharedStringsTable(pkg);
+        } catch (SAXException e) {
+            throw new IOException("Failed to parse shared strings: " + path, e);
+        }
+    }
+
+    private SharedStrings loadMapped() throws IOException {
+        List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (parts.isEmpty()) {
+            return MappedSharedStrings.load(null);
+        }
+        try (InputStream in = parts.get(0).getInputStream()) {
+            return MappedSharedStrings.load(in);
+        }
+    }
+
+    synchronized StylesTable styles() throws IOException {
+        if (styles == null) {
+            try {
+                styles = reader.getStylesTable();
+            } catch (OpenXML4JException e) {
+                throw new IOException("Failed to parse styles: " + path, e);
+            }
+        }
+        return styles;
+    }
+
+    /** Style indices with a date number format, computed once from {@link #styles()}. */
+    synchronized BitSet dateStyles() throws IOException {
+        if (dateStyles == null) {
+            dateStyles = CellValueDecoder.dateStyles(styles());
+        }
+        return dateStyles;
+    }
+
+    /** The cell decoder over this workbook's shared strings (parsed in {@code mode} on first use) and date styles. */
+    synchronized CellValueDecoder decoder(SharedStringsMode mode) throws IOException {
+        if (decoder == null) {
+            decoder = new CellValueDecoder(sharedStrings(mode), dateStyles());
+        }
+        return decoder;
+    }
+
+    /** Opens the XML stream of the sheet at {@code sheetIndex}. The caller closes it. */
+    synchronized InputStream openSheet(int sheetIndex) throws IOException {
+        if (sheetIndex < 0 || sheetIndex >= sheetParts.size()) {
+            throw new IllegalArgumentException("Sheet index " + sheetIndex + " out of range (found "
+                    + sheetParts.size() + " sheets)");
+        }
+        return sheetParts.get(sheetIndex).getInputStream();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(pkg);
+        synchronized (this) {
+            if (sharedStrings instanceof MappedSharedStrings mapped) {
+                mapped.close();
+            }
+        }
+    }
+
+    private static void closeQuietly(OPCPackage pkg) {
+        if (pkg == null) return;
+        try {
+            pkg.close();
+        } catch (IOException e) {
+            log.warn("Failed to close OPC package: {}", e.getMessage());
+        }
+    }
+}
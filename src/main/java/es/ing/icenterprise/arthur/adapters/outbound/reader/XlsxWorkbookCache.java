@@ -0,0 +1,145 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps parsed {@link XlsxWorkbook}s alive across the several passes a job makes over one file
+ * (sheet names, metadata count, the data read itself) so the shared-strings and styles tables are
+ * parsed once per file per run.
+ * <p>
+ * Entries are keyed by path + size + last-modified time, so a file replaced in place is re-parsed.
+ * Callers pin an entry with {@link #acquire} and unpin it with {@link Handle#release()}; pinned
+ * entries are never closed. Idle entries are kept in LRU order up to {@code maxEntries} and are
+ * dropped explicitly with {@link #evict} when the job that read the file ends.
+ */
+final class XlsxWorkbookCache {
+
+    private static final Logger log = LoggerFactory.getLogger(XlsxWorkbookCache.class);
+
+    record Key(Path path, long size, long lastModified) {
+        static Key of(Path path) throws IOException {
+            Path normalized = path.toAbsolutePath().normalize();
+            return new Key(normalized, Files.size(normalized), Files.getLastModifiedTime(normalized).toMillis());
+        }
+    }
+
+    /** A pinned workbook. {@link #release()} must be called exactly once. */
+    final class Handle {
+        private final Entry entry;
+        private boolean released;
+
+        private Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        XlsxWorkbook workbook() {
+            return entry.workbook;
+        }
+
+        void release() {
+            synchronized (XlsxWorkbookCache.this) {
+                if (released) return;
+                released = true;
+                entry.pins--;
+                if (entry.pins == 0 && entry.evicted) {
+                    entry.workbook.close();
+                } else {
+                    trim();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        final XlsxWorkbook workbook;
+        int pins;
+        boolean evicted;
+
+        Entry(XlsxWorkbook workbook) {
+            this.workbook = workbook;
+        }
+    }
+
+    private final IntSupplier maxEntries;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    XlsxWorkbookCache(IntSupplier maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns a pinned workbook for {@code path}, opening it only if no entry with the same
+     * fingerprint is cached. Opening happens under the cache lock so concurrent passes over the same
+     * file share one instance; it only reads the sheet list, the expensive tables are parsed on
+     * first use outside the lock.
+     */
+    synchronized Handle acquire(Path path) throws IOException {
+        Key key = Key.of(path);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            dropStale(key);
+            entry = new Entry(XlsxWorkbook.open(path));
+            entries.put(key, entry);
+            log.debug("Workbook cache miss: {} ({} cached)", key.path(), entries.size());
+        }
+        entry.pins++;
+        trim();
+        return new Handle(entry);
+    }
+
+    /** Drops every cached entry for {@code path}; pinned ones are closed on their last release. */
+    synchronized void evict(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        List<Entry> removed = new ArrayList<>();
+        entries.entrySet().removeIf(e -> {
+            if (!e.getKey().path().equals(normalized)) return false;
+            removed.add(e.getValue());
+            return true;
+        });
+        removed.forEach(this::retire);
+        if (!removed.isEmpty()) log.debug("Workbook cache evicted: {}", normalized);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /** Removes older fingerprints of the same path — the file was replaced since they were parsed. */
+    private void dropStale(Key key) {
+        List<Entry> stale = new ArrayList<>();
+        entries.entrySet().removeIf(e -> {
+            if (!e.getKey().path().equals(key.path())) return false;
+            stale.add(e.getValue());
+            return true;
+        });
+        stale.forEach(this::retire);
+    }
+
+    /** Closes idle entries, least recently used first, until the cache is within its bound. */
+    private void trim() {
+        int limit = Math.max(0, maxEntries.getAsInt());
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > limit && it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (entry.pins > 0) continue;
+            it.remove();
+            retire(entry);
+        }
+    }
+
+    private void retire(Entry entry) {
+        entry.evicted = true;
+        if (entry.pins == 0) entry.workbook.close();
+    }
+}
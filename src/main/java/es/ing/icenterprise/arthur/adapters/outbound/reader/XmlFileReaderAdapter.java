@@ -3,73 +3,126 @@ package es.ing.icenterprise.arthur.adapters.outbound.reader;
 import es.ing.icenterprise.arthur.core.domain.model.FileMetadata;
 import es.ing.icenterprise.arthur.core.domain.enums.FileType;
 import es.ing.icenterprise.arthur.core.ports.outbound.FileReaderPort;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * XML reader that pulls records through a StAX {@link XMLStreamReader} and exposes them as a lazy
+ * {@link Stream}: one row per record element, parsed only when the consumer asks for it, so memory
+ * stays bounded by a single record regardless of file size.
+ * <p>
+ * The record element comes from the {@code recordPath} read param (job YAML {@code reader:} block),
+ * e.g. {@code /catalog/book} or {@code book}; without it a short pre-scan detects the repeating
+ * element ({@link XmlRecordPath#detect}). Within a record, attributes and leaf elements become
+ * columns named by their path below the record, joined with dots ({@code author.name},
+ * {@code price.currency}); a name that repeats becomes a {@link List} of its values.
+ */
 @Component
 public class XmlFileReaderAdapter implements FileReaderPort {
 
     private static final Logger log = LoggerFactory.getLogger(XmlFileReaderAdapter.class);
-    private final XmlMapper xmlMapper = new XmlMapper();
+
+    /** Bytes of the file {@link #readFileMetadata} reads before extrapolating the record count. */
+    static final long METADATA_SAMPLE_BYTES = 1024 * 1024;
+
+    private static final XMLInputFactory XML_FACTORY;
+    static {
+        XMLInputFactory f = XMLInputFactory.newInstance();
+        // Defence-in-depth against XXE — data files have no business declaring DTDs or external entities.
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        f.setProperty("javax.xml.stream.isSupportingExternalEntities", false);
+        f.setProperty(XMLInputFactory.IS_COALESCING, true);
+        XML_FACTORY = f;
+    }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Stream<Map<String, Object>> read(Path filePath) {
-        log.info("Reading XML file: {}", filePath);
+        return read(filePath, Map.of());
+    }
 
+    @Override
+    public Stream<Map<String, Object>> read(Path filePath, Map<String, Object> params) {
+        InputStream in = null;
+        XMLStreamReader xml = null;
         try {
-            String content = Files.readString(filePath);
-            Object result = xmlMapper.readValue(content, Object.class);
-
-            List<Map<String, Object>> rows = new ArrayList<>();
-
-            if (result instanceof Map<?, ?> map) {
-                // If root contains a list, extract it
-                for (Object value : map.values()) {
-                    if (value instanceof List<?> list) {
-                        for (Object item : list) {
-                            if (item instanceof Map<?, ?> itemMap) {
-                                Map<String, Object> row = new LinkedHashMap<>();
-                                itemMap.forEach((k, v) -> row.put(k.toString(), v));
-                                rows.add(row);
-                            }
-                        }
-                    }
-                }
-                // If no list found, treat the map itself as a single row
-                if (rows.isEmpty()) {
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    map.forEach((k, v) -> row.put(k.toString(), v));
-                    rows.add(row);
-                }
-            }
+            XmlRecordPath recordPath = recordPath(filePath, params.get("recordPath"));
+            log.info("Reading XML file: {} (records at {})", filePath, recordPath);
+
+            in = Files.newInputStream(filePath);
+            xml = XML_FACTORY.createXMLStreamReader(in);
+            RecordIterator records = new RecordIterator(xml, recordPath);
 
-            log.info("Read {} rows from XML file", rows.size());
-            return rows.stream();
-        } catch (IOException e) {
+            final InputStream inRef = in;
+            final XMLStreamReader xmlRef = xml;
+            Spliterator<Map<String, Object>> sp = Spliterators.spliteratorUnknownSize(
+                    records, Spliterator.ORDERED | Spliterator.NONNULL);
+            return StreamSupport.stream(sp, false)
+                    .onClose(() -> {
+                        log.info("Read {} rows from XML file", records.count);
+                        closeQuietly(xmlRef, inRef);
+                    });
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            closeQuietly(xml, in);
             throw new RuntimeException("Failed to read XML file: " + filePath, e);
         }
     }
 
     @Override
     public FileMetadata readFileMetadata(Path filePath) {
+        return readFileMetadata(filePath, Map.of());
+    }
+
+    /**
+     * Counts record elements in the first {@value #METADATA_SAMPLE_BYTES} bytes with the StAX cursor,
+     * without building rows. Exact when the document ends within the sample; otherwise the count
+     * is extrapolated from the sample's bytes per record.
+     */
+    @Override
+    public FileMetadata readFileMetadata(Path filePath, Map<String, Object> options) {
+        CountingInputStream in = null;
+        XMLStreamReader xml = null;
         try {
             long fileSize = Files.size(filePath);
-            long records;
-            try (Stream<Map<String, Object>> stream = read(filePath)) {
-                records = stream.count();
+            XmlRecordPath recordPath = recordPath(filePath, options.get("recordPath"));
+            in = new CountingInputStream(Files.newInputStream(filePath));
+            xml = XML_FACTORY.createXMLStreamReader(in);
+            List<String> stack = new ArrayList<>();
+            long records = 0;
+            while (xml.hasNext()) {
+                int evt = xml.next();
+                if (evt == XMLStreamConstants.START_ELEMENT) {
+                    stack.add(xml.getLocalName());
+                    if (!recordPath.matches(stack)) continue;
+                    records++;
+                    skipElement(xml);
+                    stack.remove(stack.size() - 1);
+                    if (in.count > METADATA_SAMPLE_BYTES) {
+                        long estimate = Math.round((double) records * fileSize / in.count);
+                        return new FileMetadata(filePath.toString(), fileSize, estimate, false);
+                    }
+                } else if (evt == XMLStreamConstants.END_ELEMENT) {
+                    stack.remove(stack.size() - 1);
+                }
             }
-            return new FileMetadata(filePath.toString(), fileSize, records);
-        } catch (IOException e) {
+            return new FileMetadata(filePath.toString(), fileSize, records, true);
+        } catch (IOException | XMLStreamException e) {
             throw new RuntimeException("Failed to read metadata: " + filePath, e);
+        } finally {
+            closeQuietly(xml, in);
         }
     }
 
@@ -77,4 +130,177 @@ public class XmlFileReaderAdapter implements FileReaderPort {
     public boolean supports(FileType type) {
         return type == FileType.XML;
     }
+
+    /** The configured {@code recordPath}, or the one detected from the head of the file. */
+    private XmlRecordPath recordPath(Path filePath, Object configured) throws IOException, XMLStreamException {
+        if (configured != null && !configured.toString().isBlank()) {
+            return XmlRecordPath.parse(configured.toString());
+        }
+        InputStream in = Files.newInputStream(filePath);
+        XMLStreamReader xml = null;
+        try {
+            xml = XML_FACTORY.createXMLStreamReader(in);
+            XmlRecordPath detected = XmlRecordPath.detect(xml);
+            log.debug("Detected XML record path {} in {}", detected, filePath);
+            return detected;
+        } finally {
+            closeQuietly(xml, in);
+        }
+    }
+
+    /** Advances past the end tag of the element the reader is positioned on. */
+    private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int evt = xml.next();
+            if (evt == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (evt == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+
+    private static void closeQuietly(XMLStreamReader xml, InputStream in) {
+        if (xml != null) {
+            try { xml.close(); } catch (XMLStreamException e) { log.warn("Failed to close XML reader: {}", e.getMessage()); }
+        }
+        if (in != null) {
+            try { in.close(); } catch (IOException e) { log.warn("Failed to close XML file: {}", e.getMessage()); }
+        }
+    }
+
+    // ────────────────────────────────────────────────────────────────────────────
+    //  Lazy StAX → record iterator. Pull-based so Stream consumers drive parsing.
+    // ────────────────────────────────────────────────────────────────────────────
+
+    private static final class RecordIterator implements Iterator<Map<String, Object>> {
+
+        private final XMLStreamReader xml;
+        private final XmlRecordPath recordPath;
+        /** Local names of the open elements outside a record, root first. */
+        private final List<String> stack = new ArrayList<>();
+        private Map<String, Object> nextRow;
+        private boolean exhausted;
+        long count;
+
+        RecordIterator(XMLStreamReader xml, XmlRecordPath recordPath) {
+            this.xml = xml;
+            this.recordPath = recordPath;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow != null) return true;
+            if (exhausted) return false;
+            nextRow = readNextRecord();
+            if (nextRow == null) exhausted = true;
+            return nextRow != null;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Map<String, Object> r = nextRow;
+            nextRow = null;
+            count++;
+            return r;
+        }
+
+        private Map<String, Object> readNextRecord() {
+            try {
+                while (xml.hasNext()) {
+                    int evt = xml.next();
+                    if (evt == XMLStreamConstants.START_ELEMENT) {
+                        stack.add(xml.getLocalName());
+                        if (recordPath.matches(stack)) {
+                            stack.remove(stack.size() - 1);
+                            Map<String, Object> row = new LinkedHashMap<>();
+                            readElement(row, "", xml.getLocalName());
+                            return row;
+                        }
+                    } else if (evt == XMLStreamConstants.END_ELEMENT) {
+                        stack.remove(stack.size() - 1);
+                    }
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                throw new RuntimeException("Failed to parse XML", e);
+            }
+        }
+
+        /**
+         * Consumes the element the reader is positioned on, up to its end tag. Attributes and leaf
+         * children are put under {@code prefix} + name; the text of a leaf element goes under
+         * {@code ownKey} (its own path), whitespace between child elements is ignored.
+         */
+        private void readElement(Map<String, Object> row, String prefix, String ownKey) throws XMLStreamException {
+            for (int i = 0; i < xml.getAttributeCount(); i++) {
+                put(row, prefix + xml.getAttributeLocalName(i), xml.getAttributeValue(i));
+            }
+            StringBuilder text = null;
+            boolean hasChildren = false;
+            while (xml.hasNext()) {
+                int evt = xml.next();
+                switch (evt) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        hasChildren = true;
+                        String name = xml.getLocalName();
+                        readElement(row, prefix + name + ".", prefix + name);
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (!hasChildren) {
+                            if (text == null) text = new StringBuilder();
+                            text.append(xml.getText());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (!hasChildren && !prefix.isEmpty()) {
+                            put(row, ownKey, text != null ? text.toString() : "");
+                        } else if (!hasChildren && text != null && !text.isEmpty()) {
+                            // A leaf record element: its text is the record's only column.
+                            put(row, ownKey, text.toString());
+                        }
+                        return;
+                    }
+                    default -> { }
+                }
+            }
+        }
+
+        /** Puts a column value; values are always strings, so a {@link List} marks a repeated name. */
+        @SuppressWarnings("unchecked")
+        private static void put(Map<String, Object> row, String key, Object value) {
+            Object existing = row.putIfAbsent(key, value);
+            if (existing == null) return;
+            if (existing instanceof List<?> list) {
+                ((List<Object>) list).add(value);
+            } else {
+                List<Object> list = new ArrayList<>();
+                list.add(existing);
+                list.add(value);
+                row.put(key, list);
+            }
+        }
+    }
+
+    /** Bytes handed to the parser so far; the parser reads ahead by at most one buffer. */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
 }
@@ -0,0 +1,104 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Location of the repeating record element in an XML document, as element local names from the
+ * root down. Written {@code /catalog/book} it must match from the root; written {@code book} or
+ * {@code items/item} it matches any element whose path ends with those names.
+ */
+record XmlRecordPath(List<String> names, boolean absolute) {
+
+    /** Start elements scanned past the first candidate while looking for a shallower one. */
+    static final int DETECTION_LOOKAHEAD = 1_000;
+
+    XmlRecordPath {
+        names = List.copyOf(names);
+    }
+
+    static XmlRecordPath parse(String path) {
+        String trimmed = path.strip();
+        boolean absolute = trimmed.startsWith("/");
+        List<String> names = new ArrayList<>();
+        for (String name : trimmed.split("/")) {
+            if (!name.isBlank()) names.add(name.strip());
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("recordPath has no element names: '" + path + "'");
+        }
+        return new XmlRecordPath(names, absolute);
+    }
+
+    /** Whether an element whose path from the root is {@code stack} is a record. */
+    boolean matches(List<String> stack) {
+        int offset = stack.size() - names.size();
+        if (offset < 0 || (absolute && offset != 0)) return false;
+        for (int i = 0; i < names.size(); i++) {
+            if (!names.get(i).equals(stack.get(offset + i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the record element by scanning the head of the document: the shallowest element that
+     * repeats under the same parent and has child elements of its own (repeated leaf elements are
+     * list-valued fields, not records). Scanning stops at a repeat directly under the root, or
+     * {@link #DETECTION_LOOKAHEAD} start elements after the first candidate. Without any repeat the
+     * root element is the single record.
+     */
+    static XmlRecordPath detect(XMLStreamReader xml) throws XMLStreamException {
+        List<String> stack = new ArrayList<>();
+        // Per depth: name of the previous closed sibling, and whether it had child elements.
+        List<String> previousSibling = new ArrayList<>();
+        List<Boolean> previousHadChildren = new ArrayList<>();
+        List<Boolean> hasChildren = new ArrayList<>();
+        XmlRecordPath best = null;
+        int sinceCandidate = 0;
+
+        while (xml.hasNext()) {
+            int evt = xml.next();
+            if (evt == XMLStreamConstants.START_ELEMENT) {
+                int depth = stack.size();
+                if (depth > 0) hasChildren.set(depth - 1, true);
+                String name = xml.getLocalName();
+                while (previousSibling.size() <= depth) {
+                    previousSibling.add(null);
+                    previousHadChildren.add(false);
+                }
+                if (name.equals(previousSibling.get(depth)) && previousHadChildren.get(depth)
+                        && (best == null || depth < best.names().size() - 1)) {
+                    List<String> names = new ArrayList<>(stack);
+                    names.add(name);
+                    best = new XmlRecordPath(names, true);
+                    if (depth == 1) return best;
+                }
+                stack.add(name);
+                hasChildren.add(false);
+                // A new parent starts with no previous sibling among its children.
+                if (previousSibling.size() > depth + 1) {
+                    previousSibling.set(depth + 1, null);
+                    previousHadChildren.set(depth + 1, false);
+                }
+                if (best != null && ++sinceCandidate > DETECTION_LOOKAHEAD) return best;
+            } else if (evt == XMLStreamConstants.END_ELEMENT) {
+                int depth = stack.size() - 1;
+                previousSibling.set(depth, stack.remove(depth));
+                previousHadChildren.set(depth, hasChildren.remove(depth));
+            }
+        }
+        if (best != null) return best;
+        if (!previousSibling.isEmpty() && previousSibling.get(0) != null) {
+            return new XmlRecordPath(List.of(previousSibling.get(0)), true);
+        }
+        throw new XMLStreamException("Document has no root element");
+    }
+
+    @Override
+    public String toString() {
+        return (absolute ? "/" : "") + String.join("/", names);
+    }
+}
@@ -1,6 +1,7 @@
 package es.ing.icenterprise.arthur.adapters.outbound.yaml;
 
 import es.ing.icenterprise.arthur.core.domain.definition.ingest.*;
+import es.ing.icenterprise.arthur.core.domain.enums.ExecutionMode;
 import es.ing.icenterprise.arthur.core.domain.enums.FileType;
 import es.ing.icenterprise.arthur.core.ports.outbound.JobDefinitionLoaderPort;
 import org.slf4j.Logger;
@@ -43,7 +44,11 @@ public class SnakeYamlJobDefinitionAdapter implements JobDefinitionLoaderPort {
         int batchSize = (int) data.getOrDefault("batchSize", 500);
         int sheetIndex = (int) data.getOrDefault("sheetIndex", 0);
         boolean processAllSheets = (boolean) data.getOrDefault("processAllSheets", false);
+        ExecutionMode executionMode = ExecutionMode.valueOf(
+                ((String) data.getOrDefault("executionMode", "IN_MEMORY")).toUpperCase());
+        int sheetParallelism = (int) data.getOrDefault("sheetParallelism", 1);
         Map<String, Object> parameters = (Map<String, Object>) data.getOrDefault("parameters", Map.of());
+        Map<String, Object> reader = (Map<String, Object>) data.getOrDefault("reader", Map.of());
 
         // Source
         Map<String, Object> sourceMap = (Map<String, Object>) data.get("source");
@@ -55,7 +60,7 @@ public class SnakeYamlJobDefinitionAdapter implements JobDefinitionLoaderPort {
                 .map(this::mapToTaskDefinition)
                 .toList();
 
-        return new JobDefinition(name, description, enabled, source, fileType, tasks, parameters, batchSize, sheetIndex, processAllSheets);
+        return new JobDefinition(name, description, enabled, source, fileType, tasks, parameters, batchSize, sheetIndex, processAllSheets, executionMode, sheetParallelism, reader);
     }
 
     @SuppressWarnings("unchecked")
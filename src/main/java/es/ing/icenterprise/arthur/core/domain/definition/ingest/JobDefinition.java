@@ -1,5 +1,6 @@
 package es.ing.icenterprise.arthur.core.domain.definition.ingest;
 
+import es.ing.icenterprise.arthur.core.domain.enums.ExecutionMode;
 import es.ing.icenterprise.arthur.core.domain.enums.FileType;
 
 import java.util.List;
@@ -15,12 +16,25 @@ public record JobDefinition(
     Map<String, Object> parameters,
     int batchSize,
     int sheetIndex,
-    boolean processAllSheets
+    boolean processAllSheets,
+    ExecutionMode executionMode,
+    int sheetParallelism,
+    Map<String, Object> reader
 ) {
     public JobDefinition {
         if (batchSize <= 0) batchSize = 500;
         if (sheetIndex < 0) sheetIndex = 0;
         if (parameters == null) parameters = Map.of();
         if (tasks == null) tasks = List.of();
+        if (executionMode == null) executionMode = ExecutionMode.IN_MEMORY;
+        if (sheetParallelism <= 0) sheetParallelism = 1;
+        if (reader == null) reader = Map.of();
+    }
+
+    public JobDefinition(String name, String description, boolean enabled, FileSourceDefinition source,
+                         FileType fileType, List<TaskDefinition> tasks, Map<String, Object> parameters,
+                         int batchSize, int sheetIndex, boolean processAllSheets) {
+        this(name, description, enabled, source, fileType, tasks, parameters,
+                batchSize, sheetIndex, processAllSheets, ExecutionMode.IN_MEMORY, 1, Map.of());
     }
 }
@@ -0,0 +1,16 @@
+package es.ing.icenterprise.arthur.core.domain.enums;
+
+/**
+ * How {@code DefaultJobProcessor} moves rows from the reader through the task chain.
+ */
+public enum ExecutionMode {
+    /** Read the whole file into a {@code List<Action>}, then run every task over it in turn. */
+    IN_MEMORY,
+    /** Push rows chunk by chunk (of {@code batchSize}) through every task while the reader is still parsing. */
+    STREAMING,
+    /**
+     * Streaming, with reading, transformation tasks and persistence tasks on separate threads joined
+     * by bounded queues, so parsing overlaps database round-trips.
+     */
+    PIPELINED
+}
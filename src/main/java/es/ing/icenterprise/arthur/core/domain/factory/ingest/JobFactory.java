@@ -27,7 +27,10 @@ public class JobFactory {
                 definition.fileType(),
                 definition.batchSize(),
                 definition.sheetIndex(),
-                definition.processAllSheets()
+                definition.processAllSheets(),
+                definition.executionMode(),
+                definition.sheetParallelism(),
+                definition.reader()
         );
 
         // Inject _batchSize into job-level params so INSERT steps can chunk by it
@@ -0,0 +1,44 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import java.sql.Types;
+
+/**
+ * Type, size and nullability of one table column, as reported by the database metadata.
+ *
+ * @param name     column name, upper-case
+ * @param sqlType  {@link Types} code
+ * @param typeName database type name, e.g. {@code VARCHAR2} or {@code NUMBER}
+ * @param size     declared length for character columns, precision for numeric ones; 0 if unknown
+ * @param scale    decimal digits for numeric columns
+ * @param nullable {@code false} only for columns declared NOT NULL
+ */
+public record ColumnMetadata(
+        String name,
+        int sqlType,
+        String typeName,
+        int size,
+        int scale,
+        boolean nullable
+) {
+
+    public boolean isCharacter() {
+        return switch (sqlType) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+                 Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> true;
+            default -> false;
+        };
+    }
+
+    public boolean isNumeric() {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT,
+                 Types.REAL, Types.FLOAT, Types.DOUBLE, Types.NUMERIC, Types.DECIMAL -> true;
+            default -> false;
+        };
+    }
+
+    /** Fixed-point columns, whose {@link #size} and {@link #scale} bound the digits a value may have. */
+    public boolean isDecimal() {
+        return sqlType == Types.NUMERIC || sqlType == Types.DECIMAL;
+    }
+}
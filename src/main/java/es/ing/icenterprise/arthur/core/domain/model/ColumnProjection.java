@@ -0,0 +1,26 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import es.ing.icenterprise.arthur.core.utils.ColumnNormalizer;
+
+import java.util.Set;
+
+/**
+ * The source columns a job actually uses, handed to the file reader as the {@code projection}
+ * read parameter so it can skip decoding the others. A header is included when it is named by a
+ * step ({@code headers}) or when its {@link ColumnNormalizer normalized} form is a column of an
+ * auto-mapped INSERT target ({@code autoMappedColumns}).
+ */
+public record ColumnProjection(Set<String> headers, Set<String> autoMappedColumns) {
+
+    public ColumnProjection {
+        headers = Set.copyOf(headers);
+        autoMappedColumns = Set.copyOf(autoMappedColumns);
+    }
+
+    public boolean includes(String header) {
+        if (headers.contains(header)) return true;
+        if (autoMappedColumns.isEmpty()) return false;
+        String normalized = ColumnNormalizer.normalize(header);
+        return normalized != null && autoMappedColumns.contains(normalized);
+    }
+}
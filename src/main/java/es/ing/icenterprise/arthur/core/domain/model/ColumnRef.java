@@ -0,0 +1,54 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+/**
+ * A column name resolved once against a {@link RowSchema} so repeated reads/writes on
+ * {@link SchemaRow}-backed actions go straight to the array slot. Falls back to plain
+ * {@code Map} access for any other row type. Not thread-safe: create one per step execution.
+ */
+public final class ColumnRef {
+
+    private final String name;
+    private RowSchema schema;
+    private int index = -1;
+
+    private ColumnRef(String name) {
+        this.name = name;
+    }
+
+    public static ColumnRef of(String name) {
+        return new ColumnRef(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Object get(Action action) {
+        if (action.data() instanceof SchemaRow row) {
+            return row.getAt(resolve(row.schema()));
+        }
+        return action.get(name);
+    }
+
+    public void set(Action action, Object value) {
+        if (action.data() instanceof SchemaRow row) {
+            int idx = resolve(row.schema());
+            if (idx < 0) {
+                idx = row.schema().add(name);
+                index = idx;
+            }
+            row.setAt(idx, value);
+        } else {
+            action.data().put(name, value);
+        }
+    }
+
+    private int resolve(RowSchema rowSchema) {
+        // An unresolved (-1) index is retried: the column may have been appended since.
+        if (rowSchema != schema || index < 0) {
+            schema = rowSchema;
+            index = rowSchema.indexOf(name);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,213 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A read-only set of ids for {@code skipExisting} / {@code upsertMode}, {@code VALIDATE_REFERENCE}
+ * and {@code LINK_PARENT} on tables with millions of ids. Ids are compared by one of two rules,
+ * chosen when the index is built:
+ * <ul>
+ *   <li>{@link #builder()}: by {@code toString()}, exactly, as the database's {@code =} compares
+ *       text ids. Used where the matched row is then written or linked by the file's value.</li>
+ *   <li>{@link #canonicalBuilder()}: by canonical key ({@link ReferenceKeys#canonical}), so a
+ *       {@code Double} 12345.0 matches {@code "12345"}. Used for membership checks only.</li>
+ * </ul>
+ * Instead of a boxed
+ * {@code HashSet<Object>} (some 80 bytes of node, {@code String} and array headers per id on top of
+ * the id's own bytes), it keeps:
+ * <ul>
+ *   <li>every id's UTF-8 bytes back to back in one {@code byte[]} arena, with an {@code int}
+ *       offset per id, sorted so {@link #contains} can binary-search;</li>
+ *   <li>a Bloom filter of about 10 bits per id in front, so most ids that are not in the table
+ *       (typically the new rows) are answered after a few bit probes, without the search.</li>
+ * </ul>
+ * A Bloom hit is always verified by the search, so {@link #contains} is exact. That is about
+ * {@code idBytes + 9.25} bytes per id; {@link #sizeInBytes()} reports it.
+ * <p>
+ * Built once with a {@link Builder}, then immutable and thread-safe.
+ */
+public final class CompactIdIndex {
+
+    private static final int BITS_PER_ID = 10;
+    private static final int HASHES = 7;
+
+    private final byte[] arena;
+    /** Start of the i-th smallest id in {@link #arena}; its end is {@code ends[i]}. */
+    private final int[] starts;
+    private final int[] ends;
+    private final long[] bloom;
+    private final int bloomBits;
+    private final boolean canonical;
+
+    private CompactIdIndex(byte[] arena, int[] starts, int[] ends, long[] bloom, boolean canonical) {
+        this.arena = arena;
+        this.starts = starts;
+        this.ends = ends;
+        this.bloom = bloom;
+        this.bloomBits = bloom.length * 64;
+        this.canonical = canonical;
+    }
+
+    /** A builder of an index that compares ids by {@code toString()}. */
+    public static Builder builder() {
+        return new Builder(false);
+    }
+
+    /** A builder of an index that compares ids by {@link ReferenceKeys#canonical canonical key}. */
+    public static Builder canonicalBuilder() {
+        return new Builder(true);
+    }
+
+    /** Whether {@code id} is one of the indexed ids, by the index's rule; false for null. */
+    public boolean contains(Object id) {
+        if (id == null || starts.length == 0) return false;
+        byte[] key = key(id, canonical);
+        long hash = hash(key, 0, key.length);
+        if (!mightContain(hash)) return false;
+        int lo = 0;
+        int hi = starts.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = Arrays.compareUnsigned(arena, starts[mid], ends[mid], key, 0, key.length);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return true;
+        }
+        return false;
+    }
+
+    /** Distinct ids indexed. */
+    public int size() {
+        return starts.length;
+    }
+
+    /** Heap held by the index's arrays. */
+    public long sizeInBytes() {
+        return (long) arena.length + 4L * starts.length + 4L * ends.length + 8L * bloom.length;
+    }
+
+    private boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bloomBits);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static byte[] key(Object id, boolean canonical) {
+        return (canonical ? ReferenceKeys.canonical(id) : id.toString()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** 64-bit FNV-1a, finished with a murmur-style mix so both halves are usable as Bloom hashes. */
+    static long hash(byte[] bytes, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= bytes[i] & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** Collects ids, e.g. while streaming a {@code ResultSet}; not thread-safe. */
+    public static final class Builder {
+
+        private byte[] arena = new byte[1024];
+        private int[] starts = new int[64];
+        private int used;
+        private int count;
+
+        private final boolean canonical;
+
+        private Builder(boolean canonical) {
+            this.canonical = canonical;
+        }
+
+        /**
+         * Adds {@code id}; nulls are ignored, and ids that compare equal by the index's rule
+         * ({@code 42}, {@code 42.0} and {@code " 42 "} in a canonical index) are kept once by
+         * {@link #build}.
+         */
+        public Builder add(Object id) {
+            if (id == null) return this;
+            byte[] bytes = key(id, canonical);
+            if (used + bytes.length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, used + bytes.length));
+            }
+            if (count + 1 >= starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            System.arraycopy(bytes, 0, arena, used, bytes.length);
+            starts[count++] = used;
+            used += bytes.length;
+            starts[count] = used;   // sentinel: end of the last id
+            return this;
+        }
+
+        public CompactIdIndex build() {
+            byte[] packed = Arrays.copyOf(arena, used);
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) order[i] = i;
+            sort(packed, order, new int[count], 0, count);
+
+            // Drop duplicates while mapping each position to its id's start and end.
+            int[] sortedStarts = new int[count];
+            int[] sortedEnds = new int[count];
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                int start = starts[order[i]];
+                int end = starts[order[i] + 1];
+                if (distinct > 0 && Arrays.equals(packed, sortedStarts[distinct - 1], sortedEnds[distinct - 1],
+                        packed, start, end)) {
+                    continue;
+                }
+                sortedStarts[distinct] = start;
+                sortedEnds[distinct] = end;
+                distinct++;
+            }
+
+            long[] bloom = new long[Math.max(1, (int) Math.min(Integer.MAX_VALUE / 64,
+                    ((long) distinct * BITS_PER_ID + 63) / 64))];
+            int bloomBits = bloom.length * 64;
+            for (int i = 0; i < distinct; i++) {
+                long hash = hash(packed, sortedStarts[i], sortedEnds[i]);
+                int h1 = (int) hash;
+                int h2 = (int) (hash >>> 32);
+                for (int k = 0; k < HASHES; k++) {
+                    int bit = Math.floorMod(h1 + k * h2, bloomBits);
+                    bloom[bit >>> 6] |= 1L << bit;
+                }
+            }
+            return new CompactIdIndex(packed, Arrays.copyOf(sortedStarts, distinct),
+                    Arrays.copyOf(sortedEnds, distinct), bloom, canonical);
+        }
+
+        /** Merge sort of {@code order[from..to)} by the bytes of the ids they point to; stable, no boxing. */
+        private void sort(byte[] packed, int[] order, int[] scratch, int from, int to) {
+            if (to - from < 2) return;
+            int mid = (from + to) >>> 1;
+            sort(packed, order, scratch, from, mid);
+            sort(packed, order, scratch, mid, to);
+            if (compare(packed, order[mid - 1], order[mid]) <= 0) return;
+            System.arraycopy(order, from, scratch, from, to - from);
+            for (int i = from, l = from, r = mid; i < to; i++) {
+                if (r >= to || (l < mid && compare(packed, scratch[l], scratch[r]) <= 0)) {
+                    order[i] = scratch[l++];
+                } else {
+                    order[i] = scratch[r++];
+                }
+            }
+        }
+
+        private int compare(byte[] packed, int a, int b) {
+            return Arrays.compareUnsigned(packed, starts[a], starts[a + 1], packed, starts[b], starts[b + 1]);
+        }
+    }
+}
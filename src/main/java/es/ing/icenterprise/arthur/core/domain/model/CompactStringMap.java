@@ -0,0 +1,141 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A read-only {@code String → String} map for {@code LOOKUP} dictionaries of hundreds of thousands
+ * of entries, shared by the jobs of a run. Instead of a {@code LinkedHashMap<String, String>}
+ * (some 100 bytes of entry, {@code String} and array headers per entry on top of the text), it keeps:
+ * <ul>
+ *   <li>every key's and value's UTF-8 bytes back to back in one {@code byte[]} arena, with two
+ *       {@code int} offsets per entry;</li>
+ *   <li>an open-addressing table of {@code int} entry numbers, linear probing, under 2/3 full,
+ *       so {@link #get} hashes the key once and compares bytes in place.</li>
+ * </ul>
+ * That is {@code keyBytes + valueBytes} plus 14 to 20 bytes per entry, depending on how full the
+ * table is; {@link #sizeInBytes()} reports it. {@link #get} decodes a new {@code String} for the
+ * value on every hit.
+ * <p>
+ * Built once with a {@link Builder}, then immutable and thread-safe.
+ */
+public final class CompactStringMap {
+
+    private final byte[] arena;
+    /**
+     * Entry i's key starts at {@code offsets[2i]} and its value at {@code offsets[2i + 1]}
+     * ({@code ~start} for a null value); the value ends at {@code offsets[2i + 2]}.
+     */
+    private final int[] offsets;
+    /** Entry number + 1 per slot; 0 is empty. Length is a power of two. */
+    private final int[] slots;
+    private final int size;
+
+    private CompactStringMap(byte[] arena, int[] offsets, int[] slots, int size) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.slots = slots;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** The value of {@code key}, or null if the key is absent or its value is null. */
+    public String get(String key) {
+        if (key == null || size == 0) return null;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int entry = find(bytes);
+        if (entry < 0) return null;
+        int valueStart = offsets[2 * entry + 1];
+        if (valueStart < 0) return null;
+        return new String(arena, valueStart, offsets[2 * entry + 2] - valueStart, StandardCharsets.UTF_8);
+    }
+
+    /** Distinct keys. */
+    public int size() {
+        return size;
+    }
+
+    /** Heap held by the map's arrays. */
+    public long sizeInBytes() {
+        return (long) arena.length + 4L * offsets.length + 4L * slots.length;
+    }
+
+    /** The entry whose key is {@code key}, or -1. */
+    private int find(byte[] key) {
+        int mask = slots.length - 1;
+        int slot = (int) CompactIdIndex.hash(key, 0, key.length) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (Arrays.equals(arena, offsets[2 * entry], valueStart(offsets, entry), key, 0, key.length)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private static int valueStart(int[] offsets, int entry) {
+        int start = offsets[2 * entry + 1];
+        return start < 0 ? ~start : start;
+    }
+
+    /** Collects entries, e.g. while streaming a {@code ResultSet}; not thread-safe. */
+    public static final class Builder {
+
+        private byte[] arena = new byte[1024];
+        private int[] offsets = new int[128];
+        private int used;
+        private int count;
+
+        private Builder() {
+        }
+
+        /** Adds {@code key → value}; null keys are ignored, and a repeated key keeps its last value. */
+        public Builder put(String key, String value) {
+            if (key == null) return this;
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            byte[] valueBytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            int needed = used + keyBytes.length + valueBytes.length;
+            if (needed > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, needed));
+            }
+            if (2 * count + 3 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[2 * count] = used;
+            System.arraycopy(keyBytes, 0, arena, used, keyBytes.length);
+            used += keyBytes.length;
+            offsets[2 * count + 1] = value != null ? used : ~used;
+            System.arraycopy(valueBytes, 0, arena, used, valueBytes.length);
+            used += valueBytes.length;
+            offsets[2 * count + 2] = used;   // sentinel: end of the last value
+            count++;
+            return this;
+        }
+
+        public CompactStringMap build() {
+            int capacity = Integer.highestOneBit(Math.max(4, count + count / 2 + 1) - 1) << 1;
+            int[] slots = new int[capacity];
+            int mask = capacity - 1;
+            int distinct = 0;
+            for (int entry = 0; entry < count; entry++) {
+                int keyStart = offsets[2 * entry];
+                int keyEnd = valueStart(offsets, entry);
+                int slot = (int) CompactIdIndex.hash(arena, keyStart, keyEnd) & mask;
+                while (slots[slot] != 0) {
+                    int other = slots[slot] - 1;
+                    if (Arrays.equals(arena, offsets[2 * other], valueStart(offsets, other), arena, keyStart, keyEnd)) {
+                        break;   // a later put of the same key replaces the earlier one
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (slots[slot] == 0) distinct++;
+                slots[slot] = entry + 1;
+            }
+            return new CompactStringMap(Arrays.copyOf(arena, used), Arrays.copyOf(offsets, 2 * count + 1),
+                    slots, distinct);
+        }
+    }
+}
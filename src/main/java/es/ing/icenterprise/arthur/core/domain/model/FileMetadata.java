@@ -1,7 +1,20 @@
 package es.ing.icenterprise.arthur.core.domain.model;
 
+/**
+ * Size of a source file as reported by its reader.
+ *
+ * @param records data records (rows, excluding any header)
+ * @param exact   {@code false} when {@code records} is an estimate taken without a full pass over
+ *                the file; good enough for sizing and progress, not for reconciliation
+ */
 public record FileMetadata(
     String filePath,
     long fileSize,
-    long records
-) {}
+    long records,
+    boolean exact
+) {
+
+    public FileMetadata(String filePath, long fileSize, long records) {
+        this(filePath, fileSize, records, true);
+    }
+}
@@ -4,6 +4,7 @@ import es.ing.icenterprise.arthur.core.domain.enums.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class Job {
@@ -15,6 +16,9 @@ public class Job {
     private final int batchSize;
     private final int sheetIndex;
     private final boolean processAllSheets;
+    private final ExecutionMode executionMode;
+    private final int sheetParallelism;
+    private final Map<String, Object> readerOptions;
     private final List<Task> tasks;
     private final Metrics metrics;
     private final List<LogEntry> logs;
@@ -29,6 +33,22 @@ public class Job {
     }
 
     public Job(String name, String filePath, FileType fileType, int batchSize, int sheetIndex, boolean processAllSheets) {
+        this(name, filePath, fileType, batchSize, sheetIndex, processAllSheets, ExecutionMode.IN_MEMORY);
+    }
+
+    public Job(String name, String filePath, FileType fileType, int batchSize, int sheetIndex,
+               boolean processAllSheets, ExecutionMode executionMode) {
+        this(name, filePath, fileType, batchSize, sheetIndex, processAllSheets, executionMode, 1);
+    }
+
+    public Job(String name, String filePath, FileType fileType, int batchSize, int sheetIndex,
+               boolean processAllSheets, ExecutionMode executionMode, int sheetParallelism) {
+        this(name, filePath, fileType, batchSize, sheetIndex, processAllSheets, executionMode, sheetParallelism, Map.of());
+    }
+
+    public Job(String name, String filePath, FileType fileType, int batchSize, int sheetIndex,
+               boolean processAllSheets, ExecutionMode executionMode, int sheetParallelism,
+               Map<String, Object> readerOptions) {
         this.id = UUID.randomUUID();
         this.name = name;
         this.filePath = filePath;
@@ -36,6 +56,9 @@ public class Job {
         this.batchSize = batchSize;
         this.sheetIndex = sheetIndex;
         this.processAllSheets = processAllSheets;
+        this.executionMode = executionMode != null ? executionMode : ExecutionMode.IN_MEMORY;
+        this.sheetParallelism = Math.max(1, sheetParallelism);
+        this.readerOptions = readerOptions != null ? Map.copyOf(readerOptions) : Map.of();
         this.tasks = new ArrayList<>();
         this.metrics = new Metrics();
         this.logs = new ArrayList<>();
@@ -77,6 +100,10 @@ public class Job {
     public int getBatchSize() { return batchSize; }
     public int getSheetIndex() { return sheetIndex; }
     public boolean isProcessAllSheets() { return processAllSheets; }
+    public ExecutionMode getExecutionMode() { return executionMode; }
+    public int getSheetParallelism() { return sheetParallelism; }
+    /** Options from the job's {@code reader:} block, passed to the file reader with every read. */
+    public Map<String, Object> getReaderOptions() { return readerOptions; }
     public List<Task> getTasks() { return List.copyOf(tasks); }
     public Metrics getMetrics() { return metrics; }
     public List<LogEntry> getLogs() { return List.copyOf(logs); }
@@ -0,0 +1,80 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * The canonical text of an id or lookup key, so a value read from a file and the same value read
+ * from the database compare equal whatever type each side produced: a POI {@code Double} 12345.0,
+ * an Oracle {@code BigDecimal} 12345 and a CSV {@code " 12345 "} all become {@code "12345"}.
+ * <ul>
+ *   <li>Text is trimmed and lower-cased ({@link Locale#ROOT}), so ids that differ only in case
+ *       are the same key.</li>
+ *   <li>Numbers are written in plain notation without trailing fractional zeros:
+ *       {@code 12345.0 → "12345"}, {@code 1.50 → "1.5"}, {@code 1E+3 → "1000"}.</li>
+ *   <li>Text that is a plain decimal ({@code "12345.00"}, {@code "-1.50"}) loses its trailing
+ *       fractional zeros too, as the number would. Leading zeros are kept: {@code "007"} is a
+ *       code, not the number 7.</li>
+ *   <li>Any other type is canonicalised by its {@code toString()} as text.</li>
+ * </ul>
+ * Used by {@link CompactIdIndex#canonicalBuilder()} for {@code VALIDATE_REFERENCE} and by the
+ * {@code LOOKUP} dictionaries.
+ */
+public final class ReferenceKeys {
+
+    private ReferenceKeys() {
+    }
+
+    /** The canonical key of {@code value}; null for null. */
+    public static String canonical(Object value) {
+        if (value == null) return null;
+        if (value instanceof String s) return text(s);
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return value.toString();
+        }
+        if (value instanceof BigDecimal d) return plain(d);
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            if (!Double.isFinite(d)) return value.toString().toLowerCase(Locale.ROOT);
+            if (d == Math.rint(d) && Math.abs(d) < 1e15) return Long.toString((long) d);
+            // Via toString, so 0.1f is "0.1" rather than the float's exact binary value.
+            return plain(new BigDecimal(value.toString()));
+        }
+        return text(value.toString());
+    }
+
+    private static String plain(BigDecimal d) {
+        return d.signum() == 0 ? "0" : d.stripTrailingZeros().toPlainString();
+    }
+
+    private static String text(String s) {
+        String trimmed = s.trim();
+        int end = plainDecimalEnd(trimmed);
+        if (end >= 0) trimmed = trimmed.substring(0, end);
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * For a plain decimal ({@code -?digits.digits}), the length without its trailing fractional
+     * zeros (and the point, if nothing is left after it); -1 for anything else.
+     */
+    private static int plainDecimalEnd(String s) {
+        int i = s.startsWith("-") ? 1 : 0;
+        int digits = 0;
+        while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i++;
+            digits++;
+        }
+        if (digits == 0 || i >= s.length() - 1 || s.charAt(i) != '.') return -1;
+        int point = i++;
+        int end = point;
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            if (c != '0') end = i + 1;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,56 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column layout shared by every {@link SchemaRow} read from the same sheet. Header strings are
+ * stored once here; rows only carry an {@code Object[]} indexed by the ordinals handed out below.
+ * <p>
+ * Columns can be appended at runtime (e.g. {@code CONCATENATE} / {@code LOOKUP} target columns),
+ * so lookups are lock-free and additions are copy-on-write.
+ */
+public final class RowSchema {
+
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile String[] columns = new String[0];
+
+    public RowSchema(List<String> columns) {
+        columns.forEach(this::add);
+    }
+
+    /** @return the ordinal of {@code column}, or {@code -1} if the schema does not know it */
+    public int indexOf(String column) {
+        Integer idx = column != null ? ordinals.get(column) : null;
+        return idx != null ? idx : -1;
+    }
+
+    /** Returns the ordinal of {@code column}, appending it to the schema if it is new. */
+    public int add(String column) {
+        Integer existing = ordinals.get(column);
+        if (existing != null) return existing;
+        synchronized (this) {
+            existing = ordinals.get(column);
+            if (existing != null) return existing;
+            String[] grown = Arrays.copyOf(columns, columns.length + 1);
+            grown[columns.length] = column;
+            columns = grown;
+            ordinals.put(column, grown.length - 1);
+            return grown.length - 1;
+        }
+    }
+
+    public String column(int index) {
+        return columns[index];
+    }
+
+    public int size() {
+        return columns.length;
+    }
+
+    public List<String> columns() {
+        return List.of(columns);
+    }
+}
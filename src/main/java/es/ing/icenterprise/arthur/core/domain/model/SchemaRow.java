@@ -0,0 +1,191 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * {@code Map<String, Object>} view over an {@code Object[]} whose slots are addressed through a
+ * shared {@link RowSchema}. Behaves like the {@code LinkedHashMap} rows it replaces — absent cells
+ * are not keys, {@code null} values are allowed, iteration follows column order — but a wide row
+ * costs one array instead of one hash entry per cell, and callers holding an ordinal (see
+ * {@link ColumnRef}) skip the string hashing entirely.
+ */
+public final class SchemaRow extends AbstractMap<String, Object> {
+
+    /** Marks a slot holding an explicit {@code null}; an empty ({@code null}) slot means "no such key". */
+    private static final Object NULL = new Object();
+
+    private final RowSchema schema;
+    private Object[] values;
+    private int size;
+
+    public SchemaRow(RowSchema schema) {
+        this.schema = schema;
+        this.values = new Object[schema.size()];
+    }
+
+    public RowSchema schema() {
+        return schema;
+    }
+
+    /** @return the value at {@code index}, or {@code null} if the slot is empty or out of range */
+    public Object getAt(int index) {
+        if (index < 0 || index >= values.length) return null;
+        Object v = values[index];
+        return v == NULL ? null : v;
+    }
+
+    public boolean hasAt(int index) {
+        return index >= 0 && index < values.length && values[index] != null;
+    }
+
+    /** Stores {@code value} at {@code index}, which must have been issued by {@link #schema()}. */
+    public Object setAt(int index, Object value) {
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, schema.size()));
+        }
+        Object old = values[index];
+        values[index] = value == null ? NULL : value;
+        if (old == null) {
+            size++;
+            return null;
+        }
+        return old == NULL ? null : old;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof String s ? getAt(schema.indexOf(s)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String s && hasAt(schema.indexOf(s));
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return setAt(schema.add(key), value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int idx = key instanceof String s ? schema.indexOf(s) : -1;
+        return hasAt(idx) ? clearAt(idx) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        for (int i = 0; i < values.length; i++) {
+            Object v = values[i];
+            if (v == null) continue;
+            Object replaced = function.apply(schema.column(i), v == NULL ? null : v);
+            values[i] = replaced == null ? NULL : replaced;
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new SlotIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private Object clearAt(int index) {
+        Object old = values[index];
+        values[index] = null;
+        size--;
+        return old == NULL ? null : old;
+    }
+
+    private final class SlotIterator implements Iterator<Entry<String, Object>> {
+        private int next = advance(0);
+        private int last = -1;
+
+        private int advance(int from) {
+            while (from < values.length && values[from] == null) from++;
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            last = next;
+            next = advance(next + 1);
+            return new Slot(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            clearAt(last);
+            last = -1;
+        }
+    }
+
+    private final class Slot implements Entry<String, Object> {
+        private final int index;
+
+        Slot(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.column(index);
+        }
+
+        @Override
+        public Object getValue() {
+            return getAt(index);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return setAt(index, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> e
+                    && getKey().equals(e.getKey())
+                    && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package es.ing.icenterprise.arthur.core.ports.outbound;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A file opened once for several reads (e.g. every sheet of a workbook). Implementations that
+ * hold parsed shared state must allow {@link #read} to be called concurrently; streams returned
+ * by {@link #read} must be closed before the session is.
+ */
+public interface FileReadSession extends AutoCloseable {
+
+    List<String> getSheetNames();
+
+    /** Same contract as {@link FileReaderPort#read(java.nio.file.Path, Map)}. */
+    Stream<Map<String, Object>> read(Map<String, Object> params);
+
+    @Override
+    void close();
+}
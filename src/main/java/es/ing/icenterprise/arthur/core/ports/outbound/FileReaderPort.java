@@ -4,6 +4,7 @@ import es.ing.icenterprise.arthur.core.domain.model.FileMetadata;
 import es.ing.icenterprise.arthur.core.domain.enums.FileType;
 
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -25,7 +26,48 @@ public interface FileReaderPort {
         return List.of("Sheet1");
     }
 
+    /**
+     * Opens the file for several reads. {@code options} apply to every read of the session and are
+     * overridden by per-read params. The default re-opens the file on every call; readers that can
+     * share parsed state across reads (the Excel shared-strings and styles tables) override it.
+     */
+    default FileReadSession open(Path filePath, Map<String, Object> options) {
+        FileReaderPort reader = this;
+        return new FileReadSession() {
+            @Override
+            public List<String> getSheetNames() {
+                return reader.getSheetNames(filePath);
+            }
+
+            @Override
+            public Stream<Map<String, Object>> read(Map<String, Object> params) {
+                Map<String, Object> merged = new HashMap<>(options);
+                merged.putAll(params);
+                return reader.read(filePath, merged);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Drops any parsed state the reader keeps for {@code filePath} across calls. Called once the
+     * job that read the file has finished.
+     */
+    default void release(Path filePath) {
+    }
+
     FileMetadata readFileMetadata(Path filePath);
 
+    /**
+     * {@link #readFileMetadata(Path)} with the job's reader options, for readers whose notion of a
+     * record depends on them. {@link FileMetadata#exact()} tells whether the count is an estimate.
+     */
+    default FileMetadata readFileMetadata(Path filePath, Map<String, Object> options) {
+        return readFileMetadata(filePath);
+    }
+
     boolean supports(FileType type);
 }
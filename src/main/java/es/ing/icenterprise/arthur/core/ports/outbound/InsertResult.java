@@ -2,18 +2,30 @@ package es.ing.icenterprise.arthur.core.ports.outbound;
 
 /**
  * Outcome of a batch insert attempt. When a chunk contains one or more bad
- * rows, the adapter bisects the chunk and retries, so good rows still get
- * persisted while bad rows are counted and logged.
+ * rows, the adapter isolates them and retries the rest, so good rows still
+ * get persisted while bad rows are counted and logged.
  *
- * @param inserted rows successfully persisted
- * @param failed   rows rejected by the database (constraint violations, bad
- *                 values, etc.) after the bisection isolated them
+ * @param inserted            rows successfully persisted
+ * @param failed              rows rejected by the database (constraint violations, bad
+ *                            values, etc.) after isolation, or by pre-validation
+ * @param isolationRoundTrips batch executions spent isolating bad rows, on top of the
+ *                            first attempt; 0 when the chunk went through in one go
  */
-public record InsertResult(int inserted, int failed) {
+public record InsertResult(int inserted, int failed, int isolationRoundTrips) {
 
     public static final InsertResult EMPTY = new InsertResult(0, 0);
 
+    public InsertResult(int inserted, int failed) {
+        this(inserted, failed, 0);
+    }
+
     public InsertResult plus(InsertResult other) {
-        return new InsertResult(this.inserted + other.inserted, this.failed + other.failed);
+        return new InsertResult(this.inserted + other.inserted, this.failed + other.failed,
+                this.isolationRoundTrips + other.isolationRoundTrips);
+    }
+
+    /** This result, with {@code roundTrips} more isolation round-trips. */
+    public InsertResult withRoundTrips(int roundTrips) {
+        return new InsertResult(inserted, failed, isolationRoundTrips + roundTrips);
     }
 }
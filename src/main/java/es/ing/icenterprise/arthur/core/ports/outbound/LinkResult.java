@@ -0,0 +1,13 @@
+package es.ing.icenterprise.arthur.core.ports.outbound;
+
+/**
+ * Outcome of a set-based {@code LINK_PARENT} ({@link PersistencePort#linkParents}).
+ *
+ * @param linked     relation rows inserted: links whose parent is in the rule's {@code checkTable}
+ * @param notFound   links whose parent is not, logged to {@code etlLogTable} when the step has one
+ * @param statements statements sent to the database, staging included
+ */
+public record LinkResult(int linked, int notFound, int statements) {
+
+    public static final LinkResult EMPTY = new LinkResult(0, 0, 0);
+}
@@ -0,0 +1,16 @@
+package es.ing.icenterprise.arthur.core.ports.outbound;
+
+/**
+ * Outcome of a set-based upsert ({@link PersistencePort#mergeData}): the database decided per
+ * row whether to insert it or match it to an existing one.
+ *
+ * @param inserted            rows whose id was new and that were inserted
+ * @param matched             rows whose id was already in the table: updated when the merge
+ *                            updates existing rows, left alone otherwise
+ * @param failed              rows rejected by the database after isolation, or by pre-validation
+ * @param isolationRoundTrips batch executions spent isolating bad rows, on top of the first attempt
+ */
+public record MergeResult(int inserted, int matched, int failed, int isolationRoundTrips) {
+
+    public static final MergeResult EMPTY = new MergeResult(0, 0, 0, 0);
+}
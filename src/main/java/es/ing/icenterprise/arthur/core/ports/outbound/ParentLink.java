@@ -0,0 +1,13 @@
+package es.ing.icenterprise.arthur.core.ports.outbound;
+
+/**
+ * One row of a set-based {@code LINK_PARENT} ({@link PersistencePort#linkParents}): the row's
+ * id, the parent id built from its path and objects, and which of the step's rules its parent
+ * type selected.
+ *
+ * @param currentId id of the row being linked
+ * @param parentId  id to look for in the rule's {@code checkTable}
+ * @param rule      index of the rule in the step's {@code rules}
+ */
+public record ParentLink(String currentId, String parentId, int rule) {
+}
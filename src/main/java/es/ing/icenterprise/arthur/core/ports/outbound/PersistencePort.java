@@ -1,7 +1,10 @@
 package es.ing.icenterprise.arthur.core.ports.outbound;
 
 import es.ing.icenterprise.arthur.core.domain.model.Action;
+import es.ing.icenterprise.arthur.core.domain.model.CompactIdIndex;
+import es.ing.icenterprise.arthur.core.domain.model.CompactStringMap;
 import es.ing.icenterprise.arthur.core.domain.model.DatabaseMapping;
+import es.ing.icenterprise.arthur.core.domain.model.ReferenceKeys;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -44,9 +47,21 @@ public interface PersistencePort {
      */
     void insertRow(String tableName, String schema, Map<String, Object> columnValues);
 
+    /**
+     * Inserts {@code rows} in order, with the same value handling as {@link #insertRow}. Used for
+     * buffered ETL_LOG and relation writes. Implementations should batch, and must write all of
+     * {@code rows} or, when they throw, none of them: the caller then retries the rows one by one
+     * with {@link #insertRow}. The default inserts them one by one.
+     */
+    default void insertRows(String tableName, String schema, List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            insertRow(tableName, schema, row);
+        }
+    }
+
     /**
      * Loads all values of idColumn from a table filtered by timestampColumn = date into a Set.
-     * Used as a cache for VALIDATE_REFERENCE steps to avoid N+1 queries.
+     * Steps use {@link #loadReferenceIndex} instead, which compares ids by canonical key.
      */
     Set<Object> loadReferenceIds(String tableName, String schema, String idColumn,
                                  String timestampColumn, LocalDate date);
@@ -57,25 +72,109 @@ public interface PersistencePort {
      */
     Set<Object> loadExistingIds(String tableName, String schema, String idColumn);
 
+    /**
+     * Loads the values of idColumn into a {@link CompactIdIndex} that compares them exactly, by
+     * text, for INSERT steps with skipExisting / upsertMode on large tables and for the check
+     * tables of LINK_PARENT. The rows they match are then updated or linked by the file's value,
+     * so the match must agree with the database's {@code =}. With a timestampColumn, only the rows
+     * of that date are indexed (the current partition); with null, all of them.
+     * The default builds the index from {@link #loadExistingIds} / {@link #loadReferenceIds};
+     * implementations should stream the ids into it instead of materialising a set first.
+     */
+    default CompactIdIndex loadExistingIdIndex(String tableName, String schema, String idColumn,
+                                               String timestampColumn, LocalDate date) {
+        Set<Object> ids = timestampColumn != null
+                ? loadReferenceIds(tableName, schema, idColumn, timestampColumn, date)
+                : loadExistingIds(tableName, schema, idColumn);
+        CompactIdIndex.Builder index = CompactIdIndex.builder();
+        ids.forEach(index::add);
+        return index.build();
+    }
+
+    /**
+     * Loads the values of idColumn for timestampColumn = date into a {@link CompactIdIndex} that
+     * compares them by canonical key ({@link ReferenceKeys#canonical}), for the reference sets of
+     * VALIDATE_REFERENCE: a value read from the file as a {@code Double} 12345.0 is valid when the
+     * table holds {@code 12345}. The default builds it from {@link #loadReferenceIds}.
+     */
+    default CompactIdIndex loadReferenceIndex(String tableName, String schema, String idColumn,
+                                              String timestampColumn, LocalDate date) {
+        CompactIdIndex.Builder index = CompactIdIndex.canonicalBuilder();
+        loadReferenceIds(tableName, schema, idColumn, timestampColumn, date).forEach(index::add);
+        return index.build();
+    }
+
     /**
      * Updates existing rows matched by idColumn. Each row's ID value is used in the WHERE clause.
      * Only mapped columns (excluding the ID column itself) are updated.
      */
     void updateData(List<Action> data, List<DatabaseMapping> mappings, Map<String, Object> parameters, String idColumn);
 
+    /**
+     * Upserts rows by idColumn in one set-based statement per chunk (a {@code MERGE}), so the
+     * database resolves insert-vs-update instead of the caller loading every existing ID. Rows
+     * with a new id are inserted; rows with an existing id are updated on every mapped column but
+     * the id when {@code updateExisting}, and left alone otherwise. Bad rows are isolated as in
+     * {@link #insertData}.
+     *
+     * @return the outcome, or {@code null} if the database has no {@code MERGE}: callers fall
+     *         back to {@link #loadExistingIdIndex} and splitting the rows themselves
+     */
+    default MergeResult mergeData(List<Action> data, List<DatabaseMapping> mappings, Map<String, Object> parameters,
+                                  String idColumn, boolean updateExisting) {
+        return null;
+    }
+
+    /**
+     * Set-based {@code LINK_PARENT}: stages {@code links} in the database and, per rule, inserts
+     * the relation rows whose parent is in the rule's {@code checkTable} for the ingest date with
+     * one {@code INSERT .. SELECT}, and logs the others to {@code etlLogTable} with one more.
+     * All of it runs in one transaction. {@code parameters} are the step's: {@code schema},
+     * {@code checkIdColumn}, {@code id1Column}, {@code id2Column}, {@code timestampColumn},
+     * {@code etlLogTable}, {@code currentEntityType}, {@code _ingestDate}.
+     *
+     * @return the outcome, or {@code null} if the database has no staging path: callers resolve
+     *         the parents themselves
+     */
+    default LinkResult linkParents(List<ParentLink> links, List<Map<String, Object>> rules,
+                                   Map<String, Object> parameters) {
+        return null;
+    }
+
     /**
      * Loads a full key→value map from a reference table for in-memory lookups.
      * If timestampColumn is provided, only the most recent snapshot is loaded
-     * (WHERE timestampColumn = MAX(timestampColumn)). Keys are lowercased for
-     * case-insensitive matching.
+     * (WHERE timestampColumn = MAX(timestampColumn)). Keys are canonicalised so the
+     * LOOKUP step matches them regardless of case, padding and number formatting.
      *
      * @param tableName       reference table name
      * @param schema          schema prefix (nullable)
      * @param keyColumn       column whose value is the lookup key (e.g. "mail")
      * @param valueColumn     column whose value is the lookup result (e.g. "id")
      * @param timestampColumn column to filter by latest snapshot, or null to skip
-     * @return map of lowercased key → value
+     * @return map of canonical key ({@link ReferenceKeys#canonical}) → value
      */
     Map<String, String> lookupValues(String tableName, String schema, String keyColumn,
                                      String valueColumn, String timestampColumn);
+
+    /**
+     * {@link #lookupValues} into a {@link CompactStringMap}, for the LOOKUP step's shared dictionary
+     * cache. The default copies the map lookupValues returns; implementations should stream the
+     * rows into it instead.
+     */
+    default CompactStringMap lookupDictionary(String tableName, String schema, String keyColumn,
+                                              String valueColumn, String timestampColumn) {
+        CompactStringMap.Builder dictionary = CompactStringMap.builder();
+        lookupValues(tableName, schema, keyColumn, valueColumn, timestampColumn).forEach(dictionary::put);
+        return dictionary.build();
+    }
+
+    /**
+     * {@code MAX(timestampColumn)} of the table: the version of its latest snapshot, which tells
+     * the LOOKUP step whether a cached dictionary is still current. Null if the table is empty or
+     * the implementation cannot tell, in which case dictionaries are only reused within a run.
+     */
+    default Object latestTimestamp(String tableName, String schema, String timestampColumn) {
+        return null;
+    }
 }
@@ -1,10 +1,14 @@
 package es.ing.icenterprise.arthur.core.ports.outbound;
 
+import es.ing.icenterprise.arthur.core.domain.model.ColumnMetadata;
+
 import java.util.List;
 
 /**
  * Port to introspect database table metadata.
- * Used by the auto-mapper to discover target table columns.
+ * Used by the auto-mapper to discover target table columns, and by the persistence
+ * adapter to pre-validate rows before inserting them. Implementations may cache results;
+ * callers that change a table's DDL should {@link #invalidate} it.
  */
 public interface TableMetadataPort {
 
@@ -16,4 +20,32 @@ public interface TableMetadataPort {
      * @return list of column names in UPPER_CASE
      */
     List<String> getColumnNames(String tableName, String schema);
+
+    /**
+     * Returns type, size and nullability of every column of the given table, in table order.
+     *
+     * @param tableName table name
+     * @param schema    schema name (nullable, uses default if null)
+     * @return column metadata, names in UPPER_CASE; empty if the table does not exist
+     */
+    List<ColumnMetadata> getColumns(String tableName, String schema);
+
+    /**
+     * Loads the columns of every table in {@code schema} in one dictionary query, so that the
+     * lookups of a run are served from cache. Implementations without a cache do nothing.
+     *
+     * @param schema schema name (nullable, uses default if null)
+     * @return number of tables loaded
+     */
+    default int warmUp(String schema) {
+        return 0;
+    }
+
+    /** Drops any cached metadata of the given table, e.g. after its DDL changed. */
+    default void invalidate(String tableName, String schema) {
+    }
+
+    /** Drops all cached metadata. */
+    default void invalidateAll() {
+    }
 }
@@ -0,0 +1,228 @@
+package es.ing.icenterprise.arthur.core.services;
+
+import es.ing.icenterprise.arthur.core.domain.model.Action;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Three-stage hand-off for {@code executionMode: PIPELINED}: a read stage cuts rows into chunks,
+ * a transform stage runs one callback over each chunk, a write stage another. Read and transform
+ * run on their own threads, write on the caller's, so parsing, transformation and database
+ * round-trips overlap. Stages are joined by bounded queues: a stage that gets ahead blocks until
+ * the next one catches up, which caps the chunks in flight at {@code 2 * capacity + 3}.
+ * <p>
+ * Each stage counts rows and the time it spent working, waiting for input and blocked on a full
+ * output queue; queue depth is sampled at every hand-off. {@link #metrics()} reports them.
+ */
+final class ChunkPipeline {
+
+    /** End-of-stream marker, compared by identity. */
+    private static final List<Action> END = new ArrayList<>();
+    private static final long POLL_MS = 100;
+
+    private final int batchSize;
+    private final BooleanSupplier stopRequested;
+    private final BlockingQueue<List<Action>> toTransform;
+    private final BlockingQueue<List<Action>> toWrite;
+    private final StageStats read = new StageStats();
+    private final StageStats transform = new StageStats();
+    private final StageStats write = new StageStats();
+    private final QueueStats transformQueue = new QueueStats();
+    private final QueueStats writeQueue = new QueueStats();
+    /** Set once the transform or write stage stops consuming, so upstream puts give up. */
+    private volatile boolean transformGone;
+    private volatile boolean writeGone;
+
+    /**
+     * @param batchSize     rows per chunk
+     * @param capacity      chunks each hand-off queue holds before its producer blocks
+     * @param stopRequested polled between chunks; when true the read stage stops pulling rows
+     */
+    ChunkPipeline(int batchSize, int capacity, BooleanSupplier stopRequested) {
+        this.batchSize = batchSize;
+        this.stopRequested = stopRequested;
+        this.toTransform = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.toWrite = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Runs the pipeline to completion. {@code firstChunk} is called on the read thread, before the
+     * first chunk is handed off. A failure of the reader (or of a stage) is rethrown here once
+     * the other stages have drained.
+     */
+    void run(Iterator<Map<String, Object>> rows, Consumer<List<Action>> firstChunk,
+             Consumer<List<Action>> transformStage, Consumer<List<Action>> writeStage) {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Void> reading = CompletableFuture.runAsync(() -> readStage(rows, firstChunk), pool);
+            CompletableFuture<Void> transforming = CompletableFuture.runAsync(() -> transformStage(transformStage), pool);
+            try {
+                consume(toWrite, write, writeStage, null, null);
+            } finally {
+                // Upstream stages notice and wind down; never leave them running against a closed reader.
+                writeGone = true;
+                CompletableFuture.allOf(reading, transforming).exceptionally(e -> null).join();
+            }
+            join(reading);
+            join(transforming);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void readStage(Iterator<Map<String, Object>> rows, Consumer<List<Action>> firstChunk) {
+        try {
+            boolean first = true;
+            while (!stopRequested.getAsBoolean() && !transformGone) {
+                long start = System.nanoTime();
+                if (!rows.hasNext()) break;
+                List<Action> chunk = new ArrayList<>(batchSize);
+                while (chunk.size() < batchSize && rows.hasNext()) {
+                    chunk.add(new Action(rows.next()));
+                }
+                read.work(start, chunk.size());
+                if (first) {
+                    firstChunk.accept(chunk);
+                    first = false;
+                }
+                if (!hand(toTransform, chunk, read, transformQueue, () -> transformGone)) break;
+            }
+        } finally {
+            hand(toTransform, END, read, transformQueue, () -> transformGone);
+        }
+    }
+
+    private void transformStage(Consumer<List<Action>> stage) {
+        try {
+            consume(toTransform, transform, stage, toWrite, writeQueue);
+        } finally {
+            transformGone = true;
+            hand(toWrite, END, transform, writeQueue, () -> writeGone);
+        }
+    }
+
+    /**
+     * Takes chunks until {@link #END}, runs {@code stage} on each and forwards it to {@code out} if
+     * set. Returns early if the consumer of {@code out} is gone.
+     */
+    private void consume(BlockingQueue<List<Action>> in, StageStats stats, Consumer<List<Action>> stage,
+                         BlockingQueue<List<Action>> out, QueueStats outStats) {
+        while (true) {
+            long waitStart = System.nanoTime();
+            List<Action> chunk;
+            try {
+                chunk = in.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Pipeline interrupted", e);
+            }
+            stats.idleNanos += System.nanoTime() - waitStart;
+            if (chunk == END) return;
+
+            long start = System.nanoTime();
+            stage.accept(chunk);
+            stats.work(start, chunk.size());
+            if (out != null && !hand(out, chunk, stats, outStats, () -> writeGone)) return;
+        }
+    }
+
+    /**
+     * Puts {@code chunk} on {@code queue}, waiting while it is full unless {@code consumerGone}.
+     * @return false if the consumer went away and the chunk was dropped
+     */
+    private static boolean hand(BlockingQueue<List<Action>> queue, List<Action> chunk, StageStats producer,
+                                QueueStats queueStats, BooleanSupplier consumerGone) {
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(chunk, POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (consumerGone.getAsBoolean()) return false;
+            }
+            if (chunk != END) queueStats.sample(queue.size());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            producer.blockedNanos += System.nanoTime() - start;
+        }
+    }
+
+    private static void join(CompletableFuture<Void> stage) {
+        try {
+            stage.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    /**
+     * Per-stage throughput and queue-depth figures, keyed {@code pipeline.<stage>.<metric>}:
+     * {@code rows}, {@code rowsPerSecond} (rows over the stage's own working time), {@code busyMs},
+     * {@code idleMs} (waiting for input; always 0 for read), {@code blockedMs} (waiting on a full
+     * output queue; always 0 for write), and
+     * {@code maxDepth} / {@code avgDepth} for the two queues. Read once {@link #run} has returned.
+     */
+    Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        read.report("pipeline.read", metrics);
+        transform.report("pipeline.transform", metrics);
+        write.report("pipeline.write", metrics);
+        transformQueue.report("pipeline.transformQueue", metrics);
+        writeQueue.report("pipeline.writeQueue", metrics);
+        return metrics;
+    }
+
+    /** Counters owned by the stage's thread; read after the threads have been joined. */
+    private static final class StageStats {
+        long rows;
+        long busyNanos;
+        long idleNanos;
+        long blockedNanos;
+
+        void work(long startNanos, int chunkRows) {
+            busyNanos += System.nanoTime() - startNanos;
+            rows += chunkRows;
+        }
+
+        void report(String prefix, Map<String, Object> metrics) {
+            metrics.put(prefix + ".rows", rows);
+            metrics.put(prefix + ".rowsPerSecond", busyNanos > 0 ? Math.round(rows * 1e9 / busyNanos) : 0L);
+            metrics.put(prefix + ".busyMs", TimeUnit.NANOSECONDS.toMillis(busyNanos));
+            metrics.put(prefix + ".idleMs", TimeUnit.NANOSECONDS.toMillis(idleNanos));
+            metrics.put(prefix + ".blockedMs", TimeUnit.NANOSECONDS.toMillis(blockedNanos));
+        }
+    }
+
+    /** Depth of one queue right after each put; written by its single producer. */
+    private static final class QueueStats {
+        long samples;
+        long total;
+        int max;
+
+        void sample(int depth) {
+            samples++;
+            total += depth;
+            max = Math.max(max, depth);
+        }
+
+        void report(String prefix, Map<String, Object> metrics) {
+            metrics.put(prefix + ".maxDepth", max);
+            metrics.put(prefix + ".avgDepth", samples > 0 ? Math.round(total * 10.0 / samples) / 10.0 : 0.0);
+        }
+    }
+}
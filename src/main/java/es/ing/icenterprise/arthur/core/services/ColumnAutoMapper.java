@@ -34,6 +34,29 @@ public class ColumnAutoMapper {
         this.tableMetadataPort = tableMetadataPort;
     }
 
+    /**
+     * Bulk-loads the column metadata of every table in {@code schema}, so the mapping lookups of
+     * a run hit the metadata cache instead of the data dictionary.
+     *
+     * @return number of tables loaded
+     */
+    public int warmUp(String schema) {
+        return tableMetadataPort.warmUp(schema);
+    }
+
+    /** Forgets cached column metadata, so the next lookup of each table reads the dictionary again. */
+    public void invalidateMetadata() {
+        tableMetadataPort.invalidateAll();
+    }
+
+    /**
+     * DB columns of {@code tableName} that an Excel header can auto-map to, i.e. the values
+     * {@link ColumnNormalizer#normalize} must produce for the header to be used.
+     */
+    public Set<String> autoMappableColumns(String tableName, String schema) {
+        return new LinkedHashSet<>(tableMetadataPort.getColumnNames(tableName, schema));
+    }
+
     /**
      * Builds the full list of DatabaseMapping by auto-mapping Excel headers to DB columns,
      * then merging with any explicit mappings from the YAML.
@@ -2,16 +2,27 @@ package es.ing.icenterprise.arthur.core.services;
 
 import es.ing.icenterprise.arthur.core.domain.model.*;
 import es.ing.icenterprise.arthur.core.domain.enums.*;
+import es.ing.icenterprise.arthur.core.ports.outbound.FileReadSession;
 import es.ing.icenterprise.arthur.core.ports.outbound.FileReaderPort;
 import es.ing.icenterprise.arthur.core.ports.outbound.InsertResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.LinkResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.MergeResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.ParentLink;
 import es.ing.icenterprise.arthur.core.ports.outbound.PersistencePort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -25,6 +36,16 @@ public class DefaultJobProcessor implements JobProcessor {
     private final List<FileReaderPort> fileReaders;
     private final PersistencePort persistencePort;
     private final ColumnAutoMapper columnAutoMapper;
+    private final ReferenceSetCache referenceSets = new ReferenceSetCache();
+    private final LookupDictionaryCache lookupDictionaries = new LookupDictionaryCache();
+
+    /** Chunks each hand-off queue of a {@code PIPELINED} job holds before the stage feeding it blocks. */
+    @Value("${ingesta.pipeline.queue-capacity:4}")
+    private int pipelineQueueCapacity = 4;
+
+    /** ETL_LOG rows a VALIDATE_REFERENCE / LINK_PARENT step buffers per write; a step's {@code etlLogBatchSize} overrides it. */
+    @Value("${ingesta.etl-log.batch-size:500}")
+    private int etlLogBatchSize = 500;
 
     public DefaultJobProcessor(List<FileReaderPort> fileReaders,
                                PersistencePort persistencePort,
@@ -45,6 +66,50 @@ public class DefaultJobProcessor implements JobProcessor {
         }
     }
 
+    /**
+     * Bulk-loads the table metadata of every {@code schema} the jobs' steps name, one dictionary
+     * query per schema, instead of one or two per table as INSERT steps resolve their mappings.
+     * Best effort: a failed warm-up only means the lookups go to the database. Also starts the
+     * run's reference set and LOOKUP dictionary caches empty.
+     */
+    @Override
+    public void prepareRun(List<Job> jobs) {
+        referenceSets.clear();
+        lookupDictionaries.clear();
+        Set<String> schemas = new LinkedHashSet<>();
+        for (Job job : jobs) {
+            if (job.getStatus() != Status.PENDING) continue;
+            for (Task task : job.getTasks()) {
+                for (Step step : task.getSteps()) {
+                    if (step.getParameters().get("schema") instanceof String schema && !schema.isBlank()) {
+                        schemas.add(schema);
+                    }
+                }
+            }
+        }
+        for (String schema : schemas) {
+            try {
+                columnAutoMapper.warmUp(schema);
+            } catch (Exception e) {
+                log.warn("Metadata warm-up for schema {} failed: {}", schema, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops the run's cached table metadata, so the next run starts from the current DDL, and its
+     * cached reference sets and LOOKUP dictionaries.
+     */
+    @Override
+    public void finishRun(List<Job> jobs) {
+        columnAutoMapper.invalidateMetadata();
+        log.info("Reference sets: {} loaded, {} lookups served from the run cache",
+                referenceSets.loads(), referenceSets.hits());
+        referenceSets.clear();
+        log.info("LOOKUP dictionaries: {} loaded, {} reused", lookupDictionaries.loads(), lookupDictionaries.hits());
+        lookupDictionaries.clear();
+    }
+
     private void processJob(Job job) {
         job.start();
         log.info("Processing job: {}", job.getName());
@@ -52,6 +117,8 @@ public class DefaultJobProcessor implements JobProcessor {
         try {
             if (job.isProcessAllSheets()) {
                 processJobAllSheets(job);
+            } else if (job.getExecutionMode() != ExecutionMode.IN_MEMORY) {
+                processJobStreaming(job);
             } else {
                 processJobSingleSheet(job);
             }
@@ -59,6 +126,21 @@ public class DefaultJobProcessor implements JobProcessor {
             log.error("Job '{}' failed: {}", job.getName(), e.getMessage(), e);
             job.addLog(LogEntry.error(job.getName(), "Job failed: " + e.getMessage(), e));
             job.complete(Status.FAILED);
+        } finally {
+            releaseReaders(job);
+        }
+    }
+
+    /** Lets readers drop state they cached for this file (e.g. parsed Excel shared strings). */
+    private void releaseReaders(Job job) {
+        Path path = Path.of(job.getFilePath());
+        for (FileReaderPort reader : fileReaders) {
+            if (!reader.supports(job.getFileType())) continue;
+            try {
+                reader.release(path);
+            } catch (Exception e) {
+                log.warn("Failed to release reader state for {}: {}", path, e.getMessage());
+            }
         }
     }
 
@@ -84,44 +166,179 @@ public class DefaultJobProcessor implements JobProcessor {
     /**
      * Processes all sheets in the Excel file. Each sheet is treated as a separate table
      * whose name matches the sheet name. Tasks are executed once per sheet.
+     * <p>
+     * The file is opened once through a {@link FileReadSession}, so workbook-wide state (Excel
+     * shared strings and styles) is parsed once for all sheets. With {@code sheetParallelism > 1}
+     * sheets run concurrently, see {@link #processSheetsConcurrently}.
      */
     private void processJobAllSheets(Job job) {
-        FileReaderPort reader = fileReaders.stream()
-                .filter(r -> r.supports(job.getFileType()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException(
-                        "No reader found for file type: " + job.getFileType()));
-
-        List<String> sheetNames = reader.getSheetNames(Path.of(job.getFilePath()));
-        log.info("processAllSheets: found {} sheets in {}", sheetNames.size(), job.getFilePath());
-
+        FileReaderPort reader = findReader(job);
         LocalDate ingestDate = extractIngestDate(job.getFilePath());
         boolean hasFailure = false;
 
+        try (FileReadSession session = reader.open(Path.of(job.getFilePath()), job.getReaderOptions())) {
+            List<String> sheetNames = session.getSheetNames();
+            log.info("processAllSheets: found {} sheets in {}", sheetNames.size(), job.getFilePath());
+
+            int parallelism = Math.min(job.getSheetParallelism(), sheetNames.size());
+            if (parallelism > 1) {
+                hasFailure = processSheetsConcurrently(job, session, sheetNames, ingestDate, parallelism);
+            } else {
+                for (int i = 0; i < sheetNames.size(); i++) {
+                    log.info("Processing sheet {}/{}: '{}'", i + 1, sheetNames.size(), sheetNames.get(i));
+                    hasFailure |= processSheet(job, session, i, sheetNames.get(i), ingestDate);
+                }
+            }
+        }
+
+        Status jobStatus = determineJobStatus(job, hasFailure);
+        job.complete(jobStatus);
+    }
+
+    /**
+     * Reads one sheet and runs every task of {@code job} over it, in-memory or streaming.
+     * @return true if any task failed
+     */
+    private boolean processSheet(Job job, FileReadSession session, int sheetIndex, String sheetName,
+                                 LocalDate ingestDate) {
+        Map<String, Object> readerParams = readerParams(job, sheetIndex, sheetName);
+        if (job.getExecutionMode() != ExecutionMode.IN_MEMORY) {
+            try (Stream<Map<String, Object>> stream = session.read(readerParams)) {
+                return streamAllTasks(job, stream, ingestDate, sheetName, null);
+            }
+        }
+
+        List<Action> data = new ArrayList<>();
+        try (Stream<Map<String, Object>> stream = session.read(readerParams)) {
+            stream.forEach(row -> data.add(new Action(row)));
+        }
+
+        if (data.isEmpty()) {
+            job.addLog(LogEntry.warn(job.getName(), "Sheet '" + sheetName + "' is empty, skipping"));
+            return false;
+        }
+
+        List<String> excelHeaders = new ArrayList<>(data.get(0).data().keySet());
+        job.addLog(LogEntry.info(job.getName(),
+                "Sheet '" + sheetName + "': read " + data.size() + " rows, columns: " + excelHeaders));
+
+        return processAllTasks(job, data, excelHeaders, ingestDate, sheetName);
+    }
+
+    /**
+     * Runs sheets on a bounded pool. Task/Step entities are not thread-safe, so each sheet runs
+     * against its own copy of the job's tasks; once every sheet is done the copies are folded back
+     * into the real tasks in sheet order (logs tagged with a {@code sheet} context, record counts
+     * summed). A task ends FAILED if it failed on every sheet it ran on, PARTIAL if it failed on
+     * some, SUCCESS otherwise.
+     * @return true if any task failed on any sheet
+     */
+    private boolean processSheetsConcurrently(Job job, FileReadSession session, List<String> sheetNames,
+                                              LocalDate ingestDate, int parallelism) {
+        log.info("processAllSheets: running {} sheets on {} threads", sheetNames.size(), parallelism);
+        List<Job> sheetJobs = new ArrayList<>();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (int i = 0; i < sheetNames.size(); i++) {
+                int sheetIndex = i;
+                String sheetName = sheetNames.get(i);
+                Job sheetJob = copyForSheet(job, sheetIndex);
+                sheetJobs.add(sheetJob);
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    log.info("Processing sheet {}/{}: '{}'", sheetIndex + 1, sheetNames.size(), sheetName);
+                    return processSheet(sheetJob, session, sheetIndex, sheetName, ingestDate);
+                }, pool));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        // A sheet whose read blew up is logged and the others still count; if none survived the
+        // job fails, as it would have in sequential mode.
+        long failedSheets = futures.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        if (failedSheets == sheetNames.size()) {
+            futures.get(0).join();
+        }
+
+        Map<Object, List<Status>> runs = new IdentityHashMap<>();
+        for (Task task : job.getTasks()) {
+            task.start();
+            task.getSteps().forEach(Step::start);
+        }
+        boolean hasFailure = failedSheets > 0;
         for (int i = 0; i < sheetNames.size(); i++) {
             String sheetName = sheetNames.get(i);
-            log.info("Processing sheet {}/{}: '{}'", i + 1, sheetNames.size(), sheetName);
-
-            Map<String, Object> readerParams = Map.of("sheetIndex", i);
-            List<Action> data = new ArrayList<>();
-            try (Stream<Map<String, Object>> stream = reader.read(Path.of(job.getFilePath()), readerParams)) {
-                stream.forEach(row -> data.add(new Action(row)));
+            Job sheetJob = sheetJobs.get(i);
+            try {
+                hasFailure |= futures.get(i).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                job.addLog(LogEntry.error(job.getName(),
+                        "Sheet '" + sheetName + "' failed: " + cause.getMessage(), cause).withContext("sheet", sheetName));
+            }
+            sheetJob.getLogs().forEach(entry -> job.addLog(entry.withContext("sheet", sheetName)));
+            List<Task> copies = sheetJob.getTasks();
+            for (int t = 0; t < copies.size(); t++) {
+                mergeSheetTask(job.getTasks().get(t), copies.get(t), sheetName, runs);
             }
+        }
 
-            if (data.isEmpty()) {
-                job.addLog(LogEntry.warn(job.getName(), "Sheet '" + sheetName + "' is empty, skipping"));
-                continue;
+        for (Task task : job.getTasks()) {
+            for (Step step : task.getSteps()) {
+                step.complete(aggregateStatus(runs.getOrDefault(step, List.of())));
             }
+            task.complete(aggregateStatus(runs.getOrDefault(task, List.of())));
+        }
+        return hasFailure;
+    }
 
-            List<String> excelHeaders = new ArrayList<>(data.get(0).data().keySet());
-            job.addLog(LogEntry.info(job.getName(),
-                    "Sheet '" + sheetName + "': read " + data.size() + " rows, columns: " + excelHeaders));
+    private static Job copyForSheet(Job job, int sheetIndex) {
+        Job copy = new Job(job.getName(), job.getFilePath(), job.getFileType(), job.getBatchSize(),
+                sheetIndex, true, job.getExecutionMode(), 1, job.getReaderOptions());
+        for (Task task : job.getTasks()) {
+            Task taskCopy = new Task(task.getName(), task.getTaskType(), task.getOrder(), task.isStopOnFailure());
+            for (Step step : task.getSteps()) {
+                taskCopy.addStep(new Step(step.getName(), step.getStepType(), step.getOrder(), step.getParameters()));
+            }
+            copy.addTask(taskCopy);
+        }
+        return copy;
+    }
 
-            hasFailure |= processAllTasks(job, data, excelHeaders, ingestDate, sheetName);
+    /** Folds one sheet's task copy into the real task; {@code runs} collects the statuses of copies that ran. */
+    private static void mergeSheetTask(Task target, Task sheetTask, String sheetName, Map<Object, List<Status>> runs) {
+        sheetTask.getLogs().forEach(entry -> target.addLog(entry.withContext("sheet", sheetName)));
+        addCounts(target.getMetrics(), sheetTask.getMetrics());
+        if (sheetTask.getStatus() != Status.PENDING) {
+            runs.computeIfAbsent(target, k -> new ArrayList<>()).add(sheetTask.getStatus());
+        }
+        List<Step> targetSteps = target.getSteps();
+        List<Step> sheetSteps = sheetTask.getSteps();
+        for (int s = 0; s < sheetSteps.size(); s++) {
+            Step step = targetSteps.get(s);
+            Step sheetStep = sheetSteps.get(s);
+            sheetStep.getLogs().forEach(entry -> step.addLog(entry.withContext("sheet", sheetName)));
+            addCounts(step.getMetrics(), sheetStep.getMetrics());
+            if (sheetStep.getStatus() != Status.PENDING) {
+                runs.computeIfAbsent(step, k -> new ArrayList<>()).add(sheetStep.getStatus());
+            }
         }
+    }
 
-        Status jobStatus = determineJobStatus(job, hasFailure);
-        job.complete(jobStatus);
+    private static void addCounts(Metrics target, Metrics source) {
+        target.incrementProcessed(source.getRecordsProcessed());
+        target.incrementFailed(source.getRecordsFailed());
+        target.incrementSkipped(source.getRecordsSkipped());
+    }
+
+    /** FAILED if every run failed, PARTIAL if some failed or were partial, SUCCESS otherwise (including no runs). */
+    private static Status aggregateStatus(List<Status> statuses) {
+        if (statuses.isEmpty()) return Status.SUCCESS;
+        if (statuses.stream().allMatch(st -> st == Status.FAILED)) return Status.FAILED;
+        if (statuses.stream().anyMatch(st -> st == Status.FAILED || st == Status.PARTIAL)) return Status.PARTIAL;
+        return Status.SUCCESS;
     }
 
     /**
@@ -150,14 +367,10 @@ public class DefaultJobProcessor implements JobProcessor {
     }
 
     private List<Action> readFileData(Job job) {
-        FileReaderPort reader = fileReaders.stream()
-                .filter(r -> r.supports(job.getFileType()))
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException(
-                        "No reader found for file type: " + job.getFileType()));
+        FileReaderPort reader = findReader(job);
 
         List<Action> actions = new ArrayList<>();
-        Map<String, Object> readerParams = Map.of("sheetIndex", job.getSheetIndex());
+        Map<String, Object> readerParams = readerParams(job, job.getSheetIndex(), null);
         try (Stream<Map<String, Object>> stream = reader.read(Path.of(job.getFilePath()), readerParams)) {
             stream.forEach(row -> actions.add(new Action(row)));
         }
@@ -167,14 +380,104 @@ public class DefaultJobProcessor implements JobProcessor {
         return actions;
     }
 
+    /**
+     * The job's {@code reader:} options plus the sheet to read and, unless the job sets
+     * {@code reader: { projection: false }}, the {@link ColumnProjection} of the columns its steps use.
+     */
+    private Map<String, Object> readerParams(Job job, int sheetIndex, String sheetTableName) {
+        Map<String, Object> params = new HashMap<>(job.getReaderOptions());
+        params.put("sheetIndex", sheetIndex);
+        if (!Boolean.FALSE.equals(params.remove("projection"))) {
+            ColumnProjection projection = columnProjection(job, sheetTableName);
+            if (projection != null) params.put("projection", projection);
+        }
+        return params;
+    }
+
+    /**
+     * Source columns referenced by the job's steps: explicit INSERT mappings and id column,
+     * transformation sources and keys, VALIDATE_REFERENCE and LINK_PARENT columns, plus every header
+     * that auto-maps to an INSERT target. Returns {@code null} (read everything) if a step type is
+     * not known here, since its column needs cannot be derived.
+     */
+    @SuppressWarnings("unchecked")
+    private ColumnProjection columnProjection(Job job, String sheetTableName) {
+        Set<String> headers = new HashSet<>();
+        Set<String> autoMapped = new HashSet<>();
+        for (Task task : job.getTasks()) {
+            for (Step step : task.getSteps()) {
+                Map<String, Object> params = step.getParameters();
+                switch (step.getStepType()) {
+                    case TRIM, UPPERCASE, TRUNCATE, SELECT -> { }
+                    case CONCATENATE -> addAll(headers, params.get("sourceColumns"));
+                    case DEDUPLICATE -> addAll(headers, params.get("keyColumn"));
+                    case FILTER_NULL -> addAll(headers, params.get("column"));
+                    case LOOKUP -> addAll(headers, params.get("sourceColumn"));
+                    case VALIDATE_REFERENCE -> {
+                        addAll(headers, params.get("fieldColumn"));
+                        addAll(headers, params.get("idColumn"));
+                    }
+                    case LINK_PARENT -> {
+                        addAll(headers, params.get("idColumn"));
+                        addAll(headers, params.get("parentPathColumn"));
+                        addAll(headers, params.get("parentObjectsColumn"));
+                        addAll(headers, params.get("parentTypeColumn"));
+                    }
+                    case INSERT -> {
+                        for (DatabaseMapping mapping : parseExplicitMappings(params)) {
+                            addAll(headers, mapping.excelColumn());
+                            addAll(headers, mapping.concatenate());
+                        }
+                        if (Boolean.TRUE.equals(params.get("skipExisting"))
+                                || Boolean.TRUE.equals(params.get("upsertMode"))) {
+                            addAll(headers, params.getOrDefault("idColumn", "ID"));
+                        }
+                        if ((boolean) params.getOrDefault("autoMap", true)) {
+                            String tableName = sheetTableName != null ? sheetTableName
+                                    : (String) params.getOrDefault("tableName", "ingesta_data");
+                            autoMapped.addAll(columnAutoMapper.autoMappableColumns(
+                                    tableName, (String) params.get("schema")));
+                        }
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+        }
+        return new ColumnProjection(headers, autoMapped);
+    }
+
+    private static void addAll(Set<String> target, Object columns) {
+        if (columns instanceof String column) {
+            target.add(column);
+        } else if (columns instanceof Collection<?> list) {
+            list.forEach(c -> { if (c != null) target.add(c.toString()); });
+        }
+    }
+
+    private FileReaderPort findReader(Job job) {
+        return fileReaders.stream()
+                .filter(r -> r.supports(job.getFileType()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "No reader found for file type: " + job.getFileType()));
+    }
+
     private void processTask(Task task, List<Action> data, List<String> excelHeaders,
                              LocalDate ingestDate, String sheetTableName) {
         task.start();
         log.info("Processing task: {} (type: {})", task.getName(), task.getTaskType());
 
-        switch (task.getTaskType()) {
-            case TRANSFORMATION -> processTransformationTask(task, data);
-            case PERSISTENCE -> processPersistenceTask(task, data, excelHeaders, ingestDate, sheetTableName);
+        for (Step step : task.getSteps()) {
+            step.start();
+            StepState state = new StepState();
+            runStep(task, step, data, excelHeaders, ingestDate, sheetTableName, state);
+            logStepSummary(step, state);
+            step.complete(Status.SUCCESS);
+        }
+        if (task.getTaskType() == TaskType.TRANSFORMATION) {
+            task.getMetrics().incrementProcessed(data.size());
         }
 
         if (task.getStatus() == Status.RUNNING) {
@@ -182,25 +485,232 @@ public class DefaultJobProcessor implements JobProcessor {
         }
     }
 
-    // ======================== TRANSFORMATION ========================
+    // ======================== STREAMING ========================
 
-    private void processTransformationTask(Task task, List<Action> data) {
+    /**
+     * Streaming counterpart of {@link #processJobSingleSheet}: rows are
+     * pulled from the reader in chunks of {@code batchSize} and each chunk runs through every task
+     * before the next one is parsed, so peak memory is bounded by the chunk, not the file.
+     */
+    private void processJobStreaming(Job job) {
+        FileReaderPort reader = findReader(job);
+        Path path = Path.of(job.getFilePath());
+        LocalDate ingestDate = extractIngestDate(job.getFilePath());
+        boolean hasFailure;
+        FileMetadata expected = expectedSize(job, reader, path);
+
+        try (Stream<Map<String, Object>> stream = reader.read(path, readerParams(job, job.getSheetIndex(), null))) {
+            hasFailure = streamAllTasks(job, stream, ingestDate, null, expected);
+        }
+
+        Status jobStatus = determineJobStatus(job, hasFailure);
+        job.complete(jobStatus);
+    }
+
+    /**
+     * Pre-flight size of the file from the reader's cheap metadata path, recorded as the
+     * {@code expectedRows} metric and used for progress logging. {@code null} if the reader cannot tell.
+     */
+    private FileMetadata expectedSize(Job job, FileReaderPort reader, Path path) {
+        try {
+            FileMetadata metadata = reader.readFileMetadata(path, job.getReaderOptions());
+            if (metadata == null) return null;
+            job.getMetrics().addCustomMetric("expectedRows", metadata.records());
+            job.getMetrics().addCustomMetric("expectedRowsExact", metadata.exact());
+            log.info("Job '{}': expecting {}{} rows", job.getName(), metadata.exact() ? "" : "~", metadata.records());
+            return metadata;
+        } catch (RuntimeException e) {
+            log.warn("Job '{}': could not size {}: {}", job.getName(), path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs every task of the job over {@code rows}, one chunk at a time.
+     * <ul>
+     *   <li>Open: every task and step is started; one-shot steps (TRUNCATE, SELECT) run before the first chunk.</li>
+     *   <li>Per chunk: tasks and steps run in declaration order, exactly as in-memory mode runs them over the full list.</li>
+     *   <li>Close: each step emits its SUMMARY for the whole stream and completes.</li>
+     * </ul>
+     * A failing task is dropped from the remaining chunks; with {@code stopOnFailure} the stream is
+     * abandoned and tasks that only saw part of it complete as PARTIAL. With an {@code expected}
+     * size, progress is logged every 10%. {@code PIPELINED} jobs hand the chunks to
+     * {@link #pipelineAllTasks} instead of this loop.
+     *
+     * @return true if any task failed
+     */
+    private boolean streamAllTasks(Job job, Stream<Map<String, Object>> rows,
+                                   LocalDate ingestDate, String sheetTableName, FileMetadata expected) {
+        Iterator<Map<String, Object>> rowIt = rows.iterator();
+        if (sheetTableName != null && !rowIt.hasNext()) {
+            job.addLog(LogEntry.warn(job.getName(), "Sheet '" + sheetTableName + "' is empty, skipping"));
+            return false;
+        }
+        if (job.getExecutionMode() == ExecutionMode.PIPELINED) {
+            return pipelineAllTasks(job, rowIt, ingestDate, sheetTableName, expected);
+        }
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        ChunkRunner runner = new ChunkRunner(job, job.getTasks(), ingestDate, sheetTableName, stopped);
+        runner.open();
+
+        StreamProgress progress = new StreamProgress(job, expected);
+        List<String> excelHeaders = null;
+        int batchSize = job.getBatchSize();
+        while (!stopped.get() && runner.hasActive() && rowIt.hasNext()) {
+            List<Action> chunk = nextChunk(rowIt, batchSize);
+            if (excelHeaders == null) {
+                excelHeaders = new ArrayList<>(chunk.get(0).data().keySet());
+            }
+            progress.chunkRead(chunk.size());
+            runner.run(chunk, excelHeaders);
+        }
+
+        runner.close();
+        progress.finish(sheetTableName, excelHeaders);
+        return runner.failed;
+    }
+
+    /**
+     * {@code PIPELINED} counterpart of the streaming loop, on a {@link ChunkPipeline}. The tasks
+     * before the first PERSISTENCE task form the transform stage; that task and every task after
+     * it form the write stage, so each chunk still meets the tasks in declaration order. The read
+     * stage stops early on {@code stopOnFailure} or once no task is left active. Stage throughput
+     * and queue depths go to the job's {@code pipeline.*} metrics.
+     *
+     * @return true if any task failed
+     */
+    private boolean pipelineAllTasks(Job job, Iterator<Map<String, Object>> rowIt,
+                                     LocalDate ingestDate, String sheetTableName, FileMetadata expected) {
+        List<Task> tasks = job.getTasks();
+        int split = 0;
+        while (split < tasks.size() && tasks.get(split).getTaskType() != TaskType.PERSISTENCE) split++;
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        ChunkRunner transform = new ChunkRunner(job, tasks.subList(0, split), ingestDate, sheetTableName, stopped);
+        ChunkRunner write = new ChunkRunner(job, tasks.subList(split, tasks.size()), ingestDate, sheetTableName, stopped);
+        transform.open();
+        if (!stopped.get()) write.open();
+
+        StreamProgress progress = new StreamProgress(job, expected);
+        AtomicReference<List<String>> excelHeaders = new AtomicReference<>();
+        ChunkPipeline pipeline = new ChunkPipeline(job.getBatchSize(), pipelineQueueCapacity,
+                () -> stopped.get() || !(transform.hasActive() || write.hasActive()));
+        pipeline.run(rowIt,
+                first -> excelHeaders.set(new ArrayList<>(first.get(0).data().keySet())),
+                chunk -> {
+                    progress.chunkRead(chunk.size());
+                    transform.run(chunk, excelHeaders.get());
+                },
+                chunk -> write.run(chunk, excelHeaders.get()));
+
+        Map<String, Object> stageMetrics = pipeline.metrics();
+        log.info("Job '{}' pipeline{}: {}", job.getName(),
+                sheetTableName != null ? " (sheet '" + sheetTableName + "')" : "", stageMetrics);
+        if (sheetTableName == null) {
+            stageMetrics.forEach(job.getMetrics()::addCustomMetric);
+        }
+
+        transform.close();
+        write.close();
+        progress.finish(sheetTableName, excelHeaders.get());
+        return transform.failed || write.failed;
+    }
+
+    /**
+     * Marks a task failed mid-stream. Steps of that task that were still running complete as PARTIAL.
+     * @return true if the task has {@code stopOnFailure} and the stream must be abandoned
+     */
+    private boolean failStreamingTask(Job job, Task task, Exception e) {
         for (Step step : task.getSteps()) {
-            step.start();
-            try {
-                applyTransformation(step, data);
-                step.getMetrics().incrementProcessed(data.size());
-                step.complete(Status.SUCCESS);
-            } catch (Exception e) {
-                step.addLog(LogEntry.error(step.getName(), "Step failed: " + e.getMessage(), e));
-                step.complete(Status.FAILED);
-                throw e;
+            if (step.getStatus() == Status.RUNNING) step.complete(Status.PARTIAL);
+        }
+        task.addLog(LogEntry.error(task.getName(), "Task failed: " + e.getMessage(), e));
+        task.complete(Status.FAILED);
+        if (task.isStopOnFailure()) {
+            job.addLog(LogEntry.error(job.getName(),
+                    "Stopping job due to task failure: " + task.getName()));
+            return true;
+        }
+        return false;
+    }
+
+    private static List<Action> nextChunk(Iterator<Map<String, Object>> rows, int size) {
+        List<Action> chunk = new ArrayList<>(size);
+        while (chunk.size() < size && rows.hasNext()) {
+            chunk.add(new Action(rows.next()));
+        }
+        return chunk;
+    }
+
+    /** TRUNCATE and SELECT act on the table, not on rows, so streaming runs them once before the first chunk. */
+    private static boolean isOneShot(Task task, Step step) {
+        return task.getTaskType() == TaskType.PERSISTENCE
+                && (step.getStepType() == StepType.TRUNCATE || step.getStepType() == StepType.SELECT);
+    }
+
+    /**
+     * Runs one step over {@code data}. Shared by in-memory mode (whole file, fresh state) and
+     * streaming mode (one chunk, state carried across chunks). On failure the step is marked
+     * FAILED and the exception is rethrown so the task fails.
+     */
+    private void runStep(Task task, Step step, List<Action> data, List<String> excelHeaders,
+                         LocalDate ingestDate, String sheetTableName, StepState state) {
+        if (state.done) return;
+        try {
+            switch (task.getTaskType()) {
+                case TRANSFORMATION -> {
+                    applyTransformation(step, data, state);
+                    step.getMetrics().incrementProcessed(data.size());
+                }
+                case PERSISTENCE -> {
+                    try {
+                        executePersistenceStep(step, data, excelHeaders, ingestDate, sheetTableName, state);
+                    } finally {
+                        invalidateWrittenTables(step, sheetTableName);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            String prefix = task.getTaskType() == TaskType.PERSISTENCE ? "Persistence step failed: " : "Step failed: ";
+            step.addLog(LogEntry.error(step.getName(), prefix + e.getMessage(), e));
+            step.complete(Status.FAILED);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached reference sets and LOOKUP dictionaries of every table {@code step} may have
+     * written, even partly, so steps that run after it, in this job or a parallel one, reload them.
+     */
+    @SuppressWarnings("unchecked")
+    private void invalidateWrittenTables(Step step, String sheetTableName) {
+        Map<String, Object> params = step.getParameters();
+        switch (step.getStepType()) {
+            case INSERT, TRUNCATE -> invalidateCached(
+                    sheetTableName != null ? sheetTableName : (String) params.getOrDefault("tableName", "ingesta_data"));
+            case LINK_PARENT -> {
+                if (params.get("rules") instanceof List<?> rules) {
+                    for (Object rule : rules) {
+                        invalidateCached((String) ((Map<String, Object>) rule).get("relationTable"));
+                    }
+                }
+                invalidateCached((String) params.get("etlLogTable"));
             }
+            case VALIDATE_REFERENCE -> invalidateCached((String) params.get("etlLogTable"));
+            default -> { }
         }
-        task.getMetrics().incrementProcessed(data.size());
     }
 
-    private void applyTransformation(Step step, List<Action> data) {
+    private void invalidateCached(String table) {
+        referenceSets.invalidate(table);
+        lookupDictionaries.invalidate(table);
+    }
+
+    // ======================== TRANSFORMATION ========================
+
+    private void applyTransformation(Step step, List<Action> data, StepState state) {
+        if (state.disabled) return;
         log.debug("Applying transformation: {}", step.getStepType());
 
         switch (step.getStepType()) {
@@ -217,53 +727,56 @@ public class DefaultJobProcessor implements JobProcessor {
                 if (targetColumn == null || sources == null || sources.isEmpty()) {
                     step.addLog(LogEntry.warn(step.getName(),
                             "CONCATENATE step missing required parameters: 'targetColumn' and 'sourceColumns'"));
+                    state.disabled = true;
                     break;
                 }
 
+                List<ColumnRef> sourceRefs = sources.stream().map(ColumnRef::of).toList();
+                ColumnRef target = ColumnRef.of(targetColumn);
                 data.forEach(action -> {
-                    String concatenated = sources.stream()
-                            .map(col -> {
-                                Object val = action.get(col);
+                    String concatenated = sourceRefs.stream()
+                            .map(ref -> {
+                                Object val = ref.get(action);
                                 return val != null ? val.toString() : "";
                             })
                             .filter(s -> !s.isBlank())
                             .collect(Collectors.joining(separator));
-                    action.data().put(targetColumn, concatenated);
+                    target.set(action, concatenated);
                 });
-
-                step.addLog(LogEntry.info(step.getName(),
-                        "Concatenated sourceColumns=" + sources + " → '" + targetColumn + "' for " + data.size() + " rows"));
+                state.rows += data.size();
             }
             case DEDUPLICATE -> {
                 String keyColumn = (String) step.getParameters().get("keyColumn");
                 if (keyColumn == null) {
                     step.addLog(LogEntry.warn(step.getName(),
                             "DEDUPLICATE step missing required parameter: 'keyColumn'"));
+                    state.disabled = true;
                     break;
                 }
+                if (state.seenKeys == null) state.seenKeys = new HashSet<>();
+                Set<Object> seen = state.seenKeys;
+                ColumnRef key = ColumnRef.of(keyColumn);
                 int before = data.size();
-                Set<Object> seen = new LinkedHashSet<>();
-                data.removeIf(action -> !seen.add(action.get(keyColumn)));
-                int removed = before - data.size();
-                step.addLog(LogEntry.info(step.getName(),
-                        "Deduplicated on '" + keyColumn + "': removed " + removed + " duplicates, " + data.size() + " remaining"));
+                data.removeIf(action -> !seen.add(key.get(action)));
+                state.removed += before - data.size();
+                state.rows += data.size();
             }
             case FILTER_NULL -> {
                 String column = (String) step.getParameters().get("column");
                 if (column == null) {
                     step.addLog(LogEntry.warn(step.getName(),
                             "FILTER_NULL step missing required parameter: 'column'"));
+                    state.disabled = true;
                     break;
                 }
+                ColumnRef ref = ColumnRef.of(column);
                 int before = data.size();
                 data.removeIf(action -> {
-                    Object val = action.get(column);
+                    Object val = ref.get(action);
                     return val == null || val.toString().isBlank();
                 });
-                int removed = before - data.size();
-                step.addLog(LogEntry.info(step.getName(),
-                        "Filtered on '" + column + "': removed " + removed + " null/blank rows, "
-                        + data.size() + " remaining"));
+                state.removed += before - data.size();
+                state.rows += data.size();
             }
             case LOOKUP -> {
                 String sourceColumn   = (String) step.getParameters().get("sourceColumn");
@@ -279,53 +792,102 @@ public class DefaultJobProcessor implements JobProcessor {
                         || refKeyColumn == null || refValueColumn == null) {
                     step.addLog(LogEntry.warn(step.getName(),
                             "LOOKUP step missing required parameters: sourceColumn, targetColumn, referenceTable, referenceKeyColumn, referenceValueColumn"));
+                    state.disabled = true;
                     break;
                 }
 
-                // Load the full map once to avoid N+1 queries
-                Map<String, String> lookupMap = persistencePort.lookupValues(refTable, null, refKeyColumn, refValueColumn, tsColumn);
+                // Reuse the shared dictionary unless the table has a newer snapshot: one MAX query per step
+                if (state.lookupMap == null) {
+                    Object version = tsColumn != null ? persistencePort.latestTimestamp(refTable, null, tsColumn) : null;
+                    state.lookupMap = lookupDictionaries.get(refTable, null, refKeyColumn, refValueColumn, tsColumn,
+                            version, () -> persistencePort.lookupDictionary(
+                                    refTable, null, refKeyColumn, refValueColumn, tsColumn));
+                    step.getMetrics().addCustomMetric("lookupEntries", state.lookupMap.size());
+                    step.getMetrics().addCustomMetric("lookupDictionaryBytes", state.lookupMap.sizeInBytes());
+                }
+                CompactStringMap lookupMap = state.lookupMap;
 
-                int resolved = 0, nulled = 0;
+                ColumnRef source = ColumnRef.of(sourceColumn);
+                ColumnRef target = ColumnRef.of(targetColumn);
                 for (Action action : data) {
-                    Object raw = action.get(sourceColumn);
+                    Object raw = source.get(action);
                     String key = raw != null ? raw.toString().trim() : "";
                     if (key.isBlank() || nullValues.contains(key)) {
-                        action.data().put(targetColumn, null);
-                        nulled++;
+                        target.set(action, null);
+                        state.nulled++;
                     } else {
-                        String value = lookupMap.get(key.toLowerCase());
-                        action.data().put(targetColumn, value);
-                        if (value != null) resolved++; else nulled++;
+                        String value = lookupMap.get(ReferenceKeys.canonical(key));
+                        target.set(action, value);
+                        if (value != null) state.resolved++; else state.nulled++;
                     }
                 }
-                step.addLog(LogEntry.summary(step.getName(), String.format(
-                        "LOOKUP '%s' → '%s' via %s.%s: %d resolved, %d set to null",
-                        sourceColumn, targetColumn, refTable, refValueColumn, resolved, nulled)));
             }
-            default -> step.addLog(LogEntry.warn(step.getName(),
-                    "Unknown transformation type: " + step.getStepType()));
+            default -> {
+                step.addLog(LogEntry.warn(step.getName(),
+                        "Unknown transformation type: " + step.getStepType()));
+                state.disabled = true;
+            }
         }
     }
 
-    // ======================== PERSISTENCE ========================
+    /**
+     * Emits the per-step SUMMARY/INFO logs from the counters accumulated in {@code state}. Called once
+     * per step execution, after the last chunk in streaming mode.
+     */
+    private void logStepSummary(Step step, StepState state) {
+        if (state.disabled || state.done) return;
+        Map<String, Object> params = step.getParameters();
 
-    private void processPersistenceTask(Task task, List<Action> data, List<String> excelHeaders,
-                                       LocalDate ingestDate, String sheetTableName) {
-        for (Step step : task.getSteps()) {
-            step.start();
-            try {
-                executePersistenceStep(step, data, excelHeaders, ingestDate, sheetTableName);
-                step.complete(Status.SUCCESS);
-            } catch (Exception e) {
-                step.addLog(LogEntry.error(step.getName(), "Persistence step failed: " + e.getMessage(), e));
-                step.complete(Status.FAILED);
-                throw e;
+        switch (step.getStepType()) {
+            case CONCATENATE -> step.addLog(LogEntry.info(step.getName(),
+                    "Concatenated sourceColumns=" + params.get("sourceColumns") + " → '"
+                    + params.get("targetColumn") + "' for " + state.rows + " rows"));
+            case DEDUPLICATE -> step.addLog(LogEntry.info(step.getName(),
+                    "Deduplicated on '" + params.get("keyColumn") + "': removed " + state.removed
+                    + " duplicates, " + state.rows + " remaining"));
+            case FILTER_NULL -> step.addLog(LogEntry.info(step.getName(),
+                    "Filtered on '" + params.get("column") + "': removed " + state.removed
+                    + " null/blank rows, " + state.rows + " remaining"));
+            case LOOKUP -> step.addLog(LogEntry.summary(step.getName(), String.format(
+                    "LOOKUP '%s' → '%s' via %s.%s: %d resolved, %d set to null",
+                    params.get("sourceColumn"), params.get("targetColumn"), params.get("referenceTable"),
+                    params.get("referenceValueColumn"), state.resolved, state.nulled)));
+            case INSERT -> {
+                boolean upsertMode = Boolean.TRUE.equals(params.get("upsertMode"));
+                if (upsertMode || Boolean.TRUE.equals(params.get("skipExisting"))) {
+                    step.addLog(LogEntry.info(step.getName(),
+                            (state.inserted + state.failed) + " new rows to insert, "
+                            + state.existing + " existing rows"
+                            + (upsertMode ? " to update" : " skipped")));
+                }
+                if (state.failed > 0) {
+                    step.addLog(LogEntry.warn(step.getName(),
+                            state.failed + " row(s) rejected by the database; see adapter logs"
+                            + (state.isolationRoundTrips > 0
+                                    ? " (" + state.isolationRoundTrips + " extra round-trips to isolate them)" : "")));
+                }
+                step.addLog(LogEntry.summary(step.getName(),
+                        "Inserted " + state.inserted
+                        + (state.failed > 0 ? " (" + state.failed + " failed)" : "")
+                        + ", updated " + state.updated
+                        + " records (" + (state.mappings != null ? state.mappings.size() : 0) + " columns mapped)"));
             }
+            case VALIDATE_REFERENCE -> step.addLog(LogEntry.summary(step.getName(), String.format(
+                    "VALIDATE_REFERENCE '%s' → '%s.%s': %d invalid values cleared",
+                    params.get("fieldColumn"), params.get("referenceTable"),
+                    params.getOrDefault("referenceIdColumn", "ID"), state.cleared)));
+            case LINK_PARENT -> step.addLog(LogEntry.summary(step.getName(), String.format(
+                    "LINK_PARENT: %d linked, %d parent not found, %d unknown parentType",
+                    state.linked, state.notFound, state.unknownType)));
+            default -> { }
         }
     }
 
+    // ======================== PERSISTENCE ========================
+
     private void executePersistenceStep(Step step, List<Action> data, List<String> excelHeaders,
-                                       LocalDate ingestDate, String sheetTableName) {
+                                       LocalDate ingestDate, String sheetTableName, StepState state) {
+        if (state.disabled) return;
         log.debug("Executing persistence step: {}", step.getStepType());
 
         Map<String, Object> params = new HashMap<>(step.getParameters());
@@ -341,10 +903,14 @@ public class DefaultJobProcessor implements JobProcessor {
                 persistencePort.truncate(params);
                 step.addLog(LogEntry.info(step.getName(),
                         "Table '" + params.get("tableName") + "' truncated"));
+                state.done = true;
             }
             case INSERT -> {
-                // Resolve mappings: auto-map Excel headers → DB columns
-                List<DatabaseMapping> mappings = resolveMappings(params, excelHeaders);
+                // Resolve mappings once per step: auto-map Excel headers → DB columns
+                if (state.mappings == null) {
+                    state.mappings = resolveMappings(params, excelHeaders);
+                }
+                List<DatabaseMapping> mappings = state.mappings;
 
                 String tableName = (String) params.getOrDefault("tableName", "ingesta_data");
                 String schema = (String) params.get("schema");
@@ -352,18 +918,32 @@ public class DefaultJobProcessor implements JobProcessor {
                 boolean skipExisting = Boolean.TRUE.equals(params.get("skipExisting"));
                 boolean upsertMode = Boolean.TRUE.equals(params.get("upsertMode"));
 
+                int batchSize = ((Number) params.getOrDefault("_batchSize", 500)).intValue();
+                if ((skipExisting || upsertMode) && !state.mergeUnsupported
+                        && "MERGE".equalsIgnoreCase(String.valueOf(params.get("upsertStrategy")))
+                        && mergeRows(step, data, mappings, params, idColumn, upsertMode, batchSize, state)) {
+                    return;
+                }
+
                 List<Action> toInsert = data;
                 List<Action> toUpdate = List.of();
 
                 if (skipExisting || upsertMode) {
-                    String excelIdCol = findExcelColumnForDbColumn(idColumn, mappings);
-                    Set<Object> existingIds = persistencePort.loadExistingIds(tableName, schema, idColumn);
+                    if (state.existingIds == null) {
+                        state.excelIdColumn = findExcelColumnForDbColumn(idColumn, mappings);
+                        state.existingIds = persistencePort.loadExistingIdIndex(tableName, schema, idColumn,
+                                (String) params.get("existingIdsTimestampColumn"), ingestDate);
+                        step.getMetrics().addCustomMetric("existingIds", state.existingIds.size());
+                        step.getMetrics().addCustomMetric("existingIdIndexBytes", state.existingIds.sizeInBytes());
+                    }
+                    String excelIdCol = state.excelIdColumn;
+                    CompactIdIndex existingIds = state.existingIds;
 
                     List<Action> newRows = new ArrayList<>(data.size() / 2);
                     List<Action> existingRows = new ArrayList<>(data.size() / 2);
                     for (Action action : data) {
                         Object idVal = action.get(excelIdCol);
-                        if (idVal != null && existingIds.contains(idVal.toString())) {
+                        if (idVal != null && existingIds.contains(idVal)) {
                             existingRows.add(action);
                         } else if (idVal != null) {
                             newRows.add(action);
@@ -374,25 +954,16 @@ public class DefaultJobProcessor implements JobProcessor {
                     if (upsertMode) {
                         toUpdate = existingRows;
                     }
-                    step.addLog(LogEntry.info(step.getName(),
-                            toInsert.size() + " new rows to insert, "
-                            + existingRows.size() + " existing rows"
-                            + (upsertMode ? " to update" : " skipped")));
+                    state.existing += existingRows.size();
                 }
 
                 // INSERT new rows. The adapter bisects on batch failure so good
                 // rows survive; the returned InsertResult reports how many rows
                 // were persisted vs. rejected per chunk.
-                int batchSize = ((Number) params.getOrDefault("_batchSize", 500)).intValue();
-                int totalAttempted = toInsert.size();
-                int insertedOk = 0;
-                int insertedFailed = 0;
-                for (int i = 0; i < totalAttempted; i += batchSize) {
-                    List<Action> chunk = toInsert.subList(i, Math.min(i + batchSize, totalAttempted));
-                    InsertResult result = persistencePort.insertData(chunk, mappings, params);
-                    insertedOk += result.inserted();
-                    insertedFailed += result.failed();
-                }
+                int writerParallelism = ((Number) params.getOrDefault("writerParallelism", 1)).intValue();
+                InsertResult inserted = insertChunks(toInsert, mappings, params, batchSize, writerParallelism);
+                int insertedOk = inserted.inserted();
+                int insertedFailed = inserted.failed();
 
                 // UPDATE existing rows (upsert mode)
                 int totalUpdated = toUpdate.size();
@@ -406,26 +977,76 @@ public class DefaultJobProcessor implements JobProcessor {
                 step.getMetrics().incrementProcessed(insertedOk + totalUpdated);
                 if (insertedFailed > 0) {
                     step.getMetrics().incrementFailed(insertedFailed);
-                    step.addLog(LogEntry.warn(step.getName(),
-                            insertedFailed + " row(s) rejected by the database; see adapter logs"));
                 }
-                step.addLog(LogEntry.summary(step.getName(),
-                        "Inserted " + insertedOk
-                        + (insertedFailed > 0 ? " (" + insertedFailed + " failed)" : "")
-                        + ", updated " + totalUpdated
-                        + " records (" + mappings.size() + " columns mapped)"));
+                state.inserted += insertedOk;
+                state.failed += insertedFailed;
+                state.updated += totalUpdated;
+                if (inserted.isolationRoundTrips() > 0) {
+                    state.isolationRoundTrips += inserted.isolationRoundTrips();
+                    step.getMetrics().addCustomMetric("isolationRoundTrips", state.isolationRoundTrips);
+                }
             }
             case SELECT -> {
                 persistencePort.check(null, params);
                 step.addLog(LogEntry.info(step.getName(), "Check completed"));
+                state.done = true;
+            }
+            case LINK_PARENT -> executeLinkParent(step, data, params, state);
+            case VALIDATE_REFERENCE -> executeValidateReference(step, data, params, state);
+            default -> {
+                step.addLog(LogEntry.warn(step.getName(),
+                        "Unknown persistence type: " + step.getStepType()));
+                state.disabled = true;
             }
-            case LINK_PARENT -> executeLinkParent(step, data, params);
-            case VALIDATE_REFERENCE -> executeValidateReference(step, data, params);
-            default -> step.addLog(LogEntry.warn(step.getName(),
-                    "Unknown persistence type: " + step.getStepType()));
         }
     }
 
+    /**
+     * {@code upsertStrategy: MERGE}: hands the rows to {@link PersistencePort#mergeData} chunk by
+     * chunk, so the database decides insert-vs-update and no ID set is loaded. Rows without an id
+     * are dropped, as the Java-side split drops them.
+     *
+     * @return false if the database has no MERGE; the step then falls back to the split, for this
+     *         and every later chunk
+     */
+    private boolean mergeRows(Step step, List<Action> data, List<DatabaseMapping> mappings, Map<String, Object> params,
+                              String idColumn, boolean upsertMode, int batchSize, StepState state) {
+        if (state.excelIdColumn == null) {
+            state.excelIdColumn = findExcelColumnForDbColumn(idColumn, mappings);
+        }
+        List<Action> rows = new ArrayList<>(data.size());
+        for (Action action : data) {
+            if (action.get(state.excelIdColumn) != null) rows.add(action);
+        }
+
+        for (int i = 0; i < rows.size(); i += batchSize) {
+            List<Action> chunk = rows.subList(i, Math.min(i + batchSize, rows.size()));
+            MergeResult merged = persistencePort.mergeData(chunk, mappings, params, idColumn, upsertMode);
+            if (merged == null) {
+                // Support is a property of the database: it can only be missing from the first chunk on.
+                if (i > 0) throw new IllegalStateException("MERGE stopped being supported mid-step");
+                state.mergeUnsupported = true;
+                step.addLog(LogEntry.warn(step.getName(),
+                        "upsertStrategy MERGE is not supported by the target database; loading existing IDs instead"));
+                return false;
+            }
+            int updated = upsertMode ? merged.matched() : 0;
+            step.getMetrics().incrementProcessed(merged.inserted() + updated);
+            if (merged.failed() > 0) {
+                step.getMetrics().incrementFailed(merged.failed());
+            }
+            state.inserted += merged.inserted();
+            state.failed += merged.failed();
+            state.updated += updated;
+            state.existing += merged.matched();
+            if (merged.isolationRoundTrips() > 0) {
+                state.isolationRoundTrips += merged.isolationRoundTrips();
+                step.getMetrics().addCustomMetric("isolationRoundTrips", state.isolationRoundTrips);
+            }
+        }
+        return true;
+    }
+
     /**
      * Resolves column mappings from step parameters.
      * If autoMap is enabled (default), uses ColumnAutoMapper to match Excel headers to DB columns.
@@ -474,7 +1095,8 @@ public class DefaultJobProcessor implements JobProcessor {
         return List.of();
     }
 
-    private void executeValidateReference(Step step, List<Action> data, Map<String, Object> params) {
+    private void executeValidateReference(Step step, List<Action> data, Map<String, Object> params,
+                                          StepState state) {
         String fieldColumn       = (String) params.get("fieldColumn");
         String referenceTable    = (String) params.get("referenceTable");
         String referenceIdColumn = (String) params.getOrDefault("referenceIdColumn", "ID");
@@ -485,39 +1107,113 @@ public class DefaultJobProcessor implements JobProcessor {
         String currentEntityType = (String) params.getOrDefault("currentEntityType", "Unknown");
         LocalDate ingestDate     = (LocalDate) params.getOrDefault("_ingestDate", LocalDate.now());
 
-        // Load all valid reference IDs in one query (cache)
-        Set<Object> validIds = persistencePort.loadReferenceIds(
-                referenceTable, schema, referenceIdColumn, timestampColumn, ingestDate);
-        log.debug("VALIDATE_REFERENCE: loaded {} valid IDs from {}", validIds.size(), referenceTable);
+        // Load all valid reference IDs in one query, shared by every step of the run that needs them
+        if (state.referenceIds == null) {
+            state.referenceIds = referenceSets.get(referenceTable, schema, referenceIdColumn, timestampColumn,
+                    ingestDate, true, () -> persistencePort.loadReferenceIndex(
+                            referenceTable, schema, referenceIdColumn, timestampColumn, ingestDate));
+            log.debug("VALIDATE_REFERENCE: loaded {} valid IDs from {}", state.referenceIds.size(), referenceTable);
+        }
+        // Matched by canonical key, so a Double 12345.0 from the file finds the reference id "12345"
+        CompactIdIndex validIds = state.referenceIds;
 
-        int cleared = 0;
-        for (Action action : data) {
-            Object fieldValue = action.get(fieldColumn);
-            if (fieldValue == null || fieldValue.toString().isBlank()) continue;
+        RowBuffer etlLog = etlLogBuffer(etlLogTable, schema, params);
+        try {
+            writingBuffers(etlLog, List.of(), () -> {
+                for (Action action : data) {
+                    Object fieldValue = action.get(fieldColumn);
+                    if (fieldValue == null || fieldValue.toString().isBlank()) continue;
+
+                    if (!validIds.contains(fieldValue)) {
+                        String currentId = idColumn != null ? String.valueOf(action.get(idColumn)) : "?";
+                        log.debug("VALIDATE_REFERENCE [{}]: value '{}' not found in '{}'. Record ID='{}'",
+                                fieldColumn, fieldValue, referenceTable, currentId);
+                        step.addLog(LogEntry.trace(step.getName(), String.format(
+                                "VALIDATE_REFERENCE [%s]: value '%s' not found in '%s'. Record ID='%s'",
+                                fieldColumn, fieldValue, referenceTable, currentId)));
+                        insertEtlLog(etlLog,
+                                "Unknown", fieldColumn, fieldValue.toString(),
+                                currentEntityType, currentId, "loading data with empty value", ingestDate);
+                        action.data().put(fieldColumn, "");
+                        state.cleared++;
+                    }
+                }
+            });
+        } finally {
+            countEtlLog(etlLog, step, state);
+        }
 
-            if (!validIds.contains(fieldValue)) {
-                String currentId = idColumn != null ? String.valueOf(action.get(idColumn)) : "?";
-                log.debug("VALIDATE_REFERENCE [{}]: value '{}' not found in '{}'. Record ID='{}'",
-                        fieldColumn, fieldValue, referenceTable, currentId);
-                step.addLog(LogEntry.trace(step.getName(), String.format(
-                        "VALIDATE_REFERENCE [%s]: value '%s' not found in '%s'. Record ID='%s'",
-                        fieldColumn, fieldValue, referenceTable, currentId)));
-                insertEtlLog(etlLogTable, schema,
-                        "Unknown", fieldColumn, fieldValue.toString(),
-                        currentEntityType, currentId, "loading data with empty value", ingestDate);
-                action.data().put(fieldColumn, "");
-                cleared++;
+        step.getMetrics().incrementProcessed(data.size());
+    }
+
+    /**
+     * Inserts {@code rows} in chunks of {@code batchSize}. With {@code writerParallelism > 1} the
+     * chunks are spread over that many writer threads. Each worker runs its chunks in their own
+     * {@code REQUIRES_NEW} transactions on its own pooled connection, so bisection stays per chunk.
+     * When there are fewer than {@code writerParallelism} full chunks, as with one streaming chunk,
+     * the rows are cut into smaller chunks so every writer gets work. Results are summed in chunk
+     * order. If a chunk throws, chunks not yet started are skipped and the first failure is rethrown,
+     * as the sequential loop would.
+     */
+    private InsertResult insertChunks(List<Action> rows, List<DatabaseMapping> mappings,
+                                      Map<String, Object> params, int batchSize, int writerParallelism) {
+        if (writerParallelism > 1) {
+            batchSize = Math.max(1, Math.min(batchSize, (rows.size() + writerParallelism - 1) / writerParallelism));
+        }
+        List<List<Action>> chunks = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i += batchSize) {
+            chunks.add(rows.subList(i, Math.min(i + batchSize, rows.size())));
+        }
+
+        InsertResult total = InsertResult.EMPTY;
+        if (writerParallelism <= 1 || chunks.size() <= 1) {
+            for (List<Action> chunk : chunks) {
+                total = total.plus(persistencePort.insertData(chunk, mappings, params));
             }
+            return total;
         }
 
-        step.getMetrics().incrementProcessed(data.size());
-        step.addLog(LogEntry.summary(step.getName(), String.format(
-                "VALIDATE_REFERENCE '%s' → '%s.%s': %d invalid values cleared",
-                fieldColumn, referenceTable, referenceIdColumn, cleared)));
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<CompletableFuture<InsertResult>> futures = new ArrayList<>(chunks.size());
+        ExecutorService writers = Executors.newFixedThreadPool(Math.min(writerParallelism, chunks.size()));
+        try {
+            for (List<Action> chunk : chunks) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    if (aborted.get()) return InsertResult.EMPTY;
+                    try {
+                        return persistencePort.insertData(chunk, mappings, params);
+                    } catch (RuntimeException e) {
+                        aborted.set(true);
+                        throw e;
+                    }
+                }, writers));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        } finally {
+            writers.shutdown();
+        }
+        for (CompletableFuture<InsertResult> future : futures) {
+            try {
+                total = total.plus(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+        return total;
     }
 
+    /**
+     * Links each row to its parent through the rule for its {@code parentTypeColumn}. The ids of
+     * each rule's {@code checkTable} for the ingest date are loaded into a {@link CompactIdIndex}
+     * (one streaming query per table, shared by the run's steps through {@link ReferenceSetCache}),
+     * so parents are resolved in memory
+     * instead of by one {@code checkExists} query per row. Relation rows are buffered per
+     * {@code relationTable} and written in batches of {@code _batchSize}; the round-trips this saves
+     * over the per-row queries and inserts go to the {@code roundTripsSaved} metric.
+     */
     @SuppressWarnings("unchecked")
-    private void executeLinkParent(Step step, List<Action> data, Map<String, Object> params) {
+    private void executeLinkParent(Step step, List<Action> data, Map<String, Object> params, StepState state) {
         String idColumn           = (String) params.get("idColumn");
         String parentPathColumn   = (String) params.get("parentPathColumn");
         String parentObjColumn    = (String) params.get("parentObjectsColumn");
@@ -531,68 +1227,223 @@ public class DefaultJobProcessor implements JobProcessor {
         String etlLogTable        = (String) params.get("etlLogTable");
         String currentEntityType  = (String) params.getOrDefault("currentEntityType", "Unknown");
         LocalDate ingestDate      = (LocalDate) params.getOrDefault("_ingestDate", LocalDate.now());
+        int batchSize             = ((Number) params.getOrDefault("_batchSize", 500)).intValue();
 
         List<Map<String, Object>> rules = (List<Map<String, Object>>) params.get("rules");
+        if ("SET_BASED".equalsIgnoreCase(String.valueOf(params.get("linkMode"))) && !state.setBasedUnsupported
+                && linkSetBased(step, data, params, rules, state)) {
+            return;
+        }
+        if (state.parentIds == null) {
+            state.parentIds = new HashMap<>();
+        }
+
+        RowBuffer etlLog = etlLogBuffer(etlLogTable, schema, params);
+        Map<String, RowBuffer> relations = new LinkedHashMap<>();
+        try {
+            writingBuffers(etlLog, relations.values(), () -> {
+                for (Action action : data) {
+                    Object parentTypeVal = action.get(parentTypeColumn);
+                    if (parentTypeVal == null || parentTypeVal.toString().isBlank()) continue;
+
+                    String parentType = parentTypeVal.toString().trim();
+                    String parentId   = buildParentId(action, parentPathColumn, parentObjColumn, separator);
+                    String currentId  = String.valueOf(action.get(idColumn));
+
+                    Map<String, Object> rule = findRule(rules, parentType);
+
+                    if (rule != null) {
+                        String checkTable       = (String) rule.get("checkTable");
+                        String relationTable    = (String) rule.get("relationTable");
+                        String parentEntityType = (String) rule.getOrDefault("parentEntityType", checkTable);
+
+                        CompactIdIndex parents = state.parentIds.get(checkTable);
+                        if (parents == null) {
+                            // Exact, like the set-based EXISTS: the relation row gets the file's parentId
+                            parents = referenceSets.get(checkTable, schema, checkIdColumn, timestampColumn,
+                                    ingestDate, false, () -> persistencePort.loadExistingIdIndex(
+                                            checkTable, schema, checkIdColumn, timestampColumn, ingestDate));
+                            state.parentIds.put(checkTable, parents);
+                            log.debug("LINK_PARENT: loaded {} ids from {}", parents.size(), checkTable);
+                        }
+                        state.parentChecks++;
+
+                        if (parents.contains(parentId)) {
+                            Map<String, Object> row = new LinkedHashMap<>();
+                            row.put(id1Column, currentId);
+                            row.put(id2Column, parentId);
+                            row.put(timestampColumn, ingestDate);
+                            Map<String, Object> extraColumns = (Map<String, Object>) rule.get("extraColumns");
+                            if (extraColumns != null) {
+                                row.putAll(extraColumns);
+                            }
+                            relations.computeIfAbsent(relationTable,
+                                    t -> new RowBuffer(persistencePort, t, schema, batchSize)).add(row);
+                            state.linked++;
+                        } else {
+                            log.debug("LINK_PARENT [{}]: parent '{}' not found in '{}'. Record ID='{}'",
+                                    parentType, parentId, checkTable, currentId);
+                            step.addLog(LogEntry.trace(step.getName(), String.format(
+                                    "Not found %s [%s] for %s node (%s) [%s], relationship not loaded",
+                                    parentEntityType, parentId, currentEntityType, step.getName(), currentId)));
+                            insertEtlLog(etlLog, parentEntityType, parentId,
+                                    currentEntityType, currentId, "Unknown", "relationship not loaded", ingestDate);
+                            state.notFound++;
+                        }
+                    } else {
+                        log.warn("LINK_PARENT: unknown parentType='{}'. Record ID='{}'", parentType, currentId);
+                        insertEtlLog(etlLog, "Unknown", parentType,
+                                currentEntityType, currentId, "Unknown", "relationship not loaded", ingestDate);
+                        state.unknownType++;
+                    }
+                }
+            });
+        } finally {
+            for (RowBuffer relation : relations.values()) {
+                state.relationBatches += relation.flushes();
+            }
+            countEtlLog(etlLog, step, state);
+            recordRoundTripsSaved(step, state);
+        }
+    }
 
-        int linked = 0, notFound = 0, unknownType = 0;
+    /**
+     * {@code linkMode: SET_BASED}: the chunk's links go to {@link PersistencePort#linkParents},
+     * which stages them in the database and resolves every rule with a couple of statements, so
+     * no parent ids are loaded into the JVM. Orphans are logged to ETL_LOG by the database,
+     * grouped by rule, and get no TRACE entry; rows with an unknown parent type are handled here
+     * as in memory mode.
+     *
+     * @return false if the database has no staging path; the step then resolves parents in memory,
+     *         for this and every later chunk
+     */
+    private boolean linkSetBased(Step step, List<Action> data, Map<String, Object> params,
+                                 List<Map<String, Object>> rules, StepState state) {
+        String idColumn          = (String) params.get("idColumn");
+        String parentPathColumn  = (String) params.get("parentPathColumn");
+        String parentObjColumn   = (String) params.get("parentObjectsColumn");
+        String parentTypeColumn  = (String) params.get("parentTypeColumn");
+        String separator         = (String) params.getOrDefault("separator", "/");
+        String schema            = (String) params.get("schema");
+        String etlLogTable       = (String) params.get("etlLogTable");
+        String currentEntityType = (String) params.getOrDefault("currentEntityType", "Unknown");
+        LocalDate ingestDate     = (LocalDate) params.getOrDefault("_ingestDate", LocalDate.now());
 
+        List<ParentLink> links = new ArrayList<>();
+        List<String[]> unknownTypes = new ArrayList<>();
         for (Action action : data) {
             Object parentTypeVal = action.get(parentTypeColumn);
             if (parentTypeVal == null || parentTypeVal.toString().isBlank()) continue;
 
             String parentType = parentTypeVal.toString().trim();
-            String parentId   = buildParentId(action, parentPathColumn, parentObjColumn, separator);
             String currentId  = String.valueOf(action.get(idColumn));
+            int rule = ruleIndex(rules, parentType);
+            if (rule < 0) {
+                unknownTypes.add(new String[]{parentType, currentId});
+            } else {
+                links.add(new ParentLink(currentId,
+                        buildParentId(action, parentPathColumn, parentObjColumn, separator), rule));
+            }
+        }
 
-            Map<String, Object> rule = findRule(rules, parentType);
-
-            if (rule != null) {
-                String checkTable       = (String) rule.get("checkTable");
-                String relationTable    = (String) rule.get("relationTable");
-                String parentEntityType = (String) rule.getOrDefault("parentEntityType", checkTable);
-
-                boolean exists = persistencePort.checkExists(
-                        checkTable, schema, checkIdColumn, parentId, timestampColumn, ingestDate);
-
-                if (exists) {
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    row.put(id1Column, currentId);
-                    row.put(id2Column, parentId);
-                    row.put(timestampColumn, ingestDate);
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> extraColumns = (Map<String, Object>) rule.get("extraColumns");
-                    if (extraColumns != null) {
-                        row.putAll(extraColumns);
-                    }
-                    persistencePort.insertRow(relationTable, schema, row);
-                    linked++;
-                } else {
-                    log.debug("LINK_PARENT [{}]: parent '{}' not found in '{}'. Record ID='{}'",
-                            parentType, parentId, checkTable, currentId);
-                    step.addLog(LogEntry.trace(step.getName(), String.format(
-                            "Not found %s [%s] for %s node (%s) [%s], relationship not loaded",
-                            parentEntityType, parentId, currentEntityType, step.getName(), currentId)));
-                    insertEtlLog(etlLogTable, schema, parentEntityType, parentId,
-                            currentEntityType, currentId, "Unknown", "relationship not loaded", ingestDate);
-                    notFound++;
+        LinkResult result = persistencePort.linkParents(links, rules, params);
+        if (result == null) {
+            // Support is a property of the database: it can only be missing from the first chunk on.
+            if (state.linkStatements > 0) {
+                throw new IllegalStateException("SET_BASED linking stopped being supported mid-step");
+            }
+            state.setBasedUnsupported = true;
+            step.addLog(LogEntry.warn(step.getName(),
+                    "linkMode SET_BASED is not supported by the target database; resolving parents in memory instead"));
+            return false;
+        }
+        state.parentChecks += links.size();
+        state.linked += result.linked();
+        state.notFound += result.notFound();
+        state.linkStatements += result.statements();
+        if (etlLogTable != null) state.orphanLogRows += result.notFound();
+
+        RowBuffer etlLog = etlLogBuffer(etlLogTable, schema, params);
+        try {
+            writingBuffers(etlLog, List.of(), () -> {
+                for (String[] unknown : unknownTypes) {
+                    log.warn("LINK_PARENT: unknown parentType='{}'. Record ID='{}'", unknown[0], unknown[1]);
+                    insertEtlLog(etlLog, "Unknown", unknown[0],
+                            currentEntityType, unknown[1], "Unknown", "relationship not loaded", ingestDate);
+                    state.unknownType++;
                 }
-            } else {
-                log.warn("LINK_PARENT: unknown parentType='{}'. Record ID='{}'", parentType, currentId);
-                insertEtlLog(etlLogTable, schema, "Unknown", parentType,
-                        currentEntityType, currentId, "Unknown", "relationship not loaded", ingestDate);
-                unknownType++;
+            });
+        } finally {
+            countEtlLog(etlLog, step, state);
+            recordRoundTripsSaved(step, state);
+        }
+        return true;
+    }
+
+    /**
+     * Per row, LINK_PARENT used to make one {@code checkExists} query, one {@code insertRow} per
+     * relation and one per ETL_LOG entry; the {@code roundTripsSaved} metric is those minus the
+     * preload queries, batch writes and set-based statements made instead.
+     */
+    private static void recordRoundTripsSaved(Step step, StepState state) {
+        long perRow = state.parentChecks + state.linked + state.etlLogRows + state.orphanLogRows;
+        long made = (state.parentIds != null ? state.parentIds.size() : 0)
+                + state.relationBatches + state.etlLogBatches + state.linkStatements;
+        step.getMetrics().addCustomMetric("roundTripsSaved", Math.max(0, perRow - made));
+    }
+
+    /** A buffer for the step's ETL_LOG rows, or null if the step has no {@code etlLogTable}. */
+    private RowBuffer etlLogBuffer(String etlLogTable, String schema, Map<String, Object> params) {
+        if (etlLogTable == null) return null;
+        int flushSize = ((Number) params.getOrDefault("etlLogBatchSize", etlLogBatchSize)).intValue();
+        return new RowBuffer(persistencePort, etlLogTable, schema, flushSize);
+    }
+
+    /**
+     * Runs {@code pass} over the rows, then writes what is left in {@code others} and
+     * {@code etlLog} (either may be empty / null). If the pass fails, the rows it buffered before
+     * failing are still written, as the per-row inserts used to be; an error writing them is
+     * added as suppressed so the pass's failure is the one reported.
+     */
+    private static void writingBuffers(RowBuffer etlLog, Collection<RowBuffer> others, Runnable pass) {
+        try {
+            pass.run();
+        } catch (RuntimeException e) {
+            for (RowBuffer buffer : others) {
+                flushSuppressed(buffer, e);
             }
+            if (etlLog != null) flushSuppressed(etlLog, e);
+            throw e;
         }
+        for (RowBuffer buffer : others) {
+            buffer.flush();
+        }
+        if (etlLog != null) etlLog.flush();
+    }
 
-        step.addLog(LogEntry.summary(step.getName(), String.format(
-                "LINK_PARENT: %d linked, %d parent not found, %d unknown parentType",
-                linked, notFound, unknownType)));
+    private static void flushSuppressed(RowBuffer buffer, RuntimeException failure) {
+        try {
+            buffer.flush();
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
     }
 
-    private void insertEtlLog(String etlLogTable, String schema,
+    /** Adds what {@code etlLog} wrote to the step's {@code etlLogRows} / {@code etlLogBatches} metrics. */
+    private static void countEtlLog(RowBuffer etlLog, Step step, StepState state) {
+        if (etlLog == null) return;
+        state.etlLogRows += etlLog.written();
+        state.etlLogBatches += etlLog.flushes();
+        if (state.etlLogRows > 0) {
+            step.getMetrics().addCustomMetric("etlLogRows", state.etlLogRows);
+            step.getMetrics().addCustomMetric("etlLogBatches", state.etlLogBatches);
+        }
+    }
+
+    private void insertEtlLog(RowBuffer etlLog,
                               String whereA, String a, String whereB,
                               String b, String cause, String action, LocalDate date) {
-        if (etlLogTable == null) return;
+        if (etlLog == null) return;
         Map<String, Object> row = new LinkedHashMap<>();
         row.put("WHERE_A", whereA);
         row.put("A", a);
@@ -601,7 +1452,7 @@ public class DefaultJobProcessor implements JobProcessor {
         row.put("CAUSE", cause);
         row.put("ACTION", action);
         row.put("TIMESTAMP", date);
-        persistencePort.insertRow(etlLogTable, schema, row);
+        etlLog.add(row);
     }
 
     private String buildParentId(Action action, String pathColumn, String objectsColumn, String separator) {
@@ -618,6 +1469,14 @@ public class DefaultJobProcessor implements JobProcessor {
                 .orElse(dbColumn);
     }
 
+    private static int ruleIndex(List<Map<String, Object>> rules, String parentType) {
+        if (rules == null) return -1;
+        for (int i = 0; i < rules.size(); i++) {
+            if (parentType.equals(rules.get(i).get("parentType"))) return i;
+        }
+        return -1;
+    }
+
     private Map<String, Object> findRule(List<Map<String, Object>> rules, String parentType) {
         if (rules == null) return null;
         return rules.stream()
@@ -657,4 +1516,185 @@ public class DefaultJobProcessor implements JobProcessor {
                 .allMatch(t -> t.getStatus() == Status.FAILED);
         return allTasksFailed ? Status.FAILED : Status.PARTIAL;
     }
+
+    /**
+     * Carries a slice of the job's tasks across the chunks of one stream: per-step state, the tasks
+     * still active and whether any failed. Streaming mode drives one runner over all tasks;
+     * pipelined mode one per stage, each used only from its stage's thread. {@code stopped} is
+     * shared, so a {@code stopOnFailure} task in one stage also stops the other.
+     */
+    private final class ChunkRunner {
+        private final Job job;
+        private final List<Task> tasks;
+        private final LocalDate ingestDate;
+        private final String sheetTableName;
+        private final AtomicBoolean stopped;
+        private final Map<Step, StepState> states = new IdentityHashMap<>();
+        private final List<Task> active = new ArrayList<>();
+        /** Size of {@link #active}, readable from other stages. */
+        private volatile int activeCount;
+        boolean failed;
+
+        ChunkRunner(Job job, List<Task> tasks, LocalDate ingestDate, String sheetTableName, AtomicBoolean stopped) {
+            this.job = job;
+            this.tasks = tasks;
+            this.ingestDate = ingestDate;
+            this.sheetTableName = sheetTableName;
+            this.stopped = stopped;
+        }
+
+        /** Starts every task and step; one-shot steps (TRUNCATE, SELECT) run here. */
+        void open() {
+            for (Task task : tasks) {
+                task.start();
+                log.info("Streaming task: {} (type: {})", task.getName(), task.getTaskType());
+                try {
+                    for (Step step : task.getSteps()) {
+                        step.start();
+                        StepState state = new StepState();
+                        states.put(step, state);
+                        if (isOneShot(task, step)) {
+                            runStep(task, step, List.of(), List.of(), ingestDate, sheetTableName, state);
+                        }
+                    }
+                    active.add(task);
+                } catch (Exception e) {
+                    fail(task, e);
+                    if (stopped.get()) break;
+                }
+            }
+            activeCount = active.size();
+        }
+
+        boolean hasActive() {
+            return activeCount > 0;
+        }
+
+        /** Runs the active tasks over one chunk, in declaration order. A no-op once the stream is stopped. */
+        void run(List<Action> chunk, List<String> excelHeaders) {
+            if (stopped.get()) return;
+            for (Iterator<Task> taskIt = active.iterator(); taskIt.hasNext(); ) {
+                Task task = taskIt.next();
+                try {
+                    for (Step step : task.getSteps()) {
+                        runStep(task, step, chunk, excelHeaders, ingestDate, sheetTableName, states.get(step));
+                    }
+                    if (task.getTaskType() == TaskType.TRANSFORMATION) {
+                        task.getMetrics().incrementProcessed(chunk.size());
+                    }
+                } catch (Exception e) {
+                    taskIt.remove();
+                    activeCount = active.size();
+                    fail(task, e);
+                    if (stopped.get()) break;
+                }
+            }
+        }
+
+        /** Emits each step's SUMMARY and completes the tasks that are still active. */
+        void close() {
+            Status closing = stopped.get() ? Status.PARTIAL : Status.SUCCESS;
+            for (Task task : active) {
+                try {
+                    for (Step step : task.getSteps()) {
+                        if (step.getStatus() != Status.RUNNING) continue;
+                        logStepSummary(step, states.get(step));
+                        step.complete(closing);
+                    }
+                    if (task.getStatus() == Status.RUNNING) {
+                        task.complete(closing);
+                    }
+                } catch (Exception e) {
+                    failed = true;
+                    synchronized (job) {
+                        failStreamingTask(job, task, e);
+                    }
+                }
+            }
+        }
+
+        private void fail(Task task, Exception e) {
+            failed = true;
+            boolean stop;
+            synchronized (job) {
+                stop = failStreamingTask(job, task, e);
+            }
+            if (stop) stopped.set(true);
+        }
+    }
+
+    /** Rows and chunks read from one stream, with progress logged every 10% of the expected size. */
+    private static final class StreamProgress {
+        private final Job job;
+        private final FileMetadata expected;
+        private long rowsRead;
+        private int chunks;
+        private int nextProgress = 10;
+
+        StreamProgress(Job job, FileMetadata expected) {
+            this.job = job;
+            this.expected = expected;
+        }
+
+        void chunkRead(int rows) {
+            rowsRead += rows;
+            chunks++;
+            log.debug("Streaming chunk {} ({} rows, {} read so far)", chunks, rows, rowsRead);
+            if (expected != null && expected.records() > 0) {
+                int percent = (int) Math.min(100, rowsRead * 100 / expected.records());
+                if (percent >= nextProgress) {
+                    log.info("Job '{}': streamed {} of {}{} rows ({}%)", job.getName(), rowsRead,
+                            expected.exact() ? "" : "~", expected.records(), percent);
+                    nextProgress = percent / 10 * 10 + 10;
+                }
+            }
+        }
+
+        void finish(String sheetTableName, List<String> excelHeaders) {
+            String source = sheetTableName != null ? "Sheet '" + sheetTableName + "'" : "File";
+            if (sheetTableName == null) {
+                job.getMetrics().addCustomMetric("totalRowsRead", rowsRead);
+            }
+            job.addLog(LogEntry.info(job.getName(), source + ": streamed " + rowsRead + " rows in " + chunks
+                    + " chunk(s), columns: " + (excelHeaders != null ? excelHeaders : List.of())));
+        }
+    }
+
+    /**
+     * Scratch state for one step execution. In-memory mode uses a fresh one per step; streaming mode
+     * keeps one per step for the whole stream so reference data (lookup map, reference ids, resolved
+     * mappings, dedup keys) is loaded once and the SUMMARY log covers every chunk.
+     */
+    private static final class StepState {
+        boolean disabled;   // required parameters missing: warned once, remaining chunks are skipped
+        boolean done;       // one-shot step (TRUNCATE, SELECT) already executed
+        CompactStringMap lookupMap;
+        Set<Object> seenKeys;
+        CompactIdIndex referenceIds;
+        List<DatabaseMapping> mappings;
+        CompactIdIndex existingIds;
+        Map<String, CompactIdIndex> parentIds;   // LINK_PARENT: ids of each checkTable for the ingest date
+        String excelIdColumn;
+        boolean mergeUnsupported;   // upsertStrategy MERGE fell back to the Java-side split
+        long rows;
+        long removed;
+        long resolved;
+        long nulled;
+        long inserted;
+        long failed;
+        long updated;
+        long isolationRoundTrips;
+        long existing;
+        long cleared;
+        long linked;
+        long notFound;
+        long unknownType;
+        long etlLogRows;
+        long etlLogBatches;
+        long parentChecks;
+        long relationBatches;
+        boolean setBasedUnsupported;   // linkMode SET_BASED fell back to in-memory resolution
+        long linkStatements;
+        long orphanLogRows;
+    }
 }
@@ -130,20 +130,27 @@ public class IngestaService implements ExecuteProcessUseCase {
                 }
             }
 
-            // 4. Process all jobs (in parallel if ingesta.parallel-jobs > 1)
-            if (parallelJobs > 1 && jobs.size() > 1) {
-                ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelJobs, jobs.size()));
-                try {
-                    List<CompletableFuture<Void>> futures = jobs.stream()
-                            .map(job -> CompletableFuture.runAsync(
-                                    () -> jobProcessor.process(List.of(job)), pool))
-                            .toList();
-                    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-                } finally {
-                    pool.shutdown();
+            // 4. Process all jobs (in parallel if ingesta.parallel-jobs > 1). prepareRun/finishRun
+            //    bracket the whole run, e.g. to warm and then drop the table-metadata cache.
+            List<Job> runJobs = List.copyOf(jobs);
+            jobProcessor.prepareRun(runJobs);
+            try {
+                if (parallelJobs > 1 && jobs.size() > 1) {
+                    ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelJobs, jobs.size()));
+                    try {
+                        List<CompletableFuture<Void>> futures = jobs.stream()
+                                .map(job -> CompletableFuture.runAsync(
+                                        () -> jobProcessor.process(List.of(job)), pool))
+                                .toList();
+                        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+                    } finally {
+                        pool.shutdown();
+                    }
+                } else {
+                    jobProcessor.process(runJobs);
                 }
-            } else {
-                jobProcessor.process(List.copyOf(jobs));
+            } finally {
+                jobProcessor.finishRun(runJobs);
             }
 
         } catch (Exception e) {
@@ -8,4 +8,15 @@ import java.util.List;
 public interface JobProcessor {
 
     void process(List<Job> jobs);
+
+    /**
+     * Called once before the jobs of a run are processed, with all of them, e.g. to warm caches.
+     * {@link #process} may then be called for the whole list or job by job.
+     */
+    default void prepareRun(List<Job> jobs) {
+    }
+
+    /** Called once after the jobs of a run have been processed, also when processing failed. */
+    default void finishRun(List<Job> jobs) {
+    }
 }
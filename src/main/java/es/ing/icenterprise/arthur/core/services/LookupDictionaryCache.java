@@ -0,0 +1,114 @@
+package es.ing.icenterprise.arthur.core.services;
+
+import es.ing.icenterprise.arthur.core.domain.model.CompactStringMap;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Run-scoped cache of the {@code LOOKUP} dictionaries, keyed by table, schema, key, value and
+ * timestamp column, and shared by every step, sheet and job of the run. Each dictionary remembers
+ * the version it was loaded at, the {@code MAX(timestampColumn)} of its table, and is reloaded
+ * when a step asks with a different one.
+ * <ul>
+ *   <li>Single flight: with parallel jobs, the first caller of a key loads it and the others wait
+ *       for that load. A failed load is not cached.</li>
+ *   <li>{@link #invalidate} drops every dictionary of a table once a step has written to it: a
+ *       rewritten snapshot keeps its timestamp.</li>
+ *   <li>Cleared at the start and end of every run. The HR import that precedes a run deletes and
+ *       reloads the day's snapshot under the same timestamp without going through a step, so
+ *       the version alone cannot tell a dictionary from an earlier run is stale.</li>
+ * </ul>
+ */
+final class LookupDictionaryCache {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Dictionary>> dictionaries = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * The cached dictionary for the key if it was loaded at {@code version}, otherwise the result
+     * of {@code loader}, cached with {@code version}.
+     */
+    CompactStringMap get(String table, String schema, String keyColumn, String valueColumn, String timestampColumn,
+                         Object version, Supplier<CompactStringMap> loader) {
+        Key key = new Key(tableName(table), normalize(schema), normalize(keyColumn), normalize(valueColumn),
+                normalize(timestampColumn));
+        CompletableFuture<Dictionary> mine = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Dictionary> current = dictionaries.get(key);
+            if (current == null) {
+                if (dictionaries.putIfAbsent(key, mine) == null) break;
+                continue;
+            }
+            Dictionary dictionary = join(current);
+            if (Objects.equals(dictionary.version(), version)) {
+                hits.incrementAndGet();
+                return dictionary.map();
+            }
+            if (dictionaries.replace(key, current, mine)) break;
+        }
+        loads.incrementAndGet();
+        try {
+            Dictionary dictionary = new Dictionary(version, loader.get());
+            mine.complete(dictionary);
+            return dictionary.map();
+        } catch (RuntimeException e) {
+            dictionaries.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** Drops every dictionary of {@code table} (with or without a schema prefix), in any schema. */
+    void invalidate(String table) {
+        if (table == null) return;
+        String name = tableName(table);
+        dictionaries.keySet().removeIf(key -> key.table().equals(name));
+    }
+
+    void clear() {
+        dictionaries.clear();
+        loads.set(0);
+        hits.set(0);
+    }
+
+    /** Dictionaries loaded from the database since the last {@link #clear()}. */
+    long loads() {
+        return loads.get();
+    }
+
+    /** Lookups served from the cache since the last {@link #clear()}. */
+    long hits() {
+        return hits.get();
+    }
+
+    private static Dictionary join(CompletableFuture<Dictionary> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    /** {@code table} without a {@code schema.} prefix, normalized. */
+    private static String tableName(String table) {
+        return normalize(table.substring(table.lastIndexOf('.') + 1));
+    }
+
+    private static String normalize(String name) {
+        return name != null ? name.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    private record Key(String table, String schema, String keyColumn, String valueColumn, String timestampColumn) {
+    }
+
+    private record Dictionary(Object version, CompactStringMap map) {
+    }
+}
@@ -0,0 +1,100 @@
+package es.ing.icenterprise.arthur.core.services;
+
+import es.ing.icenterprise.arthur.core.domain.model.CompactIdIndex;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Run-scoped cache of the reference id sets {@code VALIDATE_REFERENCE} and {@code LINK_PARENT}
+ * steps check against, keyed by table, schema, id column, timestamp column, ingest date and
+ * matching rule (canonical for VALIDATE_REFERENCE, exact for LINK_PARENT). Most
+ * jobs validate several columns against the same table (typically {@code HR}) for the same date,
+ * so each set is loaded once per run instead of once per step.
+ * <ul>
+ *   <li>Single flight: with parallel jobs, the first caller of a key loads it and the others wait
+ *       for that load instead of running the same query. A failed load is not cached.</li>
+ *   <li>{@link #invalidate} drops every set of a table once a step has written to it, so a later
+ *       step sees the rows written. A load already running completes for its own callers.</li>
+ *   <li>Sets are {@link CompactIdIndex}es: immutable and shared between threads.</li>
+ * </ul>
+ * Cleared at the start and end of every run.
+ */
+final class ReferenceSetCache {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<CompactIdIndex>> sets = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * The cached set for the key, or the result of {@code loader}, cached, if there is none.
+     * {@code canonical} tells which kind of index {@code loader} builds.
+     */
+    CompactIdIndex get(String table, String schema, String idColumn, String timestampColumn, LocalDate date,
+                       boolean canonical, Supplier<CompactIdIndex> loader) {
+        Key key = new Key(tableName(table), normalize(schema), normalize(idColumn), normalize(timestampColumn), date,
+                canonical);
+        CompletableFuture<CompactIdIndex> mine = new CompletableFuture<>();
+        CompletableFuture<CompactIdIndex> existing = sets.putIfAbsent(key, mine);
+        if (existing != null) {
+            hits.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+        loads.incrementAndGet();
+        try {
+            CompactIdIndex set = loader.get();
+            mine.complete(set);
+            return set;
+        } catch (RuntimeException e) {
+            sets.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** Drops every cached set of {@code table} (with or without a schema prefix), in any schema. */
+    void invalidate(String table) {
+        if (table == null) return;
+        String name = tableName(table);
+        sets.keySet().removeIf(key -> key.table().equals(name));
+    }
+
+    void clear() {
+        sets.clear();
+        loads.set(0);
+        hits.set(0);
+    }
+
+    /** Sets loaded from the database since the last {@link #clear()}. */
+    long loads() {
+        return loads.get();
+    }
+
+    /** Lookups served from the cache since the last {@link #clear()}. */
+    long hits() {
+        return hits.get();
+    }
+
+    /** {@code table} without a {@code schema.} prefix, normalized. */
+    private static String tableName(String table) {
+        return normalize(table.substring(table.lastIndexOf('.') + 1));
+    }
+
+    private static String normalize(String name) {
+        return name != null ? name.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    private record Key(String table, String schema, String idColumn, String timestampColumn, LocalDate date,
+                       boolean canonical) {
+    }
+}
@@ -0,0 +1,74 @@
+package es.ing.icenterprise.arthur.core.services;
+
+import es.ing.icenterprise.arthur.core.ports.outbound.PersistencePort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows bound for one table during one step pass (ETL_LOG entries, LINK_PARENT relations),
+ * written with {@link PersistencePort#insertRows} every {@code flushSize} rows and on
+ * {@link #flush()} instead of one {@code insertRow} round-trip each. Rows are written in the
+ * order they were added. A failed batch is written again row by row, so the rows before the bad
+ * one are written and counted; the bad row's error is then thrown and the rows after it dropped,
+ * as the per-row inserts did.
+ * Not thread-safe; a step runs on one thread.
+ */
+final class RowBuffer {
+
+    private final PersistencePort persistencePort;
+    private final String table;
+    private final String schema;
+    private final int flushSize;
+    private final List<Map<String, Object>> pending = new ArrayList<>();
+    private int written;
+    private int flushes;
+
+    RowBuffer(PersistencePort persistencePort, String table, String schema, int flushSize) {
+        this.persistencePort = persistencePort;
+        this.table = table;
+        this.schema = schema;
+        this.flushSize = Math.max(1, flushSize);
+    }
+
+    /** Queues {@code row}, writing the buffer once it holds {@code flushSize} rows. */
+    void add(Map<String, Object> row) {
+        pending.add(row);
+        if (pending.size() >= flushSize) flush();
+    }
+
+    /** Writes the queued rows, if any. */
+    void flush() {
+        if (pending.isEmpty()) return;
+        List<Map<String, Object>> batch = List.copyOf(pending);
+        pending.clear();
+        flushes++;
+        try {
+            persistencePort.insertRows(table, schema, batch);
+            written += batch.size();
+        } catch (RuntimeException batchFailure) {
+            // insertRows wrote none of the batch: find the bad row one insert at a time.
+            for (Map<String, Object> row : batch) {
+                flushes++;
+                try {
+                    persistencePort.insertRow(table, schema, row);
+                } catch (RuntimeException rowFailure) {
+                    rowFailure.addSuppressed(batchFailure);
+                    throw rowFailure;
+                }
+                written++;
+            }
+        }
+    }
+
+    /** Rows written so far. */
+    int written() {
+        return written;
+    }
+
+    /** Write calls made so far: {@code insertRows}, plus {@code insertRow} after a failed batch. */
+    int flushes() {
+        return flushes;
+    }
+}
@@ -0,0 +1,45 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkLoaderTest {
+
+    @Test
+    @DisplayName("dialects are recognised from the driver's product name and Oracle inserts get the direct-path hint")
+    void dialectsAndDirectPathSql() {
+        assertThat(SqlDialect.of("H2")).isEqualTo(SqlDialect.H2);
+        assertThat(SqlDialect.of("Oracle")).isEqualTo(SqlDialect.ORACLE);
+        assertThat(SqlDialect.of("PostgreSQL")).isEqualTo(SqlDialect.OTHER);
+        assertThat(BulkLoader.directPathSql("INSERT INTO T (A) VALUES (?)"))
+                .isEqualTo("INSERT /*+ APPEND_VALUES */ INTO T (A) VALUES (?)");
+    }
+
+    @Test
+    @DisplayName("writeCsv quotes values, doubles embedded quotes and leaves NULL as an empty unquoted field")
+    void writesCsv() throws IOException {
+        Timestamp ts = Timestamp.valueOf("2026-01-01 00:00:00");
+        Path file = BulkLoader.writeCsv(List.of(
+                new Object[]{"a\"b", null, ts},
+                new Object[]{"", 1.5, new java.util.Date(ts.getTime())}));
+        try {
+            assertThat(Files.readAllLines(file)).containsExactly(
+                    "\"a\"\"b\",,\"2026-01-01 00:00:00.0\"",
+                    "\"\",\"1.5\",\"2026-01-01 00:00:00.0\"");
+            assertThat(BulkLoader.csvReadSql("T", Arrays.asList("A", "B"), file))
+                    .startsWith("INSERT INTO T (A, B) SELECT * FROM CSVREAD('")
+                    .endsWith("', 'C1,C2', 'charset=UTF-8')");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+import es.ing.icenterprise.arthur.core.domain.model.Action;
+import es.ing.icenterprise.arthur.core.domain.model.DatabaseMapping;
+import es.ing.icenterprise.arthur.core.domain.model.RowSchema;
+import es.ing.icenterprise.arthur.core.domain.model.SchemaRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InsertPlanTest {
+
+    private static final Timestamp TODAY = Timestamp.valueOf(LocalDate.of(2024, 3, 1).atStartOfDay());
+
+    private static final List<DatabaseMapping> MAPPINGS = List.of(
+            new DatabaseMapping("Id", "ID"),
+            new DatabaseMapping(null, "NAME", null, List.of("First", "Last"), " "),
+            new DatabaseMapping(null, "TS", "timestamp", null, null),
+            new DatabaseMapping(null, "UID", "UUID", null, null),
+            new DatabaseMapping(null, "ODD", "SEQUENCE", null, null));
+
+    @Test
+    @DisplayName("forInsert builds one placeholder per mapping and fills direct, concatenated and generated values")
+    void insertPlanFillsRows() {
+        InsertPlan plan = InsertPlan.forInsert("PEOPLE", MAPPINGS);
+
+        assertThat(plan.sql()).isEqualTo("INSERT INTO PEOPLE (ID, NAME, TS, UID, ODD) VALUES (?, ?, ?, ?, ?)");
+
+        Map<String, Object> blankFirst = new HashMap<>(Map.of("Id", 2, "First", " ", "Last", "Doe"));
+        List<Object[]> rows = plan.rows(List.of(
+                new Action(Map.of("Id", 1, "First", "Ann", "Last", "Lee")),
+                new Action(blankFirst)), TODAY);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).startsWith(1, "Ann Lee", TODAY);
+        assertThat((String) rows.get(0)[3]).hasSize(36);
+        assertThat(rows.get(0)[4]).isNull();
+        assertThat(rows.get(1)).startsWith(2, "Doe", TODAY);
+        assertThat(rows.get(1)[3]).isNotEqualTo(rows.get(0)[3]);
+    }
+
+    @Test
+    @DisplayName("rows reads schema-backed rows by position")
+    void insertPlanReadsSchemaRows() {
+        RowSchema schema = new RowSchema(List.of("Last", "Id", "First"));
+        InsertPlan plan = InsertPlan.forInsert("PEOPLE", MAPPINGS.subList(0, 2));
+
+        List<Object[]> rows = plan.rows(List.of(row(schema, "Lee", 1, "Ann"), row(schema, "Roe", 2, null)), TODAY);
+
+        assertThat(rows).containsExactly(new Object[]{1, "Ann Lee"}, new Object[]{2, "Roe"});
+    }
+
+    @Test
+    @DisplayName("forUpdate sets every other mapping and binds the id last")
+    void updatePlanPutsIdLast() {
+        InsertPlan plan = InsertPlan.forUpdate("PEOPLE", MAPPINGS.subList(0, 3), "id");
+
+        assertThat(plan.sql()).isEqualTo("UPDATE PEOPLE SET NAME = ?, TS = ? WHERE id = ?");
+        assertThat(plan.parameters()).extracting(DatabaseMapping::dbColumn).containsExactly("NAME", "TS", "ID");
+        assertThat(plan.rows(List.of(new Action(Map.of("Id", 7, "First", "Ann"))), TODAY))
+                .containsExactly(new Object[]{"Ann", TODAY, 7});
+
+        assertThat(InsertPlan.forUpdate("PEOPLE", MAPPINGS.subList(0, 1), "ID")).isNull();
+        assertThatThrownBy(() -> InsertPlan.forUpdate("PEOPLE", MAPPINGS, "CODE"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No mapping found for idColumn: CODE");
+    }
+
+    @Test
+    @DisplayName("forMerge inserts new ids and, when updating, sets every non-id column from the bound source row")
+    void mergePlanSql() {
+        List<DatabaseMapping> mappings = MAPPINGS.subList(0, 3);
+
+        assertThat(InsertPlan.forMerge("PEOPLE", mappings, "ID", true, SqlDialect.H2).sql()).isEqualTo(
+                "MERGE INTO PEOPLE t USING (VALUES (?, ?, ?)) s (C1, C2, C3) ON (t.ID = s.C1)"
+                + " WHEN MATCHED THEN UPDATE SET t.NAME = s.C2, t.TS = s.C3"
+                + " WHEN NOT MATCHED THEN INSERT (ID, NAME, TS) VALUES (s.C1, s.C2, s.C3)");
+        InsertPlan oracle = InsertPlan.forMerge("PEOPLE", mappings, "ID", false, SqlDialect.ORACLE);
+        assertThat(oracle.sql()).isEqualTo(
+                "MERGE INTO PEOPLE t USING (SELECT ? C1, ? C2, ? C3 FROM DUAL) s ON (t.ID = s.C1)"
+                + " WHEN NOT MATCHED THEN INSERT (ID, NAME, TS) VALUES (s.C1, s.C2, s.C3)");
+        assertThat(oracle.idParameter()).isZero();
+    }
+
+    private static Action row(RowSchema schema, Object... values) {
+        SchemaRow row = new SchemaRow(schema);
+        for (int i = 0; i < values.length; i++) {
+            row.setAt(i, values[i]);
+        }
+        return new Action(row);
+    }
+}
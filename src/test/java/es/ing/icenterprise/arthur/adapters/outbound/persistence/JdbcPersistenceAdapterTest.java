@@ -1,8 +1,13 @@
 package es.ing.icenterprise.arthur.adapters.outbound.persistence;
 
 import es.ing.icenterprise.arthur.core.domain.model.Action;
+import es.ing.icenterprise.arthur.core.domain.model.CompactIdIndex;
+import es.ing.icenterprise.arthur.core.domain.model.CompactStringMap;
 import es.ing.icenterprise.arthur.core.domain.model.DatabaseMapping;
 import es.ing.icenterprise.arthur.core.ports.outbound.InsertResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.LinkResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.MergeResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.ParentLink;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,12 +18,18 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JdbcTest
 class JdbcPersistenceAdapterTest {
@@ -29,6 +40,9 @@ class JdbcPersistenceAdapterTest {
     @Autowired
     PlatformTransactionManager txManager;
 
+    @Autowired
+    DataSource dataSource;
+
     private JdbcPersistenceAdapter adapter;
     private TransactionTemplate committedTx;
 
@@ -44,12 +58,14 @@ class JdbcPersistenceAdapterTest {
                 "CREATE TABLE IF NOT EXISTS LOOKUP_TABLE (KEY_COL VARCHAR(50), VAL_COL VARCHAR(100), TS TIMESTAMP)");
         jdbcTemplate.execute(
                 "CREATE TABLE IF NOT EXISTS BISECT_ITEMS (ID VARCHAR(50) PRIMARY KEY, NAME VARCHAR(100))");
-        jdbcTemplate.execute("DELETE FROM ITEMS");
         jdbcTemplate.execute("DELETE FROM LOOKUP_TABLE");
-        // BISECT_ITEMS is written via REQUIRES_NEW (the adapter's bisect),
-        // which commits independently of @JdbcTest's rollback. Clean it with
-        // its own committed transaction so state does not leak across tests.
-        committedTx.executeWithoutResult(s -> jdbcTemplate.execute("DELETE FROM BISECT_ITEMS"));
+        // BISECT_ITEMS and ITEMS are written via REQUIRES_NEW (the adapter's bisect,
+        // insertRows), which commits independently of @JdbcTest's rollback. Clean them
+        // with their own committed transaction so state does not leak across tests.
+        committedTx.executeWithoutResult(s -> {
+            jdbcTemplate.execute("DELETE FROM ITEMS");
+            jdbcTemplate.execute("DELETE FROM BISECT_ITEMS");
+        });
     }
 
     // ── insertData ────────────────────────────────────────────────────────────
@@ -210,6 +226,128 @@ class JdbcPersistenceAdapterTest {
         assertThat(ids).containsExactly("a", "b", "x1", "x2");
     }
 
+    @Test
+    @DisplayName("insertData with rowIsolation UPDATE_COUNTS drops the rows the driver flagged in one retry")
+    void insertDataIsolatesFromUpdateCounts() {
+        committedTx.executeWithoutResult(s -> {
+            jdbcTemplate.update("INSERT INTO BISECT_ITEMS (ID) VALUES ('x1')");
+            jdbcTemplate.update("INSERT INTO BISECT_ITEMS (ID) VALUES ('x2')");
+        });
+        List<Action> rows = List.of(
+                new Action(Map.of("ID", "x1", "Name", "bad-1")),
+                new Action(Map.of("ID", "a",  "Name", "good")),
+                new Action(Map.of("ID", "x2", "Name", "bad-2")),
+                new Action(Map.of("ID", "b",  "Name", "good")));
+        List<DatabaseMapping> mappings = List.of(
+                new DatabaseMapping("ID", "ID"),
+                new DatabaseMapping("Name", "NAME"));
+
+        InsertResult isolated = adapter.insertData(rows, mappings, Map.of("tableName", "BISECT_ITEMS",
+                "_ingestDate", LocalDate.of(2026, 1, 1), "rowIsolation", "UPDATE_COUNTS"));
+
+        assertThat(isolated).isEqualTo(new InsertResult(2, 2, 1));
+        assertThat(jdbcTemplate.queryForList("SELECT ID FROM BISECT_ITEMS ORDER BY ID", String.class))
+                .containsExactly("a", "b", "x1", "x2");
+
+        committedTx.executeWithoutResult(s -> jdbcTemplate.execute("DELETE FROM BISECT_ITEMS WHERE ID IN ('a', 'b')"));
+        InsertResult bisected = adapter.insertData(rows, mappings,
+                Map.of("tableName", "BISECT_ITEMS", "_ingestDate", LocalDate.of(2026, 1, 1)));
+
+        assertThat(bisected.inserted()).isEqualTo(2);
+        assertThat(bisected.isolationRoundTrips()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("insertData with loadStrategy BULK loads the chunk in one statement and batch inserts it when a row is rejected")
+    void insertDataBulkLoadsAndFallsBack() {
+        Map<String, Object> quoted = new HashMap<>(Map.of("ID", "q"));
+        quoted.put("Name", "say \"hi\", bye");
+        Map<String, Object> noName = new HashMap<>(Map.of("ID", "n"));
+        noName.put("Name", null);
+        List<DatabaseMapping> mappings = List.of(
+                new DatabaseMapping("ID", "ID"),
+                new DatabaseMapping("Name", "NAME"));
+        Map<String, Object> params = Map.of("tableName", "BISECT_ITEMS",
+                "_ingestDate", LocalDate.of(2026, 1, 1), "loadStrategy", "BULK");
+
+        InsertResult loaded = adapter.insertData(List.of(new Action(quoted), new Action(noName),
+                new Action(Map.of("ID", "e", "Name", ""))), mappings, params);
+
+        assertThat(loaded).isEqualTo(new InsertResult(3, 0));
+        assertThat(jdbcTemplate.queryForList("SELECT ID, NAME FROM BISECT_ITEMS ORDER BY ID"))
+                .extracting(r -> r.get("NAME"))
+                .containsExactly("", null, "say \"hi\", bye");
+
+        InsertResult fallback = adapter.insertData(List.of(
+                new Action(Map.of("ID", "a", "Name", "good")),
+                new Action(Map.of("ID", "q", "Name", "duplicate"))), mappings, params);
+
+        assertThat(fallback.inserted()).isEqualTo(1);
+        assertThat(fallback.failed()).isEqualTo(1);
+        assertThat(fallback.isolationRoundTrips()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT ID FROM BISECT_ITEMS ORDER BY ID", String.class))
+                .containsExactly("a", "e", "n", "q");
+    }
+
+    @Test
+    @DisplayName("failedRows reads the failing rows off stop-at-first and continue-on-error update counts")
+    void failedRowsFromUpdateCounts() {
+        int ok = 1;
+        int failed = Statement.EXECUTE_FAILED;
+        assertThat(JdbcPersistenceAdapter.failedRows(new int[]{ok, ok}, 5)).containsExactly(2);
+        assertThat(JdbcPersistenceAdapter.failedRows(new int[]{failed, ok, failed, ok}, 4)).containsExactly(0, 2);
+        assertThat(JdbcPersistenceAdapter.failedRows(new int[]{ok, failed, failed, failed}, 4)).containsExactly(1);
+        assertThat(JdbcPersistenceAdapter.failedRows(new int[]{failed, failed}, 2)).isNull();
+        assertThat(JdbcPersistenceAdapter.failedRows(null, 3)).isNull();
+    }
+
+    @Test
+    @DisplayName("insertData with preValidate rejects NULL keys and oversized text without sending them")
+    void insertDataPreValidatesAgainstColumnMetadata() {
+        adapter = new JdbcPersistenceAdapter(jdbcTemplate, txManager, new JdbcTableMetadataAdapter(dataSource));
+        Map<String, Object> noId = new HashMap<>();
+        noId.put("Name", "no id");
+        List<Action> rows = List.of(
+                new Action(Map.of("ID", "a", "Name", "good")),
+                new Action(noId),
+                new Action(Map.of("ID", "c", "Name", "x".repeat(101))));
+        List<DatabaseMapping> mappings = List.of(
+                new DatabaseMapping("ID", "ID"),
+                new DatabaseMapping("Name", "NAME"));
+
+        InsertResult result = adapter.insertData(rows, mappings, Map.of("tableName", "BISECT_ITEMS",
+                "_ingestDate", LocalDate.of(2026, 1, 1), "preValidate", true));
+
+        assertThat(result).isEqualTo(new InsertResult(1, 2, 0));
+        assertThat(jdbcTemplate.queryForList("SELECT ID FROM BISECT_ITEMS", String.class)).containsExactly("a");
+    }
+
+    @Test
+    @DisplayName("insertData with typedBinding converts values to their column types before binding")
+    void insertDataBindsTypedValues() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS TYPED_ITEMS "
+                + "(CODE VARCHAR(20), AMOUNT DECIMAL(10,2), QTY INTEGER, TS TIMESTAMP)");
+        adapter = new JdbcPersistenceAdapter(jdbcTemplate, txManager, new JdbcTableMetadataAdapter(dataSource));
+        List<Action> rows = List.of(
+                new Action(Map.of("Code", 123.0, "Amount", "12.50", "Qty", 3.0, "Ts", "2026-01-02")),
+                new Action(Map.of("Code", "x", "Amount", "n/a", "Qty", 1.0, "Ts", "2026-01-02")));
+        List<DatabaseMapping> mappings = List.of(
+                new DatabaseMapping("Code", "CODE"),
+                new DatabaseMapping("Amount", "AMOUNT"),
+                new DatabaseMapping("Qty", "QTY"),
+                new DatabaseMapping("Ts", "TS"));
+
+        InsertResult result = adapter.insertData(rows, mappings, Map.of("tableName", "TYPED_ITEMS",
+                "_ingestDate", LocalDate.of(2026, 1, 1), "typedBinding", true));
+
+        assertThat(result).isEqualTo(new InsertResult(1, 1, 0));
+        Map<String, Object> stored = jdbcTemplate.queryForMap("SELECT * FROM TYPED_ITEMS");
+        assertThat(stored.get("CODE")).isEqualTo("123");
+        assertThat(stored.get("AMOUNT")).isEqualTo(new BigDecimal("12.50"));
+        assertThat(stored.get("QTY")).isEqualTo(3);
+        assertThat(stored.get("TS")).isEqualTo(Timestamp.valueOf("2026-01-02 00:00:00"));
+    }
+
     @Test
     @DisplayName("insertData returns EMPTY when data list is empty (no bisect attempt)")
     void insertDataReturnsEmptyForEmptyInput() {
@@ -305,6 +443,30 @@ class JdbcPersistenceAdapterTest {
         assertThat(count).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("insertRows batches runs of rows with the same columns and converts LocalDate values")
+    void insertRowsBatchesRowsWithTheSameColumns() {
+        LocalDate date = LocalDate.of(2026, 4, 1);
+        adapter.insertRows("ITEMS", null, List.of(
+                Map.of("ID", "b1", "TS", date),
+                Map.of("TS", date, "ID", "b2"),
+                Map.of("ID", "b3", "NAME", "named")));
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT ID FROM ITEMS WHERE ID LIKE 'b%' AND (TS IS NOT NULL OR NAME = 'named') ORDER BY ID",
+                String.class)).containsExactly("b1", "b2", "b3");
+    }
+
+    @Test
+    @DisplayName("insertRows writes all rows or, when a batch fails, none of them")
+    void insertRowsRollsBackAFailedCall() {
+        assertThatThrownBy(() -> adapter.insertRows("BISECT_ITEMS", null, List.of(
+                Map.of("ID", "r1"), Map.of("ID", "r2"), Map.of("ID", "r1"), Map.of("ID", "r3"))))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BISECT_ITEMS", Integer.class)).isZero();
+    }
+
     // ── loadReferenceIds ──────────────────────────────────────────────────────
 
     @Test
@@ -333,6 +495,35 @@ class JdbcPersistenceAdapterTest {
         assertThat(ids).containsExactlyInAnyOrder("a", "b");
     }
 
+    @Test
+    @DisplayName("loadExistingIdIndex streams all ids, or only those of the ingest date's partition")
+    void loadExistingIdIndexOptionallyFiltersByTimestamp() {
+        jdbcTemplate.update("INSERT INTO ITEMS (ID, TS) VALUES ('old', ?)", Timestamp.valueOf("2026-01-01 00:00:00"));
+        jdbcTemplate.update("INSERT INTO ITEMS (ID, TS) VALUES ('new', ?)", Timestamp.valueOf("2026-01-02 00:00:00"));
+
+        CompactIdIndex all = adapter.loadExistingIdIndex("ITEMS", null, "ID", null, LocalDate.of(2026, 1, 2));
+        CompactIdIndex partition = adapter.loadExistingIdIndex("ITEMS", null, "ID", "TS", LocalDate.of(2026, 1, 2));
+
+        assertThat(all.size()).isEqualTo(2);
+        assertThat(all.contains("old")).isTrue();
+        assertThat(partition.size()).isEqualTo(1);
+        assertThat(partition.contains("new")).isTrue();
+        assertThat(partition.contains("old")).isFalse();
+    }
+
+    @Test
+    @DisplayName("loadReferenceIndex matches ids by canonical key, loadExistingIdIndex by exact text")
+    void loadReferenceIndexMatchesByCanonicalKey() {
+        jdbcTemplate.update("INSERT INTO ITEMS (ID) VALUES (' AB12 ')");
+
+        CompactIdIndex reference = adapter.loadReferenceIndex("ITEMS", null, "ID", null, LocalDate.of(2026, 1, 2));
+        CompactIdIndex existing = adapter.loadExistingIdIndex("ITEMS", null, "ID", null, LocalDate.of(2026, 1, 2));
+
+        assertThat(reference.contains("ab12")).isTrue();
+        assertThat(existing.contains("ab12")).isFalse();
+        assertThat(existing.contains(" AB12 ")).isTrue();
+    }
+
     @Test
     @DisplayName("loadExistingIds returns empty set when table is empty")
     void loadExistingIdsEmptyTable() {
@@ -361,6 +552,92 @@ class JdbcPersistenceAdapterTest {
         assertThat(name).isEqualTo("new");
     }
 
+    @Test
+    @DisplayName("mergeData inserts new ids, updates or keeps existing ones and reports how many matched")
+    void mergeDataUpsertsInTheDatabase() {
+        committedTx.executeWithoutResult(s -> jdbcTemplate.update("INSERT INTO BISECT_ITEMS (ID, NAME) VALUES ('m1', 'old')"));
+        List<DatabaseMapping> mappings = List.of(
+                new DatabaseMapping("ID", "ID"),
+                new DatabaseMapping("Name", "NAME"));
+        Map<String, Object> params = Map.of("tableName", "BISECT_ITEMS", "_ingestDate", LocalDate.of(2026, 1, 1));
+
+        MergeResult kept = adapter.mergeData(List.of(
+                new Action(Map.of("ID", "m1", "Name", "ignored")),
+                new Action(Map.of("ID", "m2", "Name", "two"))), mappings, params, "ID", false);
+
+        assertThat(kept).isEqualTo(new MergeResult(1, 1, 0, 0));
+        assertThat(jdbcTemplate.queryForList("SELECT NAME FROM BISECT_ITEMS ORDER BY ID", String.class))
+                .containsExactly("old", "two");
+
+        MergeResult upserted = adapter.mergeData(List.of(
+                new Action(Map.of("ID", "m1", "Name", "new")),
+                new Action(Map.of("ID", "m3", "Name", "three"))), mappings, params, "ID", true);
+
+        assertThat(upserted).isEqualTo(new MergeResult(1, 1, 0, 0));
+        assertThat(jdbcTemplate.queryForList("SELECT NAME FROM BISECT_ITEMS ORDER BY ID", String.class))
+                .containsExactly("new", "two", "three");
+    }
+
+    @Test
+    @DisplayName("mergeData counts an id with several history rows as one matched row")
+    void mergeDataCountsDistinctExistingIds() {
+        committedTx.executeWithoutResult(s -> {
+            for (int day = 1; day <= 3; day++) {
+                jdbcTemplate.update("INSERT INTO ITEMS (ID, NAME, TS) VALUES ('h1', 'old', ?)",
+                        Timestamp.valueOf(LocalDate.of(2026, 1, day).atStartOfDay()));
+            }
+        });
+        List<DatabaseMapping> mappings = List.of(
+                new DatabaseMapping("ID", "ID"),
+                new DatabaseMapping("Name", "NAME"));
+        Map<String, Object> params = Map.of("tableName", "ITEMS", "_ingestDate", LocalDate.of(2026, 1, 4));
+
+        MergeResult result = adapter.mergeData(List.of(
+                new Action(Map.of("ID", "h1", "Name", "ignored")),
+                new Action(Map.of("ID", "h2", "Name", "two")),
+                new Action(Map.of("ID", "h3", "Name", "three"))), mappings, params, "ID", false);
+
+        assertThat(result).isEqualTo(new MergeResult(2, 1, 0, 0));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ITEMS", Integer.class)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("linkParents stages the links and links or logs them per rule with INSERT .. SELECT")
+    void linkParentsResolvesRulesInTheDatabase() {
+        committedTx.executeWithoutResult(s -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS LINK_CHECK (ID VARCHAR(50), TIMESTAMP TIMESTAMP)");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS LINK_REL "
+                    + "(ID_1 VARCHAR(50), ID_2 VARCHAR(50), TIMESTAMP TIMESTAMP, KIND VARCHAR(10))");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS LINK_LOG (WHERE_A VARCHAR(50), A VARCHAR(50), "
+                    + "WHERE_B VARCHAR(50), B VARCHAR(50), CAUSE VARCHAR(50), ACTION VARCHAR(50), TIMESTAMP TIMESTAMP)");
+            jdbcTemplate.execute("DELETE FROM LINK_CHECK");
+            jdbcTemplate.execute("DELETE FROM LINK_REL");
+            jdbcTemplate.execute("DELETE FROM LINK_LOG");
+            jdbcTemplate.update("INSERT INTO LINK_CHECK VALUES ('p/1', TIMESTAMP '2026-01-01 00:00:00')");
+            jdbcTemplate.update("INSERT INTO LINK_CHECK VALUES ('p/1', TIMESTAMP '2026-01-01 00:00:00')");
+            jdbcTemplate.update("INSERT INTO LINK_CHECK VALUES ('p/2', TIMESTAMP '2025-12-31 00:00:00')");
+        });
+        List<Map<String, Object>> rules = List.of(
+                Map.of("parentType", "A", "checkTable", "LINK_CHECK", "relationTable", "LINK_REL",
+                        "extraColumns", Map.of("KIND", "a")),
+                Map.of("parentType", "B", "checkTable", "LINK_CHECK", "relationTable", "LINK_REL"));
+        Map<String, Object> params = Map.of("etlLogTable", "LINK_LOG", "currentEntityType", "Risk",
+                "_ingestDate", LocalDate.of(2026, 1, 1));
+
+        LinkResult result = adapter.linkParents(List.of(
+                new ParentLink("c1", "p/1", 0),
+                new ParentLink("c2", "p/2", 0),
+                new ParentLink("c3", "p/1", 1)), rules, params);
+
+        // create + stage, then per rule one link and, for rule 0's orphan, one log statement.
+        assertThat(result).isEqualTo(new LinkResult(2, 1, 5));
+        assertThat(jdbcTemplate.queryForList("SELECT ID_1 || ':' || COALESCE(KIND, '-') FROM LINK_REL ORDER BY ID_1",
+                String.class)).containsExactly("c1:a", "c3:-");
+        assertThat(jdbcTemplate.queryForList("SELECT WHERE_A || ' ' || A || ' ' || WHERE_B || ' ' || B FROM LINK_LOG",
+                String.class)).containsExactly("LINK_CHECK p/2 Risk c2");
+        assertThat(adapter.linkParents(List.of(), rules, params)).isEqualTo(LinkResult.EMPTY);
+    }
+
     @Test
     @DisplayName("updateData does nothing when data list is empty")
     void updateDataEmptyListDoesNothing() {
@@ -407,4 +684,23 @@ class JdbcPersistenceAdapterTest {
         Map<String, String> result = adapter.lookupValues("LOOKUP_TABLE", null, "KEY_COL", "VAL_COL", null);
         assertThat(result).containsKey("upper@case.com");
     }
+
+    @Test
+    @DisplayName("lookupDictionary streams the latest snapshot into a compact map; latestTimestamp is its MAX")
+    void lookupDictionaryLoadsTheLatestSnapshot() {
+        java.sql.Timestamp older = java.sql.Timestamp.valueOf(LocalDate.of(2025, 1, 1).atStartOfDay());
+        java.sql.Timestamp newer = java.sql.Timestamp.valueOf(LocalDate.of(2026, 1, 1).atStartOfDay());
+        assertThat(adapter.latestTimestamp("LOOKUP_TABLE", null, "TS")).isNull();
+        jdbcTemplate.update("INSERT INTO LOOKUP_TABLE VALUES ('k1', 'old', ?)", older);
+        jdbcTemplate.update("INSERT INTO LOOKUP_TABLE VALUES (' K2 ', 'new', ?)", newer);
+        jdbcTemplate.update("INSERT INTO LOOKUP_TABLE VALUES ('12345.0', 'num', ?)", newer);
+
+        CompactStringMap dictionary = adapter.lookupDictionary("LOOKUP_TABLE", null, "KEY_COL", "VAL_COL", "TS");
+
+        assertThat(dictionary.size()).isEqualTo(2);
+        assertThat(dictionary.get("k2")).isEqualTo("new");
+        assertThat(dictionary.get("12345")).isEqualTo("num");
+        assertThat(dictionary.get("k1")).isNull();
+        assertThat(adapter.latestTimestamp("LOOKUP_TABLE", null, "TS")).isEqualTo(newer);
+    }
 }
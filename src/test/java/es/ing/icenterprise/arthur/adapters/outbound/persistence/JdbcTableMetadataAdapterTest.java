@@ -1,13 +1,19 @@
 package es.ing.icenterprise.arthur.adapters.outbound.persistence;
 
+import es.ing.icenterprise.arthur.core.domain.model.ColumnMetadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -53,6 +59,78 @@ class JdbcTableMetadataAdapterTest {
         assertThat(columns).containsExactlyInAnyOrder("ID", "NAME", "SCORE");
     }
 
+    @Test
+    @DisplayName("getColumns reports type, size and nullability")
+    void getColumnsReportsTypes() {
+        jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS META_TYPES (ID VARCHAR(20) NOT NULL, AMOUNT DECIMAL(10,2), TS TIMESTAMP)");
+
+        List<ColumnMetadata> columns = adapter.getColumns("meta_types", null);
+
+        assertThat(columns).extracting(ColumnMetadata::name).containsExactly("ID", "AMOUNT", "TS");
+        assertThat(columns.get(0)).satisfies(c -> {
+            assertThat(c.isCharacter()).isTrue();
+            assertThat(c.size()).isEqualTo(20);
+            assertThat(c.nullable()).isFalse();
+        });
+        assertThat(columns.get(1)).satisfies(c -> {
+            assertThat(c.isDecimal()).isTrue();
+            assertThat(c.size()).isEqualTo(10);
+            assertThat(c.scale()).isEqualTo(2);
+            assertThat(c.nullable()).isTrue();
+        });
+        assertThat(columns.get(2).sqlType()).isEqualTo(Types.TIMESTAMP);
+    }
+
+    @Test
+    @DisplayName("getColumns is cached per table until invalidated or the TTL runs out")
+    void getColumnsIsCached() {
+        CountingDataSource counting = new CountingDataSource(dataSource);
+        JdbcTableMetadataAdapter cached = new JdbcTableMetadataAdapter(counting);
+
+        cached.getColumns("META_TEST", null);
+        cached.getColumnNames("meta_test", null);
+        assertThat(counting.connections).isEqualTo(1);
+
+        cached.invalidate("META_TEST", null);
+        cached.getColumns("META_TEST", null);
+        assertThat(counting.connections).isEqualTo(2);
+
+        cached.cacheTtl = Duration.ZERO;
+        cached.getColumns("META_TEST", null);
+        cached.getColumns("META_TEST", null);
+        assertThat(counting.connections).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("missing tables are not cached")
+    void missingTablesAreNotCached() {
+        CountingDataSource counting = new CountingDataSource(dataSource);
+        JdbcTableMetadataAdapter cached = new JdbcTableMetadataAdapter(counting);
+
+        cached.getColumns("NOT_YET_CREATED", null);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS NOT_YET_CREATED (ID VARCHAR(10))");
+
+        assertThat(cached.getColumnNames("NOT_YET_CREATED", null)).containsExactly("ID");
+    }
+
+    @Test
+    @DisplayName("warmUp loads every table of the schema in one query and serves later lookups from cache")
+    void warmUpLoadsSchema() {
+        CountingDataSource counting = new CountingDataSource(dataSource);
+        JdbcTableMetadataAdapter cached = new JdbcTableMetadataAdapter(counting);
+
+        int tables = cached.warmUp("public");
+
+        assertThat(tables).isGreaterThanOrEqualTo(1);
+        assertThat(cached.getColumnNames("META_TEST", "PUBLIC")).containsExactlyInAnyOrder("ID", "NAME", "SCORE");
+        assertThat(counting.connections).isEqualTo(1);
+
+        cached.invalidateAll();
+        cached.getColumns("META_TEST", "PUBLIC");
+        assertThat(counting.connections).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("getColumnNames throws RuntimeException on invalid datasource")
     void getColumnNamesThrowsOnSqlError() {
@@ -62,4 +140,18 @@ class JdbcTableMetadataAdapterTest {
         assertThatThrownBy(() -> brokenAdapter.getColumnNames("META_TEST", null))
                 .isInstanceOf(Exception.class);
     }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+        int connections;
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            connections++;
+            return super.getConnection();
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package es.ing.icenterprise.arthur.adapters.outbound.persistence;
+
+import es.ing.icenterprise.arthur.core.domain.model.ColumnMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TypedRowBinderTest {
+
+    private static final ColumnMetadata CODE = new ColumnMetadata("CODE", Types.VARCHAR, "VARCHAR", 5, 0, false);
+    private static final ColumnMetadata AMOUNT = new ColumnMetadata("AMOUNT", Types.DECIMAL, "DECIMAL", 5, 2, true);
+    private static final ColumnMetadata QTY = new ColumnMetadata("QTY", Types.INTEGER, "INTEGER", 10, 0, true);
+    private static final ColumnMetadata TS = new ColumnMetadata("TS", Types.TIMESTAMP, "TIMESTAMP", 0, 0, true);
+
+    @Test
+    @DisplayName("character columns get plain text, with Excel doubles written without a trailing .0")
+    void convertsToText() {
+        assertThat(TypedRowBinder.convert(123.0, CODE)).isEqualTo("123");
+        assertThat(TypedRowBinder.convert(1.5, CODE)).isEqualTo("1.5");
+        assertThat(TypedRowBinder.convert("ab", CODE)).isEqualTo("ab");
+        assertThatThrownBy(() -> TypedRowBinder.convert("abcdef", CODE)).hasMessageContaining("exceeds CODE(5)");
+        assertThatThrownBy(() -> TypedRowBinder.convert(null, CODE)).hasMessageContaining("NOT NULL");
+    }
+
+    @Test
+    @DisplayName("numeric columns get BigDecimal or Long, checked for parseability and digits")
+    void convertsToNumbers() {
+        assertThat(TypedRowBinder.convert("123.45", AMOUNT)).isEqualTo(new BigDecimal("123.45"));
+        assertThat(TypedRowBinder.convert(" ", AMOUNT)).isNull();
+        assertThat(TypedRowBinder.convert(7.0, QTY)).isEqualTo(7L);
+        assertThatThrownBy(() -> TypedRowBinder.convert("12a", AMOUNT)).hasMessageContaining("not a number");
+        assertThatThrownBy(() -> TypedRowBinder.convert(1234.5, AMOUNT)).hasMessageContaining("too many digits");
+        assertThatThrownBy(() -> TypedRowBinder.convert(1.5, QTY)).hasMessageContaining("not an integer");
+    }
+
+    @Test
+    @DisplayName("timestamp columns get a Timestamp from dates and ISO strings, other strings pass through")
+    void convertsToTimestamps() {
+        Timestamp midnight = Timestamp.valueOf("2026-01-02 00:00:00");
+
+        assertThat(TypedRowBinder.convert(LocalDate.of(2026, 1, 2), TS)).isEqualTo(midnight);
+        assertThat(TypedRowBinder.convert("2026-01-02", TS)).isEqualTo(midnight);
+        assertThat(TypedRowBinder.convert("2026-01-02 10:30:00", TS)).isEqualTo(Timestamp.valueOf("2026-01-02 10:30:00"));
+        assertThat(TypedRowBinder.convert("02/01/2026", TS)).isEqualTo("02/01/2026");
+    }
+}
@@ -0,0 +1,96 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteSheetParserTest {
+
+    private static final String NS = "xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"";
+
+    private static List<Object[]> parse(String sheetData, CellValueDecoder decoder) {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet " + NS + "><dimension ref=\"A1:D3\"/><sheetData>" + sheetData
+                + "</sheetData></worksheet>";
+        ByteSheetParser parser = new ByteSheetParser(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), decoder);
+        List<Object[]> rows = new ArrayList<>();
+        parser.forEachRemaining(rows::add);
+        return rows;
+    }
+
+    private static List<Object[]> parse(String sheetData) {
+        return parse(sheetData, new CellValueDecoder(null, new BitSet()));
+    }
+
+    @Test
+    @DisplayName("cells are placed by the column of their reference; gaps stay null")
+    void placesCellsByReference() {
+        List<Object[]> rows = parse("<row r=\"1\" spans=\"1:4\"><c r=\"A1\"><v>1</v></c><c r=\"D1\"><v>2.5</v></c></row>"
+                + "<row r=\"2\"/>"
+                + "<row r=\"3\"><c r=\"AA3\" t=\"b\"><v>1</v></c></row>");
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0)).containsExactly(1.0, null, null, 2.5);
+        assertThat(rows.get(1)).isEmpty();
+        assertThat(rows.get(2)).hasSize(27);
+        assertThat(rows.get(2)[26]).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("numbers match Double.parseDouble on fast and fallback paths")
+    void parsesNumbersExactly() {
+        String[] raws = {"0", "-0", "12.5", "0.001", "45292", "-3.25E-3", "1E+5", "0.10000000000000001",
+                "123456789012345678", "1.7976931348623157E308", "4.9E-324", "3.14159265358979"};
+        StringBuilder sheet = new StringBuilder("<row r=\"1\">");
+        for (int i = 0; i < raws.length; i++) {
+            sheet.append("<c r=\"").append((char) ('A' + i)).append("1\"><v>").append(raws[i]).append("</v></c>");
+        }
+        sheet.append("</row>");
+
+        Object[] row = parse(sheet.toString()).get(0);
+
+        for (int i = 0; i < raws.length; i++) {
+            assertThat(row[i]).as(raws[i]).isEqualTo(Double.parseDouble(raws[i]));
+        }
+    }
+
+    @Test
+    @DisplayName("string, inline, error and formula cells decode like the StAX path")
+    void decodesTypedCells() {
+        List<Object[]> rows = parse("<row r=\"1\">"
+                + "<c r=\"A1\" t=\"str\"><f>A2&amp;\"x\"</f><v>a &lt;b&gt; &amp; &#233;&#x20AC;</v></c>"
+                + "<c r=\"B1\" t=\"inlineStr\"><is><r><t>in</t></r><r><t xml:space=\"preserve\">line</t></r></is></c>"
+                + "<c r=\"C1\" t=\"e\"><v>#N/A</v></c>"
+                + "<c r=\"D1\" t=\"str\"><v><![CDATA[<raw> & ]]></v></c>"
+                + "<c r=\"E1\" t=\"n\"><v>abc</v></c>"
+                + "<c r=\"F1\" s=\"2\"/>"
+                + "</row>");
+
+        assertThat(rows.get(0)).containsExactly("a <b> & é€", "inline", null, "<raw> & ");
+    }
+
+    @Test
+    @DisplayName("date styles and shared strings go through the decoder")
+    void usesDecoderForDatesAndSharedStrings() throws IOException {
+        BitSet dates = new BitSet();
+        dates.set(12);
+        String sst = "<sst " + NS + "><si><t>zero</t></si><si><t>one</t></si></sst>";
+        try (MappedSharedStrings strings = MappedSharedStrings.load(
+                new ByteArrayInputStream(sst.getBytes(StandardCharsets.UTF_8)))) {
+            List<Object[]> rows = parse("<x:row r=\"1\"><x:c r=\"A1\" s=\"12\"><x:v>45292</x:v></x:c>"
+                    + "<x:c r=\"B1\" t=\"s\"><x:v>1</x:v></x:c></x:row>", new CellValueDecoder(strings, dates));
+
+            assertThat(rows.get(0)).containsExactly(Timestamp.valueOf("2024-01-01 00:00:00"), "one");
+        }
+    }
+}
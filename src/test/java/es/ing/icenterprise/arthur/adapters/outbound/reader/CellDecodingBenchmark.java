@@ -0,0 +1,172 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Numeric-cell decoding on a generated 1M-cell sheet (100 000 rows x 10 numeric columns, half of
+ * them date-formatted, spread over 20 cell styles).
+ * <ul>
+ *   <li>{@code perCellStyleLookup}: the former path, {@code getStyleAt} + {@code isADateFormat} per cell.</li>
+ *   <li>{@code dateStyleBitSet}: {@link CellValueDecoder} with the per-workbook date-style set.</li>
+ *   <li>{@code readSheet}: the whole sheet through {@link ExcelFileReaderAdapter}.</li>
+ * </ul>
+ * Run with:
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=es.ing.icenterprise.arthur.adapters.outbound.reader.CellDecodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellDecodingBenchmark {
+
+    static final int ROWS = 100_000;
+    static final int COLUMNS = 10;
+    static final int STYLES = 20;
+
+    private Path file;
+    private StylesTable styles;
+    private CellValueDecoder decoder;
+    private final ExcelFileReaderAdapter adapter = new ExcelFileReaderAdapter();
+
+    /** The decoded sheet's cells in row-major order, as the StAX parser sees them. */
+    private int[] cellStyles;
+    private String[] cellValues;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("cell-decoding-", ".xlsx");
+        cellStyles = new int[ROWS * COLUMNS];
+        cellValues = new String[ROWS * COLUMNS];
+        writeSheet(file, cellStyles, cellValues);
+
+        XlsxWorkbook workbook = XlsxWorkbook.open(file);
+        styles = workbook.styles();
+        decoder = new CellValueDecoder(null, workbook.dateStyles());
+        workbook.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        adapter.release(file);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void perCellStyleLookup(Blackhole bh) {
+        for (int i = 0; i < cellValues.length; i++) {
+            double num = Double.parseDouble(cellValues[i]);
+            int styleIdx = cellStyles[i];
+            bh.consume(styleIdx >= 0 && isDateStylePerCell(styles, styleIdx)
+                    ? Timestamp.valueOf(DateUtil.getLocalDateTime(num))
+                    : num);
+        }
+    }
+
+    @Benchmark
+    public void dateStyleBitSet(Blackhole bh) {
+        for (int i = 0; i < cellValues.length; i++) {
+            bh.consume(decoder.decode(null, cellStyles[i], cellValues[i]));
+        }
+    }
+
+    @Benchmark
+    public long readSheet() {
+        try (Stream<Map<String, Object>> rows = adapter.read(file)) {
+            return rows.count();
+        }
+    }
+
+    /** The per-cell check {@link CellValueDecoder#dateStyles} replaced. */
+    private static boolean isDateStylePerCell(StylesTable styles, int styleIdx) {
+        try {
+            XSSFCellStyle style = styles.getStyleAt(styleIdx);
+            if (style == null) return false;
+            return DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void writeSheet(Path file, int[] cellStyles, String[] cellValues) throws IOException {
+        Random random = new Random(42);
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(1_000)) {
+            // Styles 0..9 are plain number formats, 10..19 date formats.
+            String[] numberFormats = {"0.00", "#,##0", "0%", "0.000", "#,##0.00"};
+            String[] dateFormats = {"yyyy-mm-dd", "dd/mm/yyyy hh:mm", "d-mmm-yy", "mm/dd/yyyy", "yyyy-mm-dd hh:mm:ss"};
+            CellStyle[] pool = new CellStyle[STYLES];
+            for (int i = 0; i < STYLES; i++) {
+                String format = i < STYLES / 2 ? numberFormats[i % numberFormats.length] : dateFormats[i % dateFormats.length];
+                pool[i] = wb.createCellStyle();
+                pool[i].setDataFormat(wb.createDataFormat().getFormat(format));
+            }
+
+            Sheet sheet = wb.createSheet("Data");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < COLUMNS; c++) {
+                header.createCell(c).setCellValue("col" + c);
+            }
+            int i = 0;
+            for (int r = 1; r <= ROWS; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < COLUMNS; c++) {
+                    boolean date = c % 2 == 0;
+                    CellStyle style = pool[date ? STYLES / 2 + c : c];
+                    double value = date ? 40_000 + random.nextInt(10_000) : random.nextDouble() * 1_000;
+                    Cell cell = row.createCell(c);
+                    cell.setCellValue(value);
+                    cell.setCellStyle(style);
+                    cellStyles[i] = style.getIndex();
+                    cellValues[i] = Double.toString(value);
+                    i++;
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                wb.write(out);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CellDecodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
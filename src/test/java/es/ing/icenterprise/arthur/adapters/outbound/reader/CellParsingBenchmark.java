@@ -0,0 +1,133 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheet XML → cells with the StAX parser versus {@link ByteSheetParser} on a generated sheet of
+ * 50 000 rows x 12 columns (shared strings, decimals, integers, dates, booleans). Scores are per
+ * row, so with {@code -prof gc} the {@code gc.alloc.rate.norm} line reads as bytes allocated per row.
+ * Both parsers emit the same boxed cell values; the difference is parser overhead.
+ * <p>
+ * Run with (the {@code main} method adds the GC profiler):
+ * <pre>
+ * mvn -B test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=es.ing.icenterprise.arthur.adapters.outbound.reader.CellParsingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellParsingBenchmark {
+
+    static final int ROWS = 50_000;
+    static final int COLUMNS = 12;
+
+    @Param({"STAX", "FAST"})
+    public String parser;
+
+    private Path file;
+    private XlsxWorkbook workbook;
+    private CellValueDecoder decoder;
+    private final ExcelFileReaderAdapter adapter = new ExcelFileReaderAdapter();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("cell-parsing-", ".xlsx");
+        writeSheet(file);
+        workbook = XlsxWorkbook.open(file);
+        decoder = workbook.decoder(SharedStringsMode.HEAP);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workbook.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS + 1)
+    public void parseSheet(Blackhole bh) throws Exception {
+        try (InputStream in = workbook.openSheet(0)) {
+            Iterator<Object[]> rows = adapter.rowIterator(CellParserMode.valueOf(parser), in, decoder);
+            while (rows.hasNext()) {
+                bh.consume(rows.next());
+            }
+        }
+    }
+
+    private static void writeSheet(Path file) throws IOException {
+        Random random = new Random(7);
+        String[] words = new String[500];
+        for (int i = 0; i < words.length; i++) words[i] = "value-" + i;
+        // Shared strings, as Excel itself writes them (SXSSF defaults to inline strings).
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(null, 1_000, false, true)) {
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = wb.createSheet("Data");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < COLUMNS; c++) header.createCell(c).setCellValue("col" + c);
+            for (int r = 1; r <= ROWS; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < COLUMNS; c++) {
+                    Cell cell = row.createCell(c);
+                    switch (c % 6) {
+                        case 0, 1 -> cell.setCellValue(words[random.nextInt(words.length)]);
+                        case 2 -> cell.setCellValue(Math.round(random.nextDouble() * 1_000_000) / 100.0);
+                        case 3 -> cell.setCellValue(random.nextInt(100_000));
+                        case 4 -> {
+                            // About three years of distinct days, like the due/closure dates of a dump.
+                            cell.setCellValue(45_000 + random.nextInt(1_100));
+                            cell.setCellStyle(dateStyle);
+                        }
+                        default -> cell.setCellValue(random.nextBoolean());
+                    }
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                wb.write(out);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CellParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
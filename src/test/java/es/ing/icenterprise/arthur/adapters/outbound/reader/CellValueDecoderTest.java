@@ -0,0 +1,65 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CellValueDecoderTest {
+
+    @Test
+    @DisplayName("dateStyles marks only the styles with a date number format")
+    void dateStylesMarksDateFormats() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            XSSFCellStyle number = wb.createCellStyle();
+            number.setDataFormat(wb.createDataFormat().getFormat("#,##0.00"));
+            XSSFCellStyle date = wb.createCellStyle();
+            date.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+
+            StylesTable styles = wb.getStylesSource();
+            BitSet dates = CellValueDecoder.dateStyles(styles);
+
+            assertThat(dates.get(number.getIndex())).isFalse();
+            assertThat(dates.get(date.getIndex())).isTrue();
+            assertThat(dates.cardinality()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("decode types numeric cells by style and the remaining types by the t attribute")
+    void decodeTypesCells() {
+        BitSet dates = new BitSet();
+        dates.set(3);
+        CellValueDecoder decoder = new CellValueDecoder(null, dates);
+
+        assertThat(decoder.decode(null, 1, "12.5")).isEqualTo(12.5);
+        assertThat(decoder.decode("n", -1, "7")).isEqualTo(7.0);
+        assertThat(decoder.decode(null, 3, "45292")).isEqualTo(Timestamp.valueOf("2024-01-01 00:00:00"));
+        assertThat(decoder.decode("b", -1, "1")).isEqualTo(true);
+        assertThat(decoder.decode("str", -1, "x")).isEqualTo("x");
+        assertThat(decoder.decode("e", -1, "#N/A")).isNull();
+        assertThat(decoder.decode(null, 1, "abc")).isNull();
+        assertThat(decoder.decode(null, 1, "")).isNull();
+    }
+
+    @Test
+    @DisplayName("cached date values are handed out as independent copies")
+    void cachedTimestampsAreCopies() {
+        BitSet dates = new BitSet();
+        dates.set(0);
+        CellValueDecoder decoder = new CellValueDecoder(null, dates);
+
+        Timestamp first = (Timestamp) decoder.numeric(0, 45292.5);
+        first.setTime(0);
+        Timestamp second = (Timestamp) decoder.numeric(0, 45292.5);
+
+        assertThat(second).isNotSameAs(first).isEqualTo(Timestamp.valueOf("2024-01-01 12:00:00"));
+    }
+}
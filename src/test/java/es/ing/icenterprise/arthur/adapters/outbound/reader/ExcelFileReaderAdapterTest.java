@@ -1,7 +1,9 @@
 package es.ing.icenterprise.arthur.adapters.outbound.reader;
 
 import es.ing.icenterprise.arthur.core.domain.enums.FileType;
+import es.ing.icenterprise.arthur.core.domain.model.ColumnProjection;
 import es.ing.icenterprise.arthur.core.domain.model.FileMetadata;
+import es.ing.icenterprise.arthur.core.ports.outbound.FileReadSession;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CreationHelper;
@@ -14,13 +16,19 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -164,10 +172,26 @@ class ExcelFileReaderAdapterTest {
         FileMetadata meta = adapter.readFileMetadata(file);
 
         assertThat(meta.records()).isEqualTo(3);
+        // From the <dimension> ref, without a pass over the rows.
+        assertThat(meta.exact()).isFalse();
         assertThat(meta.filePath()).contains("meta.xlsx");
         assertThat(meta.fileSize()).isGreaterThan(0);
     }
 
+    @Test
+    @DisplayName("readFileMetadata counts <row> elements exactly when the sheet has no dimension")
+    @SuppressWarnings("unchecked")
+    void readFileMetadataCountsRowsWithoutDimension() throws IOException {
+        List<String>[] rows = new List[25];
+        for (int r = 0; r < rows.length; r++) rows[r] = List.of("id-" + r);
+        Path file = withoutDimension(createExcel("no-dimension.xlsx", List.of("ID"), rows));
+
+        FileMetadata meta = adapter.readFileMetadata(file);
+
+        assertThat(meta.records()).isEqualTo(25);
+        assertThat(meta.exact()).isTrue();
+    }
+
     // ── cell types via streaming reader ───────────────────────────────────────
 
     @Test
@@ -224,6 +248,142 @@ class ExcelFileReaderAdapterTest {
         assertThat(rows.get(0).get("Calc")).isEqualTo(3.0);
     }
 
+    @Test
+    @DisplayName("read omits empty cells and names cells past the header row column_<i>")
+    void readOmitsEmptyCellsAndNamesExtraColumns() throws IOException {
+        Path file;
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("S");
+            Row hdr = sheet.createRow(0);
+            hdr.createCell(0).setCellValue("A");
+            hdr.createCell(1).setCellValue("B");
+            hdr.createCell(2).setCellValue("C");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("a1");
+            row.createCell(2).setCellValue("c1");
+            row.createCell(4).setCellValue("extra");
+            file = tempDir.resolve("sparse.xlsx");
+            try (FileOutputStream fos = new FileOutputStream(file.toFile())) { wb.write(fos); }
+        }
+
+        List<Map<String, Object>> rows;
+        try (Stream<Map<String, Object>> stream = adapter.read(file)) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsExactly(
+                Map.entry("A", "a1"), Map.entry("C", "c1"), Map.entry("column_4", "extra"));
+        assertThat(rows.get(0)).doesNotContainKey("B");
+    }
+
+    @Test
+    @DisplayName("open() returns a session that reads every sheet from one open package")
+    void openSessionReadsAllSheets() throws IOException {
+        Path file = createExcelMultiSheet("session.xlsx");
+
+        try (FileReadSession session = adapter.open(file, Map.of())) {
+            assertThat(session.getSheetNames()).containsExactly("Sheet0", "Sheet1");
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                try (Stream<Map<String, Object>> stream = session.read(Map.of("sheetIndex", i))) {
+                    stream.forEach(row -> values.addAll(row.values()));
+                }
+            }
+            assertThat(values).containsExactly("data0", "data1");
+        }
+
+        assertThat(Files.deleteIfExists(file)).isTrue();
+    }
+
+    @Test
+    @DisplayName("sharedStrings MAPPED reads the same rows as the default heap table")
+    void mappedSharedStringsReadSameRows() throws IOException {
+        Path file = createExcel("mapped.xlsx", List.of("Name", "City"),
+                List.of("Alice", "Málaga"), List.of("Bob", "Zürich"), List.of("Alice", "東京"));
+
+        List<Map<String, Object>> heap;
+        try (Stream<Map<String, Object>> stream = adapter.read(file)) {
+            heap = stream.toList();
+        }
+        adapter.release(file);
+
+        List<Map<String, Object>> mapped;
+        try (FileReadSession session = adapter.open(file, Map.of("sharedStrings", "mapped"))) {
+            try (Stream<Map<String, Object>> stream = session.read(Map.of("sheetIndex", 0))) {
+                mapped = stream.toList();
+            }
+        }
+        adapter.release(file);
+
+        assertThat(mapped).isEqualTo(heap);
+        assertThat(mapped.get(2)).containsEntry("City", "東京");
+        assertThat(Files.deleteIfExists(file)).isTrue();
+    }
+
+    @Test
+    @DisplayName("cellParser FAST reads the same rows as the StAX parser")
+    void fastCellParserReadsSameRows() throws IOException {
+        Path file = tempDir.resolve("fast.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+            Sheet sheet = wb.createSheet("Data");
+            Row header = sheet.createRow(0);
+            String[] names = {"Text", "Amount", "When", "Flag", "Formula"};
+            for (int i = 0; i < names.length; i++) header.createCell(i).setCellValue(names[i]);
+            for (int r = 1; r <= 3; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("v & <" + r + "> ñ");
+                row.createCell(1).setCellValue(r * 0.1);
+                Cell when = row.createCell(2);
+                when.setCellValue(LocalDateTime.of(2026, 1, r, 8, 15));
+                when.setCellStyle(dateStyle);
+                if (r != 2) row.createCell(3).setCellValue(r % 2 == 0);
+                Cell formula = row.createCell(4);
+                formula.setCellFormula("A" + (r + 1) + "&\"!\"");
+                wb.getCreationHelper().createFormulaEvaluator().evaluateFormulaCell(formula);
+            }
+            try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+                wb.write(out);
+            }
+        }
+
+        List<Map<String, Object>> stax;
+        try (Stream<Map<String, Object>> stream = adapter.read(file)) {
+            stax = stream.toList();
+        }
+        List<Map<String, Object>> fast;
+        try (Stream<Map<String, Object>> stream = adapter.read(file, Map.of("cellParser", "FAST"))) {
+            fast = stream.toList();
+        }
+
+        assertThat(fast).isEqualTo(stax);
+        assertThat(fast.get(0)).containsEntry("Text", "v & <1> ñ").containsEntry("Formula", "v & <1> ñ!");
+        assertThat(fast.get(1)).doesNotContainKey("Flag");
+    }
+
+    @Test
+    @DisplayName("projection decodes only the requested headers, with either cell parser")
+    void projectionKeepsOnlyRequestedColumns() throws IOException {
+        Path file = createExcel("projection.xlsx", List.of("ID", "First Name", "Notes", "Amount"),
+                List.of("A1", "Ann", "long text", "10"),
+                List.of("A2", "Bob", "more text", "20"));
+        ColumnProjection projection = new ColumnProjection(Set.of("ID"), Set.of("FIRST_NAME"));
+
+        for (String parser : List.of("STAX", "FAST")) {
+            List<Map<String, Object>> rows;
+            try (Stream<Map<String, Object>> stream =
+                         adapter.read(file, Map.of("projection", projection, "cellParser", parser))) {
+                rows = stream.toList();
+            }
+
+            assertThat(rows).as(parser).containsExactly(
+                    Map.of("ID", "A1", "First Name", "Ann"),
+                    Map.of("ID", "A2", "First Name", "Bob"));
+        }
+    }
+
     @Test
     @DisplayName("closing the Stream releases the workbook (file is deletable afterwards)")
     void closingStreamReleasesWorkbookHandle() throws IOException {
@@ -233,6 +393,8 @@ class ExcelFileReaderAdapterTest {
             // consume partially to exercise lazy path
             assertThat(stream.findFirst()).isPresent();
         }
+        // The parsed workbook stays cached for later passes until the job releases the file.
+        adapter.release(file);
 
         // If the workbook handle leaked, Windows would refuse to delete the file here.
         assertThat(Files.deleteIfExists(file)).isTrue();
@@ -265,6 +427,27 @@ class ExcelFileReaderAdapterTest {
         }
     }
 
+    /** Rewrites {@code file} with the {@code <dimension>} element removed from every sheet. */
+    private Path withoutDimension(Path file) throws IOException {
+        Path out = tempDir.resolve("stripped-" + file.getFileName());
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(file));
+             ZipOutputStream zout = new ZipOutputStream(Files.newOutputStream(out))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                byte[] content = zin.readAllBytes();
+                if (entry.getName().startsWith("xl/worksheets/")) {
+                    content = new String(content, StandardCharsets.UTF_8)
+                            .replaceAll("<dimension[^>]*/>", "")
+                            .getBytes(StandardCharsets.UTF_8);
+                }
+                zout.putNextEntry(new ZipEntry(entry.getName()));
+                zout.write(content);
+                zout.closeEntry();
+            }
+        }
+        return out;
+    }
+
     /** Creates a .xlsx with one leading blank row, then header "Col1" and one data row "val". */
     private Path createExcelWithLeadingBlankRow(String fileName) throws IOException {
         try (XSSFWorkbook wb = new XSSFWorkbook()) {
@@ -0,0 +1,55 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedSharedStringsTest {
+
+    private static MappedSharedStrings load(String xml) throws IOException {
+        return MappedSharedStrings.load(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("plain and rich-text items are indexed in order")
+    void readsPlainAndRichItems() throws IOException {
+        String xml = "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"5\" uniqueCount=\"3\">"
+                + "<si><t>alpha</t></si>"
+                + "<si><r><t>be</t></r><r><rPr><b/></rPr><t>ta</t></r></si>"
+                + "<si><t>ñandú €</t></si>"
+                + "</sst>";
+
+        try (MappedSharedStrings sst = load(xml)) {
+            assertThat(sst.getUniqueCount()).isEqualTo(3);
+            assertThat(sst.getCount()).isEqualTo(5);
+            assertThat(sst.getItemAt(0).getString()).isEqualTo("alpha");
+            assertThat(sst.getItemAt(1).getString()).isEqualTo("beta");
+            assertThat(sst.getItemAt(2).getString()).isEqualTo("ñandú €");
+        }
+    }
+
+    @Test
+    @DisplayName("empty items keep their index")
+    void emptyItemKeepsIndex() throws IOException {
+        String xml = "<sst><si><t/></si><si><t>x</t></si></sst>";
+
+        try (MappedSharedStrings sst = load(xml)) {
+            assertThat(sst.getItemAt(0).getString()).isEmpty();
+            assertThat(sst.getItemAt(1).getString()).isEqualTo("x");
+        }
+    }
+
+    @Test
+    @DisplayName("a workbook without a shared-strings part yields an empty table")
+    void nullStreamIsEmpty() throws IOException {
+        try (MappedSharedStrings sst = MappedSharedStrings.load(null)) {
+            assertThat(sst.getUniqueCount()).isZero();
+            assertThat(sst.getCount()).isZero();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SheetSizeScannerTest {
+
+    private static final String HEAD = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">""";
+
+    @Test
+    @DisplayName("dimensionRows reads the row span of the dimension ref, minus the header")
+    void dimensionRowsFromRef() throws IOException {
+        assertThat(SheetSizeScanner.dimensionRows(xml(HEAD + "<dimension ref=\"A1:L50001\"/><sheetData/></worksheet>")))
+                .isEqualTo(50_000);
+        assertThat(SheetSizeScanner.dimensionRows(xml(HEAD + "<dimension ref=\"B3:C7\"/><sheetData/></worksheet>")))
+                .isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("dimensionRows returns -1 without a dimension or with a single-cell ref")
+    void dimensionRowsMissing() throws IOException {
+        assertThat(SheetSizeScanner.dimensionRows(xml(HEAD + "<sheetData><row r=\"1\"/></sheetData><dimension ref=\"A1:A9\"/></worksheet>")))
+                .isEqualTo(-1);
+        assertThat(SheetSizeScanner.dimensionRows(xml(HEAD + "<dimension ref=\"A1\"/><sheetData/></worksheet>")))
+                .isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("countRows counts rows after the first row with a value, including prefixed and inline-string rows")
+    void countRowsAfterHeader() throws IOException {
+        String sheet = """
+                <x:worksheet xmlns:x="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><x:sheetData>
+                <x:row r="1"><x:c r="A1" s="2"/></x:row>
+                <x:row r="2"><x:c r="A2" t="s"><x:v>0</x:v></x:c></x:row>
+                <x:row r="3"><x:c r="A3" t="inlineStr"><x:is><x:t>a</x:t></x:is></x:c></x:row>
+                <x:row r="4"/>
+                <x:row r="5"><x:c r="A5"><x:v>1.5</x:v></x:c></x:row>
+                </x:sheetData></x:worksheet>""";
+
+        assertThat(SheetSizeScanner.countRows(xml(sheet))).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("countRows returns 0 for a header-only or empty sheet")
+    void countRowsHeaderOnly() throws IOException {
+        assertThat(SheetSizeScanner.countRows(xml(HEAD + "<sheetData><row r=\"1\"><c><v>0</v></c></row></sheetData></worksheet>")))
+                .isZero();
+        assertThat(SheetSizeScanner.countRows(xml(HEAD + "<sheetData/></worksheet>"))).isZero();
+    }
+
+    private static InputStream xml(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,95 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxWorkbookCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("acquire() reuses the parsed workbook for the same path, size and mtime")
+    void reusesWorkbookForSameFingerprint() throws IOException {
+        XlsxWorkbookCache cache = new XlsxWorkbookCache(() -> 2);
+        Path file = createExcel("a.xlsx", "v1");
+
+        XlsxWorkbookCache.Handle first = cache.acquire(file);
+        XlsxWorkbookCache.Handle second = cache.acquire(file);
+
+        assertThat(second.workbook()).isSameAs(first.workbook());
+        assertThat(first.workbook().sharedStrings(SharedStringsMode.HEAP)).isSameAs(second.workbook().sharedStrings(SharedStringsMode.HEAP));
+        first.release();
+        second.release();
+        assertThat(first.workbook().isClosed()).isFalse();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("acquire() re-parses a file that changed on disk and closes the stale entry")
+    void reparsesChangedFile() throws IOException {
+        XlsxWorkbookCache cache = new XlsxWorkbookCache(() -> 2);
+        Path file = createExcel("a.xlsx", "v1");
+        XlsxWorkbookCache.Handle before = cache.acquire(file);
+        before.release();
+
+        createExcel("a.xlsx", "a much longer value");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+        XlsxWorkbookCache.Handle after = cache.acquire(file);
+
+        assertThat(after.workbook()).isNotSameAs(before.workbook());
+        assertThat(before.workbook().isClosed()).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+        after.release();
+    }
+
+    @Test
+    @DisplayName("evict() closes idle entries now and pinned entries on their last release")
+    void evictDefersCloseWhilePinned() throws IOException {
+        XlsxWorkbookCache cache = new XlsxWorkbookCache(() -> 2);
+        Path file = createExcel("a.xlsx", "v1");
+        XlsxWorkbookCache.Handle pinned = cache.acquire(file);
+
+        cache.evict(file);
+        assertThat(cache.size()).isZero();
+        assertThat(pinned.workbook().isClosed()).isFalse();
+
+        pinned.release();
+        assertThat(pinned.workbook().isClosed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("idle entries beyond max-entries are closed least-recently-used first")
+    void boundsIdleEntries() throws IOException {
+        XlsxWorkbookCache cache = new XlsxWorkbookCache(() -> 1);
+        XlsxWorkbookCache.Handle a = cache.acquire(createExcel("a.xlsx", "a"));
+        XlsxWorkbookCache.Handle b = cache.acquire(createExcel("b.xlsx", "b"));
+        assertThat(cache.size()).isEqualTo(2); // both pinned: the bound never closes a workbook in use
+
+        a.release();
+        assertThat(a.workbook().isClosed()).isTrue();
+        b.release();
+        assertThat(b.workbook().isClosed()).isFalse();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private Path createExcel(String fileName, String value) throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            wb.createSheet("S").createRow(0).createCell(0).setCellValue(value);
+            Path path = tempDir.resolve(fileName);
+            try (FileOutputStream fos = new FileOutputStream(path.toFile())) { wb.write(fos); }
+            return path;
+        }
+    }
+}
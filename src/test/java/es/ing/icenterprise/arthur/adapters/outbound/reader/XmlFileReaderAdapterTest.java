@@ -0,0 +1,179 @@
+package es.ing.icenterprise.arthur.adapters.outbound.reader;
+
+import es.ing.icenterprise.arthur.core.domain.enums.FileType;
+import es.ing.icenterprise.arthur.core.domain.model.FileMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class XmlFileReaderAdapterTest {
+
+    private final XmlFileReaderAdapter adapter = new XmlFileReaderAdapter();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("supports returns true only for XML file type")
+    void supportsXmlFileType() {
+        assertThat(adapter.supports(FileType.XML)).isTrue();
+        assertThat(adapter.supports(FileType.EXCEL)).isFalse();
+    }
+
+    @Test
+    @DisplayName("read detects the repeating record element and flattens nested fields into dotted columns")
+    void readDetectsRecordsAndFlattensFields() throws IOException {
+        Path file = write("books.xml", """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <catalog>
+                  <book id="b1">
+                    <title>Dune</title>
+                    <author><name>Herbert</name></author>
+                    <price currency="EUR">9.50</price>
+                    <tag>sf</tag>
+                    <tag>classic</tag>
+                  </book>
+                  <book id="b2">
+                    <title><![CDATA[Fish & Chips]]></title>
+                    <empty/>
+                  </book>
+                </catalog>
+                """);
+
+        List<Map<String, Object>> rows = readAll(file, Map.of());
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0))
+                .containsEntry("id", "b1")
+                .containsEntry("title", "Dune")
+                .containsEntry("author.name", "Herbert")
+                .containsEntry("price", "9.50")
+                .containsEntry("price.currency", "EUR")
+                .containsEntry("tag", List.of("sf", "classic"));
+        assertThat(rows.get(1))
+                .containsEntry("title", "Fish & Chips")
+                .containsEntry("empty", "")
+                .doesNotContainKey("author.name");
+    }
+
+    @Test
+    @DisplayName("detection prefers the shallowest repeating element over repeats nested inside a record")
+    void detectionPrefersShallowestRepeat() throws IOException {
+        Path file = write("orders.xml", """
+                <export><orders>
+                  <order><no>1</no><lines><line><sku>A</sku></line><line><sku>B</sku></line></lines></order>
+                  <order><no>2</no><lines><line><sku>C</sku></line></lines></order>
+                </orders></export>
+                """);
+
+        List<Map<String, Object>> rows = readAll(file, Map.of());
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsEntry("no", "1").containsEntry("lines.line.sku", List.of("A", "B"));
+        assertThat(rows.get(1)).containsEntry("no", "2").containsEntry("lines.line.sku", "C");
+    }
+
+    @Test
+    @DisplayName("recordPath selects the record element, relative or from the root")
+    void recordPathSelectsRecords() throws IOException {
+        Path file = write("nested.xml", """
+                <export><orders>
+                  <order><no>1</no><lines><line><sku>A</sku></line><line><sku>B</sku></line></lines></order>
+                  <order><no>2</no><lines><line><sku>C</sku></line></lines></order>
+                </orders></export>
+                """);
+
+        assertThat(readAll(file, Map.of("recordPath", "line")))
+                .extracting(r -> r.get("sku")).containsExactly("A", "B", "C");
+        assertThat(readAll(file, Map.of("recordPath", "/export/orders/order/lines/line"))).hasSize(3);
+        assertThat(readAll(file, Map.of("recordPath", "/order"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a document without repeating elements is read as a single row")
+    void singleRecordDocument() throws IOException {
+        Path file = write("single.xml", "<settings version=\"2\"><mode>fast</mode><limit>10</limit></settings>");
+
+        assertThat(readAll(file, Map.of()))
+                .containsExactly(Map.of("version", "2", "mode", "fast", "limit", "10"));
+    }
+
+    @Test
+    @DisplayName("records are parsed lazily: rows before a malformed tail can be consumed")
+    void readIsLazy() throws IOException {
+        Path file = write("truncated.xml", """
+                <items>
+                  <item><v>1</v></item>
+                  <item><v>2</v></item>
+                  <item><v>3</v>
+                """);
+
+        try (Stream<Map<String, Object>> stream = adapter.read(file, Map.of("recordPath", "item"))) {
+            assertThat(stream.limit(2).map(r -> r.get("v")).toList()).containsExactly("1", "2");
+        }
+        assertThatThrownBy(() -> readAll(file, Map.of("recordPath", "item")))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Failed to parse XML");
+    }
+
+    @Test
+    @DisplayName("read throws RuntimeException for non-existent file")
+    void readThrowsForMissingFile() {
+        Path missing = tempDir.resolve("missing.xml");
+        assertThatThrownBy(() -> adapter.read(missing))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Failed to read XML file");
+    }
+
+    @Test
+    @DisplayName("readFileMetadata counts records")
+    void readFileMetadataCountsRecords() throws IOException {
+        Path file = write("meta.xml", "<rows><row><a>1</a></row><row><a>2</a></row><row><a>3</a></row></rows>");
+
+        FileMetadata meta = adapter.readFileMetadata(file);
+
+        assertThat(meta.records()).isEqualTo(3);
+        assertThat(meta.exact()).isTrue();
+        assertThat(meta.fileSize()).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("readFileMetadata extrapolates the record count from a sample of large files")
+    void readFileMetadataEstimatesLargeFiles() throws IOException {
+        int records = 60_000;
+        StringBuilder xml = new StringBuilder("<rows>\n");
+        for (int i = 0; i < records; i++) {
+            xml.append("  <row id=\"").append(i % 10).append("\"><name>item</name></row>\n");
+        }
+        Path file = write("large.xml", xml.append("</rows>\n").toString());
+        assertThat(Files.size(file)).isGreaterThan(XmlFileReaderAdapter.METADATA_SAMPLE_BYTES);
+
+        FileMetadata meta = adapter.readFileMetadata(file, Map.of("recordPath", "row"));
+
+        assertThat(meta.exact()).isFalse();
+        assertThat(meta.records()).isCloseTo(records, withinPercentage(5));
+    }
+
+    // ── helpers ───────────────────────────────────────────────────────────────
+
+    private List<Map<String, Object>> readAll(Path file, Map<String, Object> params) {
+        try (Stream<Map<String, Object>> stream = adapter.read(file, params)) {
+            return stream.toList();
+        }
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(fileName), content);
+    }
+}
@@ -2,6 +2,7 @@ package es.ing.icenterprise.arthur.adapters.outbound.yaml;
 
 import es.ing.icenterprise.arthur.core.domain.definition.ingest.FileSourceType;
 import es.ing.icenterprise.arthur.core.domain.definition.ingest.JobDefinition;
+import es.ing.icenterprise.arthur.core.domain.enums.ExecutionMode;
 import es.ing.icenterprise.arthur.core.domain.enums.FileType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +33,9 @@ class SnakeYamlJobDefinitionAdapterTest {
                 enabled: true
                 fileType: EXCEL
                 batchSize: 1000
+                executionMode: streaming
+                reader:
+                  sharedStrings: MAPPED
                 source:
                   type: RESOURCES
                   location:
@@ -76,6 +80,8 @@ class SnakeYamlJobDefinitionAdapterTest {
         assertThat(definition.enabled()).isTrue();
         assertThat(definition.fileType()).isEqualTo(FileType.EXCEL);
         assertThat(definition.batchSize()).isEqualTo(1000);
+        assertThat(definition.executionMode()).isEqualTo(ExecutionMode.STREAMING);
+        assertThat(definition.reader()).containsEntry("sharedStrings", "MAPPED");
         assertThat(definition.source().type()).isEqualTo(FileSourceType.RESOURCES);
         assertThat(definition.source().location().path()).isEqualTo("/data/test.xlsx");
         assertThat(definition.tasks()).hasSize(2);
@@ -113,6 +119,8 @@ class SnakeYamlJobDefinitionAdapterTest {
         assertThat(definition.name()).isEqualTo("minimal-job");
         assertThat(definition.enabled()).isTrue();
         assertThat(definition.batchSize()).isEqualTo(500);
+        assertThat(definition.executionMode()).isEqualTo(ExecutionMode.IN_MEMORY);
+        assertThat(definition.reader()).isEmpty();
         assertThat(definition.tasks()).isEmpty();
     }
 
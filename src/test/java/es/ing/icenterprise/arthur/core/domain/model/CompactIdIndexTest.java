@@ -0,0 +1,74 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactIdIndexTest {
+
+    @Test
+    @DisplayName("contains matches ids by their text, across types, and ignores duplicates and nulls")
+    void containsByText() {
+        CompactIdIndex index = CompactIdIndex.builder()
+                .add("b/2").add(new BigDecimal("42")).add("a/1").add("b/2").add(null).add("ñandú").add("")
+                .build();
+
+        assertThat(index.size()).isEqualTo(5);
+        assertThat(index.contains("a/1")).isTrue();
+        assertThat(index.contains("42")).isTrue();
+        assertThat(index.contains(42)).isTrue();
+        assertThat(index.contains("ñandú")).isTrue();
+        assertThat(index.contains("")).isTrue();
+        assertThat(index.contains("a/")).isFalse();
+        assertThat(index.contains("b/20")).isFalse();
+        assertThat(index.contains(null)).isFalse();
+        assertThat(CompactIdIndex.builder().build().contains("a")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ids are indexed and looked up by canonical key, so types, padding and case do not matter")
+    void containsByCanonicalKey() {
+        CompactIdIndex index = CompactIdIndex.canonicalBuilder()
+                .add(new BigDecimal("12345")).add(12345.0).add(" AB12 ").add("007")
+                .build();
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.contains(12345.0)).isTrue();
+        assertThat(index.contains(12345L)).isTrue();
+        assertThat(index.contains("12345.00")).isTrue();
+        assertThat(index.contains("ab12")).isTrue();
+        assertThat(index.contains("Ab12 ")).isTrue();
+        assertThat(index.contains("007")).isTrue();
+        assertThat(index.contains(7)).isFalse();
+    }
+
+    @Test
+    @DisplayName("the default builder compares ids by their exact text")
+    void containsByExactText() {
+        CompactIdIndex index = CompactIdIndex.builder().add("AB12").add("12345").build();
+
+        assertThat(index.contains("AB12")).isTrue();
+        assertThat(index.contains("ab12")).isFalse();
+        assertThat(index.contains(" AB12")).isFalse();
+        assertThat(index.contains(12345L)).isTrue();
+        assertThat(index.contains(12345.0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("a large index answers exactly and holds far fewer bytes than a HashSet of Strings")
+    void largeIndexIsExactAndCompact() {
+        CompactIdIndex.Builder builder = CompactIdIndex.builder();
+        IntStream.range(0, 200_000).map(i -> i * 2).forEach(i -> builder.add("ctrl/" + i));
+        CompactIdIndex index = builder.build();
+
+        assertThat(index.size()).isEqualTo(200_000);
+        assertThat(IntStream.range(0, 200_000).allMatch(i -> index.contains("ctrl/" + (i * 2)))).isTrue();
+        assertThat(IntStream.range(0, 200_000).noneMatch(i -> index.contains("ctrl/" + (i * 2 + 1)))).isTrue();
+        // ~11 bytes of text plus ~9.25 bytes of offsets and Bloom bits per id.
+        assertThat(index.sizeInBytes()).isLessThan(200_000L * 22);
+    }
+}
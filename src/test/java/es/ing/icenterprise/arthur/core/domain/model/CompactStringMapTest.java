@@ -0,0 +1,46 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactStringMapTest {
+
+    @Test
+    @DisplayName("get returns the last value put for a key, and null for absent keys and null values")
+    void getReturnsLastValue() {
+        CompactStringMap map = CompactStringMap.builder()
+                .put("alice@example.com", "CK1").put("bob", "CK2").put("alice@example.com", "CK3")
+                .put("ñandú", "Ñ").put("", "empty").put("nobody", null).put(null, "ignored")
+                .build();
+
+        assertThat(map.size()).isEqualTo(5);
+        assertThat(map.get("alice@example.com")).isEqualTo("CK3");
+        assertThat(map.get("bob")).isEqualTo("CK2");
+        assertThat(map.get("ñandú")).isEqualTo("Ñ");
+        assertThat(map.get("")).isEqualTo("empty");
+        assertThat(map.get("nobody")).isNull();
+        assertThat(map.get("bo")).isNull();
+        assertThat(map.get(null)).isNull();
+        assertThat(CompactStringMap.builder().build().get("a")).isNull();
+    }
+
+    @Test
+    @DisplayName("a large map answers exactly and holds far fewer bytes than a HashMap of Strings")
+    void largeMapIsExactAndCompact() {
+        CompactStringMap.Builder builder = CompactStringMap.builder();
+        IntStream.range(0, 200_000).forEach(i -> builder.put("user" + i + "@example.com", "CK" + i));
+        CompactStringMap map = builder.build();
+
+        assertThat(map.size()).isEqualTo(200_000);
+        assertThat(IntStream.range(0, 200_000)
+                .allMatch(i -> ("CK" + i).equals(map.get("user" + i + "@example.com")))).isTrue();
+        assertThat(IntStream.range(200_000, 210_000).noneMatch(i -> map.get("user" + i + "@example.com") != null))
+                .isTrue();
+        // ~29 bytes of text plus ~19 bytes of offsets and slots per entry (the table is 38% full).
+        assertThat(map.sizeInBytes()).isLessThan(200_000L * 50);
+    }
+}
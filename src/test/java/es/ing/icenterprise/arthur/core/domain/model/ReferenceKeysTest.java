@@ -0,0 +1,43 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceKeysTest {
+
+    @Test
+    @DisplayName("numbers of any type and their plain-decimal text share one key")
+    void numbersShareOneKey() {
+        assertThat(ReferenceKeys.canonical(12345.0)).isEqualTo("12345");
+        assertThat(ReferenceKeys.canonical(12345)).isEqualTo("12345");
+        assertThat(ReferenceKeys.canonical(12345L)).isEqualTo("12345");
+        assertThat(ReferenceKeys.canonical(BigInteger.valueOf(12345))).isEqualTo("12345");
+        assertThat(ReferenceKeys.canonical(new BigDecimal("12345.000"))).isEqualTo("12345");
+        assertThat(ReferenceKeys.canonical(new BigDecimal("1E+3"))).isEqualTo("1000");
+        assertThat(ReferenceKeys.canonical(new BigDecimal("0.00"))).isEqualTo("0");
+        assertThat(ReferenceKeys.canonical(-0.0)).isEqualTo("0");
+        assertThat(ReferenceKeys.canonical(1.5)).isEqualTo("1.5");
+        assertThat(ReferenceKeys.canonical(0.1f)).isEqualTo("0.1");
+        assertThat(ReferenceKeys.canonical(1.0E-5)).isEqualTo("0.00001");
+        assertThat(ReferenceKeys.canonical(" 12345.00 ")).isEqualTo("12345");
+        assertThat(ReferenceKeys.canonical("-1.50")).isEqualTo("-1.5");
+    }
+
+    @Test
+    @DisplayName("text is trimmed and lower-cased; codes keep their leading zeros and other dots")
+    void textIsTrimmedAndLowerCased() {
+        assertThat(ReferenceKeys.canonical("  AB12 ")).isEqualTo("ab12");
+        assertThat(ReferenceKeys.canonical("007")).isEqualTo("007");
+        assertThat(ReferenceKeys.canonical("1.0.0")).isEqualTo("1.0.0");
+        assertThat(ReferenceKeys.canonical("12.")).isEqualTo("12.");
+        assertThat(ReferenceKeys.canonical("path/Ctrl-1.0")).isEqualTo("path/ctrl-1.0");
+        assertThat(ReferenceKeys.canonical("")).isEmpty();
+        assertThat(ReferenceKeys.canonical(Boolean.TRUE)).isEqualTo("true");
+        assertThat(ReferenceKeys.canonical(null)).isNull();
+    }
+}
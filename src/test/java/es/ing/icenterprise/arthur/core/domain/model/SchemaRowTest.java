@@ -0,0 +1,81 @@
+package es.ing.icenterprise.arthur.core.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaRowTest {
+
+    @Test
+    @DisplayName("SchemaRow behaves like the LinkedHashMap it replaces: absent slots are not keys, nulls are")
+    void behavesLikeLinkedHashMap() {
+        RowSchema schema = new RowSchema(List.of("A", "B", "C"));
+        SchemaRow row = new SchemaRow(schema);
+        row.put("A", "a");
+        row.put("C", null);
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("A", "a");
+        expected.put("C", null);
+
+        assertThat(row).isEqualTo(expected);
+        assertThat(row).hasSize(2);
+        assertThat(row.containsKey("B")).isFalse();
+        assertThat(row.containsKey("C")).isTrue();
+        assertThat(row.keySet()).containsExactly("A", "C");
+        assertThat(new HashMap<>(row)).isEqualTo(expected);
+
+        row.remove("A");
+        assertThat(row).containsOnlyKeys("C");
+    }
+
+    @Test
+    @DisplayName("put() with an unknown column appends it to the shared schema")
+    void putAppendsUnknownColumnToSchema() {
+        RowSchema schema = new RowSchema(List.of("A"));
+        SchemaRow first = new SchemaRow(schema);
+        SchemaRow second = new SchemaRow(schema);
+
+        first.put("NEW", 1);
+
+        assertThat(schema.columns()).containsExactly("A", "NEW");
+        assertThat(first.get("NEW")).isEqualTo(1);
+        assertThat(second.containsKey("NEW")).isFalse();
+        second.put("NEW", 2);
+        assertThat(second.getAt(schema.indexOf("NEW"))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("replaceAll() rewrites present slots only")
+    void replaceAllSkipsAbsentSlots() {
+        SchemaRow row = new SchemaRow(new RowSchema(List.of("A", "B")));
+        row.put("B", " x ");
+
+        row.replaceAll((k, v) -> v instanceof String s ? s.trim() : v);
+
+        assertThat(row).containsExactly(Map.entry("B", "x"));
+    }
+
+    @Test
+    @DisplayName("ColumnRef reads and writes SchemaRow and plain-map actions alike")
+    void columnRefReadsAndWritesBothRowKinds() {
+        SchemaRow schemaRow = new SchemaRow(new RowSchema(List.of("ID")));
+        schemaRow.put("ID", "s-1");
+        Map<String, Object> plain = new HashMap<>(Map.of("ID", "p-1"));
+
+        ColumnRef id = ColumnRef.of("ID");
+        ColumnRef target = ColumnRef.of("OUT");
+        for (Action action : List.of(new Action(schemaRow), new Action(plain))) {
+            target.set(action, id.get(action) + "!");
+        }
+
+        assertThat(schemaRow.get("OUT")).isEqualTo("s-1!");
+        assertThat(plain.get("OUT")).isEqualTo("p-1!");
+    }
+}
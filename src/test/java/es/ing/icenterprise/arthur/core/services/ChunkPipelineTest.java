@@ -0,0 +1,85 @@
+package es.ing.icenterprise.arthur.core.services;
+
+import es.ing.icenterprise.arthur.core.domain.model.Action;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkPipelineTest {
+
+    @Test
+    @DisplayName("chunks reach the write stage in read order, after the transform stage")
+    void chunksFlowInOrder() {
+        ChunkPipeline pipeline = new ChunkPipeline(3, 1, () -> false);
+        List<Object> written = new ArrayList<>();
+
+        pipeline.run(rows(10), first -> {},
+                chunk -> chunk.forEach(a -> a.data().put("seen", true)),
+                chunk -> chunk.forEach(a -> {
+                    assertThat(a.data()).containsEntry("seen", true);
+                    written.add(a.data().get("n"));
+                }));
+
+        assertThat(written).containsExactlyElementsOf(IntStream.range(0, 10).boxed().toList());
+        assertThat(pipeline.metrics())
+                .containsEntry("pipeline.read.rows", 10L)
+                .containsEntry("pipeline.transform.rows", 10L)
+                .containsEntry("pipeline.write.rows", 10L)
+                .containsKeys("pipeline.transformQueue.avgDepth", "pipeline.writeQueue.maxDepth");
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("a failing write stage stops the read stage and is rethrown to the caller")
+    void writeFailureStopsReading() {
+        ChunkPipeline pipeline = new ChunkPipeline(2, 1, () -> false);
+        AtomicInteger pulled = new AtomicInteger();
+        Iterator<Map<String, Object>> endless = Stream.iterate(0, i -> i + 1)
+                .peek(i -> pulled.incrementAndGet())
+                .map(ChunkPipelineTest::row)
+                .iterator();
+
+        assertThatThrownBy(() -> pipeline.run(endless, first -> {}, chunk -> {},
+                chunk -> { throw new IllegalStateException("db down"); }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("db down");
+        assertThat(pulled.get()).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("a reader failure is rethrown once the chunks already read have been written")
+    void readFailureIsRethrown() {
+        ChunkPipeline pipeline = new ChunkPipeline(1, 2, () -> false);
+        Iterator<Map<String, Object>> failing = Stream.<Map<String, Object>>concat(
+                Stream.of(row(0)), Stream.generate(() -> { throw new IllegalArgumentException("bad file"); }))
+                .iterator();
+        List<List<Action>> written = new ArrayList<>();
+
+        assertThatThrownBy(() -> pipeline.run(failing, first -> {}, chunk -> {}, written::add))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bad file");
+        assertThat(written).hasSize(1);
+    }
+
+    private static Iterator<Map<String, Object>> rows(int count) {
+        return IntStream.range(0, count).mapToObj(ChunkPipelineTest::row).iterator();
+    }
+
+    private static Map<String, Object> row(int n) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("n", n);
+        return row;
+    }
+}
@@ -4,19 +4,28 @@ import es.ing.icenterprise.arthur.core.domain.enums.*;
 import es.ing.icenterprise.arthur.core.domain.model.*;
 import es.ing.icenterprise.arthur.core.ports.outbound.FileReaderPort;
 import es.ing.icenterprise.arthur.core.ports.outbound.InsertResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.LinkResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.MergeResult;
+import es.ing.icenterprise.arthur.core.ports.outbound.ParentLink;
 import es.ing.icenterprise.arthur.core.ports.outbound.PersistencePort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,20 +50,24 @@ class DefaultJobProcessorTest {
                     List<?> chunk = inv.getArgument(0);
                     return new InsertResult(chunk.size(), 0);
                 });
+        lenient().when(persistencePort.loadExistingIdIndex(anyString(), any(), anyString(), any(), any()))
+                .thenReturn(CompactIdIndex.builder().build());
+        lenient().when(persistencePort.loadReferenceIndex(anyString(), any(), anyString(), any(), any()))
+                .thenReturn(CompactIdIndex.canonicalBuilder().build());
         processor = new DefaultJobProcessor(List.of(fileReader), persistencePort, columnAutoMapper);
     }
 
     // ── LOOKUP ───────────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("LOOKUP step resolves values via lookupValues() and adds SUMMARY log")
+    @DisplayName("LOOKUP step resolves values via lookupDictionary() and adds SUMMARY log")
     void lookupStepResolvesValuesAndAddsSummaryLog() {
         Map<String, Object> rowData = new HashMap<>();
         rowData.put("Email", "alice@example.com");
         givenFileData(rowData);
 
-        when(persistencePort.lookupValues(eq("hr"), isNull(), eq("mail"), eq("id"), isNull()))
-                .thenReturn(Map.of("alice@example.com", "CK123"));
+        when(persistencePort.lookupDictionary(eq("hr"), isNull(), eq("mail"), eq("id"), isNull()))
+                .thenReturn(dictionary("alice@example.com", "CK123"));
 
         Job job = buildJob(TaskType.TRANSFORMATION,
                 new Step("resolve", StepType.LOOKUP, 1, Map.of(
@@ -67,7 +80,7 @@ class DefaultJobProcessorTest {
 
         processor.process(List.of(job));
 
-        verify(persistencePort).lookupValues("hr", null, "mail", "id", null);
+        verify(persistencePort).lookupDictionary("hr", null, "mail", "id", null);
         assertThat(stepLogs(job)).anyMatch(e -> e.getLevel() == LogLevel.SUMMARY);
         assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
     }
@@ -79,8 +92,8 @@ class DefaultJobProcessorTest {
         rowData.put("Owner", "Unknown");
         givenFileData(rowData);
 
-        when(persistencePort.lookupValues(any(), any(), any(), any(), any()))
-                .thenReturn(Map.of("alice@example.com", "CK123"));
+        when(persistencePort.lookupDictionary(any(), any(), any(), any(), any()))
+                .thenReturn(dictionary("alice@example.com", "CK123"));
 
         Job job = buildJob(TaskType.TRANSFORMATION,
                 new Step("resolve", StepType.LOOKUP, 1, Map.of(
@@ -101,6 +114,69 @@ class DefaultJobProcessorTest {
         assertThat(summaryLog.getMessage()).contains("set to null");
     }
 
+    @Test
+    @DisplayName("LOOKUP resolves numeric and padded keys by canonical key")
+    void lookupStepMatchesByCanonicalKey() {
+        lenient().when(fileReader.read(any(Path.class), anyMap())).thenAnswer(inv -> Stream.of(
+                new HashMap<>(Map.of("Owner", 42.0)),
+                new HashMap<>(Map.of("Owner", " Alice@Example.com "))));
+        when(persistencePort.lookupDictionary(any(), any(), any(), any(), any()))
+                .thenReturn(dictionary("42", "CK42", "alice@example.com", "CK123"));
+
+        Job job = buildJob(TaskType.TRANSFORMATION,
+                new Step("resolve", StepType.LOOKUP, 1, Map.of(
+                        "sourceColumn", "Owner",
+                        "targetColumn", "Owner_CK",
+                        "referenceTable", "hr",
+                        "referenceKeyColumn", "mail",
+                        "referenceValueColumn", "id"
+                )));
+
+        processor.process(List.of(job));
+
+        assertThat(stepLogs(job)).filteredOn(e -> e.getLevel() == LogLevel.SUMMARY)
+                .singleElement().satisfies(e -> assertThat(e.getMessage()).contains("2 resolved, 0 set to null"));
+    }
+
+    @Test
+    @DisplayName("LOOKUP dictionaries are shared by the jobs of a run, reloaded when MAX changes, and not kept across runs")
+    void lookupDictionaryIsSharedWithinARun() {
+        givenFileData(row("Email", "alice@example.com"));
+        when(persistencePort.latestTimestamp("hr", null, "TIMESTAMP")).thenReturn(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), LocalDate.of(2026, 1, 2));
+        when(persistencePort.lookupDictionary("hr", null, "mail", "id", "TIMESTAMP"))
+                .thenReturn(dictionary("alice@example.com", "CK1"), dictionary("alice@example.com", "CK2"),
+                        dictionary("alice@example.com", "CK3"));
+        Map<String, Object> lookup = Map.of(
+                "sourceColumn", "Email",
+                "targetColumn", "CK",
+                "referenceTable", "hr",
+                "referenceKeyColumn", "mail",
+                "referenceValueColumn", "id",
+                "timestampColumn", "TIMESTAMP");
+        // Run 1: the second job reuses the first one's dictionary, the third sees a new snapshot.
+        // Run 2: same MAX as the end of run 1, but the HR import may have rewritten that snapshot.
+        List<Job> firstRun = List.of(
+                buildJob(TaskType.TRANSFORMATION, new Step("resolve", StepType.LOOKUP, 1, lookup)),
+                buildJob(TaskType.TRANSFORMATION, new Step("resolve", StepType.LOOKUP, 1, lookup)),
+                buildJob(TaskType.TRANSFORMATION, new Step("resolve", StepType.LOOKUP, 1, lookup)));
+        List<Job> secondRun = List.of(
+                buildJob(TaskType.TRANSFORMATION, new Step("resolve", StepType.LOOKUP, 1, lookup)));
+
+        for (List<Job> run : List.of(firstRun, secondRun)) {
+            processor.prepareRun(run);
+            processor.process(run);
+            processor.finishRun(run);
+        }
+
+        verify(persistencePort, times(4)).latestTimestamp("hr", null, "TIMESTAMP");
+        verify(persistencePort, times(3)).lookupDictionary("hr", null, "mail", "id", "TIMESTAMP");
+        verify(persistencePort, never()).lookupValues(any(), any(), any(), any(), any());
+        assertThat(firstRun.get(1).getTasks().get(0).getSteps().get(0).getMetrics().getCustomMetrics())
+                .containsEntry("lookupEntries", 1);
+        assertThat(secondRun.get(0).getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
     // ── LINK_PARENT ──────────────────────────────────────────────────────────
 
     @Test
@@ -113,9 +189,6 @@ class DefaultJobProcessorTest {
         rowData.put("ParentObjects", "ctrl-1");
         givenFileData(rowData);
 
-        when(persistencePort.checkExists(eq("CONTROL"), any(), anyString(), any(), anyString(), any()))
-                .thenReturn(false);
-
         Job job = buildJob(TaskType.PERSISTENCE,
                 new Step("link", StepType.LINK_PARENT, 1, Map.of(
                         "idColumn", "ID",
@@ -149,8 +222,8 @@ class DefaultJobProcessorTest {
         rowData.put("ParentObjects", "ctrl-1");
         givenFileData(rowData);
 
-        when(persistencePort.checkExists(eq("CONTROL"), any(), anyString(), any(), anyString(), any()))
-                .thenReturn(true);
+        when(persistencePort.loadExistingIdIndex(eq("CONTROL"), any(), eq("ID"), eq("TIMESTAMP"), any()))
+                .thenReturn(CompactIdIndex.builder().add("path/ctrl-1").build());
 
         Job job = buildJob(TaskType.PERSISTENCE,
                 new Step("link", StepType.LINK_PARENT, 1, Map.of(
@@ -167,10 +240,87 @@ class DefaultJobProcessorTest {
 
         processor.process(List.of(job));
 
-        verify(persistencePort).insertRow(eq("RISK_CONTROL"), any(), anyMap());
+        verify(persistencePort).insertRows(eq("RISK_CONTROL"), any(), argThat(rows -> rows.size() == 1));
+        verify(persistencePort, never()).checkExists(any(), any(), any(), any(), any(), any());
         assertThat(stepLogs(job)).anyMatch(e -> e.getLevel() == LogLevel.SUMMARY);
     }
 
+    @Test
+    @DisplayName("LINK_PARENT loads each checkTable once per step and batches relation rows")
+    void linkParentPreloadsParentsAndBatchesRelations() {
+        lenient().when(fileReader.read(any(Path.class), anyMap()))
+                .thenAnswer(inv -> IntStream.range(0, 5).mapToObj(i -> {
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("ID", "risk-" + i);
+                    row.put("ParentType", "Control");
+                    row.put("ParentPath", "path");
+                    row.put("ParentObjects", i < 4 ? "ctrl-1" : "ctrl-missing");
+                    return row;
+                }));
+        when(persistencePort.loadExistingIdIndex(eq("CONTROL"), any(), anyString(), anyString(), any()))
+                .thenReturn(CompactIdIndex.builder().add("path/ctrl-1").build());
+
+        Job job = buildStreamingJob(2, TaskType.PERSISTENCE,
+                new Step("link", StepType.LINK_PARENT, 1, Map.of(
+                        "idColumn", "ID",
+                        "parentTypeColumn", "ParentType",
+                        "parentPathColumn", "ParentPath",
+                        "parentObjectsColumn", "ParentObjects",
+                        "rules", List.of(Map.of(
+                                "parentType", "Control",
+                                "checkTable", "CONTROL",
+                                "relationTable", "RISK_CONTROL"
+                        ))
+                )));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, times(1)).loadExistingIdIndex(eq("CONTROL"), any(), any(), any(), any());
+        verify(persistencePort, times(2)).insertRows(eq("RISK_CONTROL"), any(), argThat(rows -> rows.size() == 2));
+        // 5 lookups + 4 inserts per row, against 1 preload + 2 batches.
+        assertThat(job.getTasks().get(0).getSteps().get(0).getMetrics().getCustomMetrics())
+                .containsEntry("roundTripsSaved", 6L);
+        assertThat(stepLogs(job)).anyMatch(e -> e.getLevel() == LogLevel.SUMMARY
+                && e.getMessage().contains("4 linked, 1 parent not found"));
+    }
+
+    @Test
+    @DisplayName("LINK_PARENT with linkMode SET_BASED hands the links to the database, or falls back when unsupported")
+    void linkParentSetBasedUsesTheDatabaseOrFallsBack() {
+        Map<String, Object> rowData = new HashMap<>();
+        rowData.put("ID", "risk-1");
+        rowData.put("ParentType", "Control");
+        rowData.put("ParentPath", "path");
+        rowData.put("ParentObjects", "ctrl-1");
+        givenFileData(rowData);
+        Map<String, Object> params = Map.of(
+                "idColumn", "ID",
+                "parentTypeColumn", "ParentType",
+                "parentPathColumn", "ParentPath",
+                "parentObjectsColumn", "ParentObjects",
+                "linkMode", "SET_BASED",
+                "rules", List.of(Map.of("parentType", "Control", "checkTable", "CONTROL", "relationTable", "RISK_CONTROL")));
+        when(persistencePort.linkParents(anyList(), anyList(), anyMap()))
+                .thenReturn(new LinkResult(1, 0, 3))
+                .thenReturn(null);
+
+        Job setBased = buildJob(TaskType.PERSISTENCE, new Step("link", StepType.LINK_PARENT, 1, params));
+        processor.process(List.of(setBased));
+
+        verify(persistencePort).linkParents(eq(List.of(new ParentLink("risk-1", "path/ctrl-1", 0))), anyList(), anyMap());
+        verify(persistencePort, never()).loadExistingIdIndex(any(), any(), any(), any(), any());
+        assertThat(stepLogs(setBased)).anyMatch(e -> e.getLevel() == LogLevel.SUMMARY
+                && e.getMessage().contains("1 linked, 0 parent not found"));
+
+        Job fallback = buildJob(TaskType.PERSISTENCE, new Step("link", StepType.LINK_PARENT, 1, params));
+        processor.process(List.of(fallback));
+
+        verify(persistencePort).loadExistingIdIndex(eq("CONTROL"), any(), any(), any(), any());
+        assertThat(stepLogs(fallback)).anyMatch(e -> e.getLevel() == LogLevel.WARN
+                && e.getMessage().contains("linkMode SET_BASED is not supported"));
+        assertThat(fallback.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
     // ── VALIDATE_REFERENCE ───────────────────────────────────────────────────
 
     @Test
@@ -181,8 +331,8 @@ class DefaultJobProcessorTest {
         rowData.put("DOMAIN_ID", "unknown-domain");
         givenFileData(rowData);
 
-        when(persistencePort.loadReferenceIds(anyString(), any(), anyString(), anyString(), any()))
-                .thenReturn(Set.of("domain-1", "domain-2")); // "unknown-domain" absent
+        when(persistencePort.loadReferenceIndex(anyString(), any(), anyString(), anyString(), any()))
+                .thenReturn(CompactIdIndex.builder().add("domain-1").add("domain-2").build()); // "unknown-domain" absent
 
         Job job = buildJob(TaskType.PERSISTENCE,
                 new Step("validate", StepType.VALIDATE_REFERENCE, 1, Map.of(
@@ -198,6 +348,116 @@ class DefaultJobProcessorTest {
         assertThat(logs).anyMatch(e -> e.getLevel() == LogLevel.SUMMARY);
     }
 
+    @Test
+    @DisplayName("VALIDATE_REFERENCE writes ETL_LOG rows in batches of etlLogBatchSize, in row order")
+    @SuppressWarnings("unchecked")
+    void validateReferenceBatchesEtlLogRows() {
+        givenFileRows(5);
+        when(persistencePort.loadReferenceIndex(anyString(), any(), anyString(), anyString(), any()))
+                .thenReturn(CompactIdIndex.builder().build());
+        List<List<Map<String, Object>>> batches = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> batches.add(List.copyOf(inv.getArgument(2))))
+                .when(persistencePort).insertRows(eq("ETL_LOG"), any(), anyList());
+
+        Job job = buildJob(TaskType.PERSISTENCE,
+                new Step("validate", StepType.VALIDATE_REFERENCE, 1, Map.of(
+                        "fieldColumn", "ID",
+                        "referenceTable", "DOMAIN",
+                        "etlLogTable", "ETL_LOG",
+                        "etlLogBatchSize", 2
+                )));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, never()).insertRow(eq("ETL_LOG"), any(), anyMap());
+        assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(batches.stream().flatMap(List::stream).map(r -> r.get("WHERE_B")))
+                .containsExactly("id-0", "id-1", "id-2", "id-3", "id-4");
+        Map<String, Object> metrics = job.getTasks().get(0).getSteps().get(0).getMetrics().getCustomMetrics();
+        assertThat(metrics).containsEntry("etlLogRows", 5L).containsEntry("etlLogBatches", 3L);
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("VALIDATE_REFERENCE retries a failed ETL_LOG batch row by row and counts the rows before the bad one")
+    void validateReferenceRetriesAFailedEtlLogBatchRowByRow() {
+        givenFileRows(5);
+        doAnswer(inv -> {
+            throw new IllegalStateException("batch rejected");
+        }).when(persistencePort).insertRows(eq("ETL_LOG"), any(), anyList());
+        List<Object> retried = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> {
+            Map<String, Object> row = inv.getArgument(2);
+            retried.add(row.get("WHERE_B"));
+            if ("id-3".equals(row.get("WHERE_B"))) throw new IllegalStateException("value too long");
+            return null;
+        }).when(persistencePort).insertRow(eq("ETL_LOG"), any(), anyMap());
+
+        Job job = buildJob(TaskType.PERSISTENCE,
+                new Step("validate", StepType.VALIDATE_REFERENCE, 1, Map.of(
+                        "fieldColumn", "ID",
+                        "referenceTable", "DOMAIN",
+                        "etlLogTable", "ETL_LOG",
+                        "etlLogBatchSize", 10
+                )));
+
+        processor.process(List.of(job));
+
+        assertThat(retried).containsExactly("id-0", "id-1", "id-2", "id-3");
+        assertThat(job.getTasks().get(0).getSteps().get(0).getMetrics().getCustomMetrics())
+                .containsEntry("etlLogRows", 3L).containsEntry("etlLogBatches", 5L);
+        assertThat(job.getStatus()).isEqualTo(Status.FAILED);
+    }
+
+    @Test
+    @DisplayName("VALIDATE_REFERENCE steps of a run share one reference set until a step writes its table")
+    void validateReferenceSharesReferenceSetsAcrossSteps() {
+        givenFileData(row("ID", "id-0"));
+        when(persistencePort.loadReferenceIndex(eq("HR"), any(), anyString(), anyString(), any()))
+                .thenReturn(CompactIdIndex.builder().add("id-0").build());
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        Map<String, Object> validate = Map.of("fieldColumn", "ID", "referenceTable", "HR");
+        Task task = new Task("task", TaskType.PERSISTENCE, 1, false);
+        task.addStep(new Step("owner", StepType.VALIDATE_REFERENCE, 1, validate));
+        task.addStep(new Step("approver", StepType.VALIDATE_REFERENCE, 2, validate));
+        task.addStep(new Step("load-hr", StepType.INSERT, 3, Map.of("tableName", "HR")));
+        task.addStep(new Step("reviewer", StepType.VALIDATE_REFERENCE, 4, validate));
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL);
+        job.addTask(task);
+
+        processor.prepareRun(List.of(job));
+        processor.process(List.of(job));
+        processor.finishRun(List.of(job));
+
+        verify(persistencePort, times(2)).loadReferenceIndex(eq("HR"), any(), anyString(), anyString(), any());
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("VALIDATE_REFERENCE matches file values to reference ids by canonical key, not by type")
+    void validateReferenceMatchesByCanonicalKey() {
+        lenient().when(fileReader.read(any(Path.class), anyMap())).thenAnswer(inv -> Stream.of(
+                new HashMap<>(Map.of("ID", "row-1", "OWNER", 12345.0)),
+                new HashMap<>(Map.of("ID", "row-2", "OWNER", " AB12 ")),
+                new HashMap<>(Map.of("ID", "row-3", "OWNER", 12346.0))));
+        when(persistencePort.loadReferenceIndex(eq("HR"), any(), anyString(), anyString(), any()))
+                .thenReturn(CompactIdIndex.canonicalBuilder().add(new BigDecimal("12345")).add("ab12").build());
+
+        Job job = buildJob(TaskType.PERSISTENCE,
+                new Step("validate", StepType.VALIDATE_REFERENCE, 1, Map.of(
+                        "fieldColumn", "OWNER",
+                        "referenceTable", "HR",
+                        "idColumn", "ID"
+                )));
+
+        processor.process(List.of(job));
+
+        assertThat(stepLogs(job)).filteredOn(e -> e.getLevel() == LogLevel.TRACE)
+                .singleElement().satisfies(e -> assertThat(e.getMessage()).contains("12346.0", "row-3"));
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
     // ── INSERT ───────────────────────────────────────────────────────────────
 
     @Test
@@ -223,6 +483,437 @@ class DefaultJobProcessorTest {
         assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
     }
 
+    @Test
+    @DisplayName("INSERT with writerParallelism spreads chunks over writer threads and sums their results")
+    void insertWithWriterParallelismSumsResults() {
+        givenFileRows(10);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(persistencePort.insertData(anyList(), anyList(), anyMap())).thenAnswer(inv -> {
+            threads.add(Thread.currentThread().getName());
+            List<Action> chunk = inv.getArgument(0);
+            boolean hasBadRow = chunk.stream().anyMatch(a -> "id-9".equals(a.data().get("ID")));
+            return hasBadRow ? new InsertResult(chunk.size() - 1, 1) : new InsertResult(chunk.size(), 0);
+        });
+
+        Job job = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "TEST_TABLE", "autoMap", true, "writerParallelism", 3)));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, times(3)).insertData(anyList(), anyList(), anyMap());
+        assertThat(threads).hasSizeGreaterThan(1).noneMatch(name -> name.equals("main"));
+        assertThat(stepLogs(job)).filteredOn(e -> e.getLevel() == LogLevel.SUMMARY)
+                .singleElement()
+                .satisfies(e -> assertThat(e.getMessage()).startsWith("Inserted 9 (1 failed)"));
+    }
+
+    @Test
+    @DisplayName("INSERT with writerParallelism rethrows a writer failure and fails the task")
+    void insertWithWriterParallelismPropagatesFailure() {
+        givenFileRows(8);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.insertData(anyList(), anyList(), anyMap()))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        Job job = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "TEST_TABLE", "autoMap", true, "writerParallelism", 4)));
+
+        processor.process(List.of(job));
+
+        assertThat(job.getTasks().get(0).getStatus()).isEqualTo(Status.FAILED);
+        assertThat(job.getStatus()).isEqualTo(Status.FAILED);
+    }
+
+    @Test
+    @DisplayName("INSERT records the round-trips the adapter spent isolating bad rows")
+    void insertRecordsIsolationRoundTrips() {
+        givenFileRows(5);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.insertData(anyList(), anyList(), anyMap())).thenReturn(new InsertResult(4, 1, 3));
+
+        Job job = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "TEST_TABLE", "autoMap", true)));
+
+        processor.process(List.of(job));
+
+        Step step = job.getTasks().get(0).getSteps().get(0);
+        assertThat(step.getMetrics().getCustomMetrics()).containsEntry("isolationRoundTrips", 3L);
+        assertThat(stepLogs(job)).anyMatch(e -> e.getLevel() == LogLevel.WARN
+                && e.getMessage().contains("3 extra round-trips"));
+    }
+
+    @Test
+    @DisplayName("INSERT with upsertStrategy MERGE lets the database upsert and never loads existing IDs")
+    void insertWithMergeStrategyUpsertsInDatabase() {
+        givenFileRows(5);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID"), new DatabaseMapping("Name", "NAME")));
+        when(persistencePort.mergeData(anyList(), anyList(), anyMap(), eq("ID"), eq(true)))
+                .thenReturn(new MergeResult(3, 2, 0, 0));
+
+        Job job = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "TEST_TABLE", "upsertMode", true, "upsertStrategy", "MERGE")));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, never()).loadExistingIdIndex(anyString(), any(), anyString(), any(), any());
+        verify(persistencePort, never()).insertData(anyList(), anyList(), anyMap());
+        assertThat(stepLogs(job)).filteredOn(e -> e.getLevel() == LogLevel.SUMMARY)
+                .singleElement()
+                .satisfies(e -> assertThat(e.getMessage()).startsWith("Inserted 3, updated 2 records"));
+    }
+
+    @Test
+    @DisplayName("INSERT with upsertStrategy MERGE falls back to the ID split when the database has no MERGE")
+    void insertWithMergeStrategyFallsBackToSplit() {
+        givenFileRows(3);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.loadExistingIdIndex(eq("TEST_TABLE"), isNull(), eq("ID"), isNull(), any()))
+                .thenReturn(CompactIdIndex.builder().add("id-0").build());
+
+        Job job = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "TEST_TABLE", "skipExisting", true, "upsertStrategy", "MERGE")));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort).mergeData(anyList(), anyList(), anyMap(), eq("ID"), eq(false));
+        verify(persistencePort).insertData(argThat(rows -> rows.size() == 2), anyList(), anyMap());
+        assertThat(job.getTasks().get(0).getSteps().get(0).getMetrics().getCustomMetrics())
+                .containsEntry("existingIds", 1);
+        assertThat(stepLogs(job)).anyMatch(e -> e.getLevel() == LogLevel.WARN
+                && e.getMessage().contains("MERGE is not supported"));
+    }
+
+    @Test
+    @DisplayName("INSERT with upsertMode matches existing ids by exact text, like the UPDATE's WHERE clause")
+    void insertWithUpsertModeMatchesIdsExactly() {
+        lenient().when(fileReader.read(any(Path.class), anyMap()))
+                .thenAnswer(inv -> Stream.of(row("ID", "abc"), row("ID", "ABC")));
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.loadExistingIdIndex(eq("TEST_TABLE"), isNull(), eq("ID"), isNull(), any()))
+                .thenReturn(CompactIdIndex.builder().add("abc").build());
+
+        Job job = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "TEST_TABLE", "upsertMode", true)));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort).updateData(argThat(rows -> rows.size() == 1 && "abc".equals(rows.get(0).get("ID"))),
+                anyList(), anyMap(), eq("ID"));
+        verify(persistencePort).insertData(argThat(rows -> rows.size() == 1 && "ABC".equals(rows.get(0).get("ID"))),
+                anyList(), anyMap());
+    }
+
+    // ── STREAMING ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("STREAMING mode pushes rows to insertData() in batchSize chunks and sums the SUMMARY")
+    void streamingInsertsInBatchSizeChunks() {
+        givenFileRows(5);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+
+        Job job = buildStreamingJob(2, TaskType.PERSISTENCE,
+                new Step("insert", StepType.INSERT, 1, Map.of("tableName", "TEST_TABLE", "autoMap", true)));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, times(3)).insertData(anyList(), anyList(), anyMap());
+        verify(columnAutoMapper, times(1)).resolve(anyList(), anyString(), any(), anyList());
+        assertThat(stepLogs(job)).filteredOn(e -> e.getLevel() == LogLevel.SUMMARY)
+                .singleElement()
+                .satisfies(e -> assertThat(e.getMessage()).startsWith("Inserted 5"));
+        assertThat(job.getMetrics().getCustomMetrics()).containsEntry("totalRowsRead", 5L);
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("STREAMING mode sizes the file up front through the reader's metadata path")
+    void streamingRecordsExpectedRows() {
+        givenFileRows(5);
+        when(fileReader.readFileMetadata(any(Path.class), anyMap()))
+                .thenReturn(new FileMetadata("/data/test.xlsx", 100, 6, false));
+
+        Job job = buildStreamingJob(2, TaskType.TRANSFORMATION,
+                new Step("dedup", StepType.DEDUPLICATE, 1, Map.of("keyColumn", "ID")));
+
+        processor.process(List.of(job));
+
+        assertThat(job.getMetrics().getCustomMetrics())
+                .containsEntry("expectedRows", 6L)
+                .containsEntry("expectedRowsExact", false)
+                .containsEntry("totalRowsRead", 5L);
+        verify(fileReader, never()).readFileMetadata(any(Path.class));
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("STREAMING mode keeps DEDUPLICATE keys and LOOKUP map across chunks")
+    void streamingKeepsStepStateAcrossChunks() {
+        List<Map<String, Object>> rows = List.of(
+                row("ID", "a"), row("ID", "b"), row("ID", "a"), row("ID", "c"), row("ID", "b"));
+        lenient().when(fileReader.read(any(Path.class), anyMap()))
+                .thenAnswer(inv -> rows.stream().map(HashMap::new));
+        when(persistencePort.lookupDictionary(any(), any(), any(), any(), any()))
+                .thenReturn(dictionary("a", "A"));
+
+        Job job = buildStreamingJob(2, TaskType.TRANSFORMATION,
+                new Step("dedup", StepType.DEDUPLICATE, 1, Map.of("keyColumn", "ID")));
+        job.getTasks().get(0).addStep(new Step("resolve", StepType.LOOKUP, 2, Map.of(
+                "sourceColumn", "ID",
+                "targetColumn", "NAME",
+                "referenceTable", "ref",
+                "referenceKeyColumn", "k",
+                "referenceValueColumn", "v")));
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, times(1)).lookupDictionary(any(), any(), any(), any(), any());
+        assertThat(stepLogs(job)).anyMatch(e ->
+                e.getMessage().equals("Deduplicated on 'ID': removed 2 duplicates, 3 remaining"));
+        assertThat(job.getTasks().get(0).getMetrics().getRecordsProcessed()).isEqualTo(3);
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("STREAMING mode runs TRUNCATE once before the first chunk")
+    void streamingRunsTruncateOnce() {
+        givenFileRows(4);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+
+        Job job = buildStreamingJob(1, TaskType.PERSISTENCE,
+                new Step("truncate", StepType.TRUNCATE, 1, Map.of("tableName", "TEST_TABLE")));
+        job.getTasks().get(0).addStep(
+                new Step("insert", StepType.INSERT, 2, Map.of("tableName", "TEST_TABLE", "autoMap", true)));
+
+        processor.process(List.of(job));
+
+        var order = inOrder(persistencePort);
+        order.verify(persistencePort).truncate(anyMap());
+        order.verify(persistencePort, times(4)).insertData(anyList(), anyList(), anyMap());
+        verify(persistencePort, times(1)).truncate(anyMap());
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("STREAMING mode stops reading when a stopOnFailure task fails")
+    void streamingStopsOnFailure() {
+        givenFileRows(6);
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.insertData(anyList(), anyList(), anyMap()))
+                .thenReturn(new InsertResult(2, 0))
+                .thenThrow(new RuntimeException("connection lost"));
+
+        Task task = new Task("task", TaskType.PERSISTENCE, 1, true);
+        task.addStep(new Step("insert", StepType.INSERT, 1, Map.of("tableName", "TEST_TABLE", "autoMap", true)));
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL, 2, 0, false, ExecutionMode.STREAMING);
+        job.addTask(task);
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, times(2)).insertData(anyList(), anyList(), anyMap());
+        assertThat(task.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(job.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(job.getMetrics().getCustomMetrics()).containsEntry("totalRowsRead", 4L);
+    }
+
+    // ── PIPELINED ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("PIPELINED mode runs transformation tasks before persistence tasks and records stage metrics")
+    void pipelinedRunsStagesInOrder() {
+        List<Map<String, Object>> rows = List.of(
+                row("ID", "a"), row("ID", "b"), row("ID", "a"), row("ID", "c"), row("ID", "b"));
+        lenient().when(fileReader.read(any(Path.class), anyMap()))
+                .thenAnswer(inv -> rows.stream().map(HashMap::new));
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        List<Object> inserted = new CopyOnWriteArrayList<>();
+        when(persistencePort.insertData(anyList(), anyList(), anyMap())).thenAnswer(inv -> {
+            List<Action> chunk = inv.getArgument(0);
+            chunk.forEach(a -> inserted.add(a.data().get("ID")));
+            return new InsertResult(chunk.size(), 0);
+        });
+
+        Task transform = new Task("transform", TaskType.TRANSFORMATION, 1, false);
+        transform.addStep(new Step("dedup", StepType.DEDUPLICATE, 1, Map.of("keyColumn", "ID")));
+        Task persist = new Task("persist", TaskType.PERSISTENCE, 2, false);
+        persist.addStep(new Step("insert", StepType.INSERT, 1, Map.of("tableName", "TEST_TABLE", "autoMap", true)));
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL, 2, 0, false, ExecutionMode.PIPELINED);
+        job.addTask(transform);
+        job.addTask(persist);
+
+        processor.process(List.of(job));
+
+        assertThat(inserted).containsExactly("a", "b", "c");
+        assertThat(job.getMetrics().getCustomMetrics())
+                .containsEntry("totalRowsRead", 5L)
+                .containsEntry("pipeline.read.rows", 5L)
+                .containsEntry("pipeline.write.rows", 3L)
+                .containsKeys("pipeline.write.rowsPerSecond", "pipeline.writeQueue.maxDepth");
+        assertThat(job.getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("PIPELINED mode stops the read stage when a stopOnFailure task fails")
+    void pipelinedStopsOnFailure() {
+        lenient().when(fileReader.read(any(Path.class), anyMap()))
+                .thenAnswer(inv -> Stream.iterate(0, i -> i + 1).map(i -> row("ID", "id-" + i)));
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.insertData(anyList(), anyList(), anyMap()))
+                .thenReturn(new InsertResult(2, 0))
+                .thenThrow(new RuntimeException("connection lost"));
+
+        Task task = new Task("task", TaskType.PERSISTENCE, 1, true);
+        task.addStep(new Step("insert", StepType.INSERT, 1, Map.of("tableName", "TEST_TABLE", "autoMap", true)));
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL, 2, 0, false, ExecutionMode.PIPELINED);
+        job.addTask(task);
+
+        processor.process(List.of(job));
+
+        verify(persistencePort, times(2)).insertData(anyList(), anyList(), anyMap());
+        assertThat(task.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(job.getStatus()).isEqualTo(Status.FAILED);
+    }
+
+    // ── processAllSheets ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("sheetParallelism > 1 runs sheets concurrently and aggregates a PARTIAL status")
+    void parallelSheetsAggregatePartialStatus() {
+        when(fileReader.open(any(Path.class), anyMap())).thenCallRealMethod();
+        when(fileReader.getSheetNames(any(Path.class))).thenReturn(List.of("S0", "S1", "S2"));
+        when(fileReader.read(any(Path.class), anyMap()))
+                .thenAnswer(inv -> Stream.of(row("ID", "sheet-" + ((Map<?, ?>) inv.getArgument(1)).get("sheetIndex"))));
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.insertData(anyList(), anyList(), anyMap())).thenAnswer(inv -> {
+            Map<?, ?> params = inv.getArgument(2);
+            if ("S1".equals(params.get("tableName"))) throw new RuntimeException("table S1 is locked");
+            return new InsertResult(1, 0);
+        });
+
+        Task task = new Task("task", TaskType.PERSISTENCE, 1, false);
+        task.addStep(new Step("insert", StepType.INSERT, 1, Map.of("autoMap", true)));
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL, 500, 0, true, ExecutionMode.IN_MEMORY, 3);
+        job.addTask(task);
+
+        processor.process(List.of(job));
+
+        verify(fileReader).open(any(Path.class), anyMap());
+        verify(persistencePort, times(3)).insertData(anyList(), anyList(), anyMap());
+        assertThat(task.getStatus()).isEqualTo(Status.PARTIAL);
+        assertThat(job.getStatus()).isEqualTo(Status.PARTIAL);
+        assertThat(stepLogs(job)).filteredOn(e -> e.getLevel() == LogLevel.SUMMARY)
+                .extracting(e -> e.getContext().get("sheet"))
+                .containsExactly("S0", "S2");
+        assertThat(stepLogs(job)).anyMatch(e -> e.getLevel() == LogLevel.ERROR
+                && "S1".equals(e.getContext().get("sheet")));
+        assertThat(task.getSteps().get(0).getMetrics().getRecordsProcessed()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("sheetParallelism > 1 ends FAILED when the task fails on every sheet")
+    void parallelSheetsAllFailedIsFailed() {
+        when(fileReader.open(any(Path.class), anyMap())).thenCallRealMethod();
+        when(fileReader.getSheetNames(any(Path.class))).thenReturn(List.of("S0", "S1"));
+        when(fileReader.read(any(Path.class), anyMap())).thenAnswer(inv -> Stream.of(row("ID", "x")));
+        when(columnAutoMapper.resolve(anyList(), anyString(), any(), anyList()))
+                .thenReturn(List.of(new DatabaseMapping("ID", "ID")));
+        when(persistencePort.insertData(anyList(), anyList(), anyMap()))
+                .thenThrow(new RuntimeException("database down"));
+
+        Task task = new Task("task", TaskType.PERSISTENCE, 1, false);
+        task.addStep(new Step("insert", StepType.INSERT, 1, Map.of("autoMap", true)));
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL, 500, 0, true, ExecutionMode.IN_MEMORY, 2);
+        job.addTask(task);
+
+        processor.process(List.of(job));
+
+        assertThat(task.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(job.getStatus()).isEqualTo(Status.FAILED);
+    }
+
+    // ── column projection ────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("reader params carry the columns used by the steps plus the auto-mappable table columns")
+    @SuppressWarnings("unchecked")
+    void readerParamsCarryColumnProjection() {
+        givenFileData(row("Email", "alice@example.com"));
+        when(columnAutoMapper.autoMappableColumns("TEST_TABLE", null)).thenReturn(Set.of("NAME"));
+
+        Job job = buildJob(TaskType.PERSISTENCE,
+                new Step("resolve", StepType.LOOKUP, 1, Map.of(
+                        "sourceColumn", "Email",
+                        "targetColumn", "CK",
+                        "referenceTable", "hr",
+                        "referenceKeyColumn", "mail",
+                        "referenceValueColumn", "id")));
+        job.getTasks().get(0).addStep(new Step("insert", StepType.INSERT, 2, Map.of(
+                "tableName", "TEST_TABLE",
+                "skipExisting", true)));
+
+        processor.process(List.of(job));
+
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        verify(fileReader).read(any(Path.class), params.capture());
+        assertThat(params.getValue().get("projection")).isInstanceOfSatisfying(ColumnProjection.class, p -> {
+            assertThat(p.headers()).containsExactlyInAnyOrder("Email", "ID");
+            assertThat(p.autoMappedColumns()).containsExactly("NAME");
+            assertThat(p.includes("Name")).isTrue();
+            assertThat(p.includes("Notes")).isFalse();
+        });
+    }
+
+    @Test
+    @DisplayName("reader: { projection: false } reads every column")
+    @SuppressWarnings("unchecked")
+    void projectionCanBeDisabledPerJob() {
+        givenFileData(row("ID", "a"));
+        Task task = new Task("task", TaskType.TRANSFORMATION, 1, false);
+        task.addStep(new Step("dedup", StepType.DEDUPLICATE, 1, Map.of("keyColumn", "ID")));
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL, 1000, 0, false,
+                ExecutionMode.IN_MEMORY, 1, Map.of("projection", false));
+        job.addTask(task);
+
+        processor.process(List.of(job));
+
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        verify(fileReader).read(any(Path.class), params.capture());
+        assertThat(params.getValue()).doesNotContainKey("projection").containsEntry("sheetIndex", 0);
+    }
+
+    // ── run lifecycle ────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("prepareRun warms the metadata of each schema named by pending jobs once; finishRun drops it")
+    void prepareRunWarmsSchemasOnce() {
+        Job first = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "A", "schema", "INGESTA")));
+        Job second = buildJob(TaskType.PERSISTENCE, new Step("link", StepType.LINK_PARENT, 1,
+                Map.of("tableName", "B", "schema", "INGESTA")));
+        Job skipped = buildJob(TaskType.PERSISTENCE, new Step("insert", StepType.INSERT, 1,
+                Map.of("tableName", "C", "schema", "OTHER")));
+        skipped.skip("no file");
+
+        processor.prepareRun(List.of(first, second, skipped));
+        processor.finishRun(List.of(first, second, skipped));
+
+        verify(columnAutoMapper, times(1)).warmUp("INGESTA");
+        verify(columnAutoMapper, never()).warmUp("OTHER");
+        verify(columnAutoMapper).invalidateMetadata();
+    }
+
     // ── helpers ──────────────────────────────────────────────────────────────
 
     private void givenFileData(Map<String, Object> rowData) {
@@ -240,6 +931,34 @@ class DefaultJobProcessorTest {
         return job;
     }
 
+    private void givenFileRows(int count) {
+        lenient().when(fileReader.read(any(Path.class), anyMap()))
+                .thenAnswer(inv -> IntStream.range(0, count)
+                        .mapToObj(i -> row("ID", "id-" + i)));
+    }
+
+    private static CompactStringMap dictionary(String... keysAndValues) {
+        CompactStringMap.Builder dictionary = CompactStringMap.builder();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            dictionary.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return dictionary.build();
+    }
+
+    private static Map<String, Object> row(String column, Object value) {
+        Map<String, Object> row = new HashMap<>();
+        row.put(column, value);
+        return row;
+    }
+
+    private Job buildStreamingJob(int batchSize, TaskType taskType, Step step) {
+        Task task = new Task("task", taskType, 1, false);
+        task.addStep(step);
+        Job job = new Job("test-job", "/data/test.xlsx", FileType.EXCEL, batchSize, 0, false, ExecutionMode.STREAMING);
+        job.addTask(task);
+        return job;
+    }
+
     private List<LogEntry> stepLogs(Job job) {
         return job.getTasks().get(0).getSteps().get(0).getLogs();
     }
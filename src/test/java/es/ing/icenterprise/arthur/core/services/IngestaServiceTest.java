@@ -92,7 +92,10 @@ class IngestaServiceTest {
         verify(yamlScanner).scanJobDefinitions();
         verify(jobDefinitionLoader).load(tempYaml);
         verify(fileDownloader).download(any());
-        verify(jobProcessor).process(anyList());
+        var run = inOrder(jobProcessor);
+        run.verify(jobProcessor).prepareRun(anyList());
+        run.verify(jobProcessor).process(anyList());
+        run.verify(jobProcessor).finishRun(anyList());
         verify(metricsCollector).collect(anyList(), eq(true));
         verify(notificationPort).notify(any(), eq(NotificationType.EMAIL));
     }
@@ -0,0 +1,59 @@
+package es.ing.icenterprise.arthur.core.services;
+
+import es.ing.icenterprise.arthur.core.domain.model.CompactStringMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LookupDictionaryCacheTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2026, 1, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2026, 1, 2);
+
+    @Test
+    @DisplayName("a dictionary is reused while its version is unchanged and reloaded when it changes")
+    void reloadsOnlyWhenTheVersionChanges() {
+        LookupDictionaryCache cache = new LookupDictionaryCache();
+        CompactStringMap day1 = dictionary("ck1");
+        CompactStringMap day2 = dictionary("ck2");
+        CompactStringMap unversioned = dictionary("a");
+
+        assertThat(cache.get("HR", null, "MAIL", "ID", "TIMESTAMP", DAY_1, () -> day1)).isSameAs(day1);
+        assertThat(cache.get("hr", null, "mail", "id", "timestamp", DAY_1, () -> dictionary("other"))).isSameAs(day1);
+        assertThat(cache.get("HR", null, "MAIL", "ID", "TIMESTAMP", DAY_2, () -> day2)).isSameAs(day2);
+        assertThat(cache.get("HR", null, "MAIL", "NAME", "TIMESTAMP", DAY_2, () -> day1)).isSameAs(day1);
+        cache.get("CODES", null, "K", "V", null, null, () -> unversioned);
+        assertThat(cache.get("CODES", null, "K", "V", null, null, () -> dictionary("b"))).isSameAs(unversioned);
+        assertThat(cache.loads()).isEqualTo(4);
+        assertThat(cache.hits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("clear drops every dictionary, even at an unchanged version; invalidate drops a table; failures are not cached")
+    void dropsWhatCannotBeTrusted() {
+        LookupDictionaryCache cache = new LookupDictionaryCache();
+        CompactStringMap fresh = dictionary("b");
+        cache.get("HR", "INGESTA", "MAIL", "ID", "TIMESTAMP", DAY_1, () -> dictionary("hr"));
+
+        cache.clear();
+        assertThat(cache.loads()).isZero();
+        assertThat(cache.get("HR", "INGESTA", "MAIL", "ID", "TIMESTAMP", DAY_1, () -> fresh)).isSameAs(fresh);
+
+        cache.invalidate("ingesta.hr");
+        CompactStringMap reloaded = dictionary("hr2");
+        assertThat(cache.get("HR", "INGESTA", "MAIL", "ID", "TIMESTAMP", DAY_1, () -> reloaded)).isSameAs(reloaded);
+
+        assertThatThrownBy(() -> cache.get("POLICY", null, "K", "V", "TS", DAY_1, () -> {
+            throw new IllegalStateException("db down");
+        })).hasMessage("db down");
+        assertThat(cache.get("POLICY", null, "K", "V", "TS", DAY_1, () -> fresh)).isSameAs(fresh);
+    }
+
+    private static CompactStringMap dictionary(String value) {
+        return CompactStringMap.builder().put("key", value).build();
+    }
+}
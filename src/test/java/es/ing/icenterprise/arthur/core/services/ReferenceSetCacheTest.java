@@ -0,0 +1,84 @@
+package es.ing.icenterprise.arthur.core.services;
+
+import es.ing.icenterprise.arthur.core.domain.model.CompactIdIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReferenceSetCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 1);
+
+    @Test
+    @Timeout(10)
+    @DisplayName("concurrent callers of one key share a single load; other dates and matching rules load separately")
+    void loadsEachKeyOnce() throws InterruptedException {
+        ReferenceSetCache cache = new ReferenceSetCache();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CompactIdIndex hr = index("ck1");
+        CompactIdIndex nextDay = index("ck2");
+        CompactIdIndex exact = index("ck3");
+
+        ExecutorService jobs = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<CompactIdIndex>> callers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> cache.get("HR", "INGESTA", "ID", "TIMESTAMP", DATE, true, () -> {
+                loads.incrementAndGet();
+                try {
+                    loading.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return hr;
+            }), jobs));
+        }
+        while (cache.loads() + cache.hits() < 4) Thread.sleep(5);
+        loading.countDown();
+        jobs.shutdown();
+
+        assertThat(callers).allSatisfy(f -> assertThat(f.join()).isSameAs(hr));
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("hr", "ingesta", "id", "timestamp", DATE, true, () -> index("other"))).isSameAs(hr);
+        assertThat(cache.get("HR", "INGESTA", "ID", "TIMESTAMP", DATE.plusDays(1), true, () -> nextDay)).isSameAs(nextDay);
+        assertThat(cache.get("HR", "INGESTA", "ID", "TIMESTAMP", DATE, false, () -> exact)).isSameAs(exact);
+        assertThat(cache.loads()).isEqualTo(3);
+        assertThat(cache.hits()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("invalidate drops every set of the table, and a failed load is not cached")
+    void invalidatesAndDoesNotCacheFailures() {
+        ReferenceSetCache cache = new ReferenceSetCache();
+        CompactIdIndex fresh = index("new");
+        CompactIdIndex policies = index("p1");
+        cache.get("HR", null, "ID", "TIMESTAMP", DATE, true, () -> index("old"));
+        cache.get("HR", "INGESTA", "ID", "TIMESTAMP", DATE, true, () -> index("old"));
+
+        cache.invalidate("ingesta.hr");
+
+        assertThat(cache.get("HR", null, "ID", "TIMESTAMP", DATE, true, () -> fresh)).isSameAs(fresh);
+        assertThat(cache.get("HR", "INGESTA", "ID", "TIMESTAMP", DATE, true, () -> fresh)).isSameAs(fresh);
+
+        assertThatThrownBy(() -> cache.get("POLICY", null, "ID", "TIMESTAMP", DATE, true, () -> {
+            throw new IllegalStateException("db down");
+        })).hasMessage("db down");
+        assertThat(cache.get("POLICY", null, "ID", "TIMESTAMP", DATE, true, () -> policies)).isSameAs(policies);
+    }
+
+    private static CompactIdIndex index(String id) {
+        return CompactIdIndex.builder().add(id).build();
+    }
+}